@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Fast-start mode: Spring AOT + AppCDS archive + lazy initialization.
+#
+#   scripts/fast-start.sh build        # mvn -Pfast-start package, extract jar, CDS training run
+#   scripts/fast-start.sh run [args]   # start with AOT + CDS archive + fast-start profile
+#
+# Extra Spring arguments (e.g. --jwt.secret=...) can be passed after "run" or via APP_ARGS.
+#
+# AOT fixes bean conditions at build time: @ConditionalOnProperty and @Profile are
+# evaluated once during the build and ignored at startup. Properties that switch beans
+# on or off (app.datasource.replica.enabled, followup.reminder.enabled,
+# app.text-compression.migration.enabled) and profiles that add beans (generator)
+# therefore have to be given to the build, as JVM system properties in AOT_ARGS:
+#
+#   AOT_ARGS="-Dfollowup.reminder.enabled=false -Dapp.datasource.replica.enabled=true" scripts/fast-start.sh build
+#
+# The build stores them, and the training run and "run" start with the same values.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+OUT_DIR="target/fast-start"
+JAR_NAME="utin-0.0.1-SNAPSHOT.jar"
+ARCHIVE="$OUT_DIR/application.jsa"
+AOT_ARGS_FILE="$OUT_DIR/aot-args"
+PROFILE="fast-start"
+APP_ARGS="${APP_ARGS:-}"
+# Idle time before a pooled RxNav connection is closed; the JDK HttpClient only reads it at startup
+HTTP_KEEPALIVE_SECONDS="${HTTP_KEEPALIVE_SECONDS:-60}"
+
+build() {
+    local aot_args="${AOT_ARGS:-}"
+    ./mvnw -B -q -Pfast-start -DskipTests ${aot_args:+"-Dspring-boot.aot.jvmArguments=$aot_args"} package
+    rm -rf "$OUT_DIR"
+    java -Djarmode=tools -jar "target/$JAR_NAME" extract --destination "$OUT_DIR"
+    echo "$aot_args" > "$AOT_ARGS_FILE"
+
+    # Training run: refresh the context, then exit and dump the loaded classes
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" \
+        $aot_args \
+        -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh \
+        -Dspring.profiles.active="$PROFILE" \
+        -jar "$OUT_DIR/$JAR_NAME" $APP_ARGS
+    echo "CDS archive written to $ARCHIVE"
+}
+
+run() {
+    if [[ ! -f "$ARCHIVE" ]]; then
+        echo "No CDS archive at $ARCHIVE, run '$0 build' first" >&2
+        exit 1
+    fi
+    local aot_args
+    aot_args="$(cat "$AOT_ARGS_FILE" 2>/dev/null || true)"
+    exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto \
+        $aot_args \
+        -Djdk.httpclient.keepalive.timeout="$HTTP_KEEPALIVE_SECONDS" \
+        -Djdk.httpclient.keepalive.timeout.h2="$HTTP_KEEPALIVE_SECONDS" \
+        -Dspring.aot.enabled=true \
+        -Dspring.profiles.active="$PROFILE" \
+        -jar "$OUT_DIR/$JAR_NAME" $APP_ARGS "$@"
+}
+
+case "${1:-}" in
+    build) build ;;
+    run) shift; run "$@" ;;
+    *) echo "usage: $0 build|run [spring args]" >&2; exit 2 ;;
+esac
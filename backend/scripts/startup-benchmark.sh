@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Startup benchmark: time-to-ready and first-request latency.
+#
+#   scripts/startup-benchmark.sh baseline   [runs]   # plain jar (mvn package)
+#   scripts/startup-benchmark.sh fast-start [runs]   # requires scripts/fast-start.sh build
+#
+# Time-to-ready is measured from process launch until /actuator/health/readiness
+# answers 200. First-request latency is a login as the seeded "doctor" user,
+# which touches BCrypt, JPA, Jackson and JWT signing. Spring's own
+# "process running for" figure is reported alongside.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+MODE="${1:-baseline}"
+RUNS="${2:-5}"
+PORT="${PORT:-18089}"
+APP_ARGS="${APP_ARGS:-}"
+BASE_URL="http://localhost:$PORT"
+LOG_DIR="target/startup-benchmark"
+mkdir -p "$LOG_DIR"
+
+launch() {
+    local log="$1"
+    local common=(--server.port="$PORT" --management.endpoint.health.probes.enabled=true --followup.reminder.enabled=false)
+    case "$MODE" in
+        baseline)
+            java -jar target/utin-0.0.1-SNAPSHOT.jar "${common[@]}" $APP_ARGS >"$log" 2>&1 &
+            ;;
+        fast-start)
+            scripts/fast-start.sh run "${common[@]}" >"$log" 2>&1 &
+            ;;
+        *)
+            echo "unknown mode: $MODE" >&2; exit 2 ;;
+    esac
+    echo $!
+}
+
+now_ms() { date +%s%3N; }
+
+median() { sort -n | awk '{a[NR]=$1} END {print (NR%2 ? a[(NR+1)/2] : (a[NR/2]+a[NR/2+1])/2)}'; }
+
+ready_times=()
+first_times=()
+for i in $(seq 1 "$RUNS"); do
+    log="$LOG_DIR/$MODE-$i.log"
+    start=$(now_ms)
+    pid=$(launch "$log")
+    until curl -sf -o /dev/null "$BASE_URL/actuator/health/readiness"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited during startup, see $log" >&2; exit 1
+        fi
+        sleep 0.02
+    done
+    ready=$(( $(now_ms) - start ))
+
+    first=$(curl -s -o /dev/null -w '%{time_total}' -H 'Content-Type: application/json' \
+        -d '{"username":"doctor","password":"password123"}' "$BASE_URL/api/v1/auth/login" \
+        | awk '{printf "%d", $1 * 1000}')
+
+    spring=$(grep -o 'process running for [0-9.]*' "$log" | awk '{print $4}' || true)
+    printf '%-10s run %d: ready=%5d ms  first-request=%5d ms  (spring: %ss)\n' "$MODE" "$i" "$ready" "$first" "${spring:-?}"
+    ready_times+=("$ready")
+    first_times+=("$first")
+
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+done
+
+printf '%-10s median: ready=%s ms  first-request=%s ms over %d runs\n' "$MODE" \
+    "$(printf '%s\n' "${ready_times[@]}" | median)" \
+    "$(printf '%s\n' "${first_times[@]}" | median)" "$RUNS"
@@ -0,0 +1,67 @@
+package com.main.utin.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup values for admission control (app.admission.*). Limits can be
+ * changed at runtime through the admin endpoint.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    /** Upper bound on per-principal buckets kept in memory */
+    private int maxBuckets = 50_000;
+
+    /** Buckets untouched for this long are evicted */
+    private long idleEvictionMs = 300_000;
+
+    /** While the table is full, a request sweeps idle buckets itself at most this often */
+    private long inlineSweepIntervalMs = 1_000;
+
+    /** GET paths (Ant patterns) treated as heavy range/report reads */
+    private List<String> heavyPaths = new ArrayList<>(List.of(
+            "/api/v1/prescription",
+            "/api/v1/prescription/report/day-wise-count"));
+
+    private Map<EndpointClass, ClassLimit> limits = defaultLimits();
+
+    @Getter
+    @Setter
+    public static class ClassLimit {
+        private double perPrincipalRate;
+        private int perPrincipalBurst;
+        private double globalRate;
+        private int globalBurst;
+
+        ClassLimit() {
+        }
+
+        ClassLimit(double perPrincipalRate, int perPrincipalBurst, double globalRate, int globalBurst) {
+            this.perPrincipalRate = perPrincipalRate;
+            this.perPrincipalBurst = perPrincipalBurst;
+            this.globalRate = globalRate;
+            this.globalBurst = globalBurst;
+        }
+    }
+
+    private static Map<EndpointClass, ClassLimit> defaultLimits() {
+        Map<EndpointClass, ClassLimit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.LIGHT_READ, new ClassLimit(20, 40, 1000, 2000));
+        limits.put(EndpointClass.HEAVY_READ, new ClassLimit(1, 5, 25, 50));
+        limits.put(EndpointClass.WRITE, new ClassLimit(5, 10, 200, 400));
+        return limits;
+    }
+}
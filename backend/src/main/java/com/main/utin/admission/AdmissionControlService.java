@@ -0,0 +1,166 @@
+package com.main.utin.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-principal and global token buckets for each {@link EndpointClass}.
+ * A request is admitted only if both its principal's bucket and the global
+ * bucket of its class have a token.
+ */
+@Service
+public class AdmissionControlService {
+
+    @Autowired
+    private AdmissionControlProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<EndpointClass, ConcurrentHashMap<String, TokenBucket>> principalBuckets = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, TokenBucket> globalBuckets = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedCounters = new EnumMap<>(EndpointClass.class);
+
+    /** System.nanoTime() before which a full table is not swept again on the request path */
+    private final AtomicLong nextInlineSweep = new AtomicLong();
+
+    /** Replaced as a whole on runtime updates, read without locking on the hot path */
+    private volatile Map<EndpointClass, ClassLimits> limits;
+
+    public record ClassLimits(RateLimit perPrincipal, RateLimit global) {
+    }
+
+    @PostConstruct
+    void init() {
+        long now = System.nanoTime();
+        Map<EndpointClass, ClassLimits> initial = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionControlProperties.ClassLimit configured = properties.getLimits().get(endpointClass);
+            initial.put(endpointClass, configured == null
+                    ? new ClassLimits(new RateLimit(0, 0), new RateLimit(0, 0))
+                    : new ClassLimits(
+                            new RateLimit(configured.getPerPrincipalRate(), configured.getPerPrincipalBurst()),
+                            new RateLimit(configured.getGlobalRate(), configured.getGlobalBurst())));
+            principalBuckets.put(endpointClass, new ConcurrentHashMap<>());
+            globalBuckets.put(endpointClass, new TokenBucket(now));
+            rejectedCounters.put(endpointClass, Counter.builder("admission.rejected")
+                    .tag("class", endpointClass.name())
+                    .register(meterRegistry));
+        }
+        limits = initial;
+        nextInlineSweep.set(now);
+        meterRegistry.gauge("admission.buckets", this, AdmissionControlService::trackedBuckets);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public EndpointClass classify(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return EndpointClass.WRITE;
+        }
+        for (String pattern : properties.getHeavyPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return EndpointClass.HEAVY_READ;
+            }
+        }
+        return EndpointClass.LIGHT_READ;
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise nanoseconds until it could be
+     */
+    public long tryAdmit(String principal, EndpointClass endpointClass) {
+        ClassLimits classLimits = limits.get(endpointClass);
+        long now = System.nanoTime();
+
+        TokenBucket principalBucket = null;
+        if (!classLimits.perPrincipal().unlimited()) {
+            principalBucket = principalBucket(principal, endpointClass, now);
+            if (principalBucket != null) {
+                long wait = principalBucket.tryAcquire(classLimits.perPrincipal(), now);
+                if (wait > 0) {
+                    rejectedCounters.get(endpointClass).increment();
+                    return wait;
+                }
+            }
+        }
+
+        if (!classLimits.global().unlimited()) {
+            long wait = globalBuckets.get(endpointClass).tryAcquire(classLimits.global(), now);
+            if (wait > 0) {
+                if (principalBucket != null) {
+                    principalBucket.refund(classLimits.perPrincipal());
+                }
+                rejectedCounters.get(endpointClass).increment();
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private TokenBucket principalBucket(String principal, EndpointClass endpointClass, long now) {
+        ConcurrentHashMap<String, TokenBucket> buckets = principalBuckets.get(endpointClass);
+        TokenBucket bucket = buckets.get(principal);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (trackedBuckets() >= properties.getMaxBuckets()) {
+            // One request per interval pays for the sweep; the rest go on with the global bucket only
+            if (claimInlineSweep(now)) {
+                evictIdle();
+            }
+            if (trackedBuckets() >= properties.getMaxBuckets()) {
+                // Table full of active principals: only the global bucket applies
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(principal, key -> new TokenBucket(now));
+    }
+
+    private boolean claimInlineSweep(long now) {
+        long next = nextInlineSweep.get();
+        return now - next >= 0 && nextInlineSweep.compareAndSet(next,
+                now + TimeUnit.MILLISECONDS.toNanos(properties.getInlineSweepIntervalMs()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.admission.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictionMs());
+        for (ConcurrentHashMap<String, TokenBucket> buckets : principalBuckets.values()) {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        }
+    }
+
+    public int trackedBuckets() {
+        int total = 0;
+        for (ConcurrentHashMap<String, TokenBucket> buckets : principalBuckets.values()) {
+            total += buckets.size();
+        }
+        return total;
+    }
+
+    public Map<EndpointClass, ClassLimits> getLimits() {
+        return limits;
+    }
+
+    public synchronized void updateLimits(EndpointClass endpointClass, ClassLimits classLimits) {
+        Map<EndpointClass, ClassLimits> updated = new EnumMap<>(limits);
+        updated.put(endpointClass, classLimits);
+        limits = updated;
+    }
+}
@@ -0,0 +1,10 @@
+package com.main.utin.admission;
+
+/**
+ * Cost classes used for admission control; each has its own buckets.
+ */
+public enum EndpointClass {
+    LIGHT_READ,
+    HEAVY_READ,
+    WRITE
+}
@@ -0,0 +1,19 @@
+package com.main.utin.admission;
+
+/**
+ * Sustained rate and burst size of a token bucket. A rate of 0 or less disables the limit.
+ */
+public record RateLimit(double permitsPerSecond, int burst) {
+
+    public boolean unlimited() {
+        return permitsPerSecond <= 0;
+    }
+
+    long emissionIntervalNanos() {
+        return (long) (1_000_000_000L / permitsPerSecond);
+    }
+
+    long burstToleranceNanos() {
+        return emissionIntervalNanos() * (Math.max(1, burst) - 1);
+    }
+}
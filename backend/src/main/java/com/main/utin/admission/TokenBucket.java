@@ -0,0 +1,47 @@
+package com.main.utin.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical
+ * arrival time", advanced with a CAS per admitted request. The limit is passed
+ * in on every call so runtime changes take effect immediately.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise nanoseconds until one is available
+     */
+    long tryAcquire(RateLimit limit, long nowNanos) {
+        long interval = limit.emissionIntervalNanos();
+        long tolerance = limit.burstToleranceNanos();
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, nowNanos);
+            long wait = base - tolerance - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} when a later check rejected the request.
+     */
+    void refund(RateLimit limit) {
+        theoreticalArrival.addAndGet(-limit.emissionIntervalNanos());
+    }
+
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos < nowNanos;
+    }
+}
@@ -0,0 +1,11 @@
+package com.main.utin.analytics;
+
+import java.util.List;
+
+/**
+ * Result of one column-store scan: counts in row-major order over the two axes
+ * ({@code counts[first * secondLabels.size() + second]}). Doctor labels are user IDs.
+ */
+public record Breakdown(List<String> firstLabels, List<String> secondLabels, long[] counts,
+                        int scannedRows, long elapsedNanos) {
+}
@@ -0,0 +1,17 @@
+package com.main.utin.analytics;
+
+/**
+ * Breakdown axes supported by the column store.
+ */
+public enum Dimension {
+    DAY,
+    WEEK,
+    MONTH,
+    GENDER,
+    AGE_BAND,
+    DOCTOR;
+
+    public boolean isTime() {
+        return this == DAY || this == WEEK || this == MONTH;
+    }
+}
@@ -0,0 +1,549 @@
+package com.main.utin.analytics;
+
+import com.main.utin.entity.OutboxEventType;
+import com.main.utin.entity.Prescription;
+import com.main.utin.outbox.CacheInvalidationEvent;
+import com.main.utin.repository.PrescriptionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory columnar copy of the prescription fields reports slice by: prescription
+ * day, patient age, gender and creating doctor, one primitive array each, plus the
+ * sorted row IDs used to apply updates and deletes in place.
+ * <p>
+ * Writers are serialized on a lock and publish a new {@link Columns} view through a
+ * volatile field after every change; readers scan whichever view they picked up without
+ * locking. Appends write past the published size before publishing, so a reader never
+ * sees a half-written row. Deleted rows keep their slot with a tombstone day that falls
+ * outside every query range.
+ * <p>
+ * The snapshot is loaded in the background once the application is ready; writes made
+ * by this node are applied after commit, changes other nodes report through the outbox
+ * are re-read by ID, and rows inserted outside the service layer (bulk loads) are picked
+ * up by a periodic catch-up scan past the highest known ID.
+ */
+@Component
+public class PrescriptionColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionColumnStore.class);
+
+    static final int TOMBSTONE = Integer.MIN_VALUE;
+    static final byte GENDER_UNKNOWN = 3;
+    static final List<String> GENDER_LABELS = List.of("MALE", "FEMALE", "OTHER", "UNKNOWN");
+    static final List<String> AGE_BAND_LABELS = List.of("0-17", "18-29", "30-44", "45-59", "60-74", "75+");
+
+    /** Age (0-255) to age band index */
+    private static final byte[] AGE_BAND = new byte[256];
+
+    static {
+        int[] upperBounds = {17, 29, 44, 59, 74, 255};
+        int band = 0;
+        for (int age = 0; age < AGE_BAND.length; age++) {
+            if (age > upperBounds[band]) {
+                band++;
+            }
+            AGE_BAND[age] = (byte) band;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final PrescriptionRepository prescriptionRepository;
+
+    private final Object writeLock = new Object();
+    private volatile Columns columns = Columns.empty(INITIAL_CAPACITY);
+    /** Doctor user ID to dense code; guarded by writeLock */
+    private final Map<Long, Integer> doctorCodes = new HashMap<>();
+    /** Local writes committed while the initial load is running; guarded by writeLock */
+    private final List<Row> pending = new ArrayList<>();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    @Value("${app.analytics.load-page-size:10000}")
+    private int loadPageSize;
+
+    @Value("${app.analytics.min-rows-per-segment:262144}")
+    private int minRowsPerSegment;
+
+    public PrescriptionColumnStore(PrescriptionRepository prescriptionRepository, MeterRegistry meterRegistry) {
+        this.prescriptionRepository = prescriptionRepository;
+        Gauge.builder("analytics.columns.rows", this, store -> store.columns.size)
+                .description("Rows held by the prescription column store, including tombstones")
+                .register(meterRegistry);
+        Gauge.builder("analytics.columns.bytes", this, PrescriptionColumnStore::memoryBytes)
+                .description("Bytes allocated to the prescription column store arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (!isLoaded() && loading.compareAndSet(false, true)) {
+            Thread loader = new Thread(this::load, "analytics-column-load");
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    /**
+     * Pick up rows inserted outside this node's service layer, or retry a failed load
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.catch-up-interval-ms:60000}",
+            initialDelayString = "${app.analytics.catch-up-interval-ms:60000}")
+    public void catchUp() {
+        if (!isLoaded()) {
+            startLoading();
+            return;
+        }
+        try {
+            int added = loadAfter(maxId());
+            if (added > 0) {
+                log.debug("Column store caught up {} rows", added);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Column store catch-up failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Re-read prescriptions another node changed; rows no longer found were deleted there
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.type() != OutboxEventType.PRESCRIPTION_CHANGED) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>();
+        event.keys().forEach(key -> missing.add(Long.valueOf(key)));
+        for (Object[] values : prescriptionRepository.findAnalyticsRowsByIdIn(missing)) {
+            missing.remove((Long) values[0]);
+            apply(toRow(values));
+        }
+        for (Long id : missing) {
+            apply(new Row(id, TOMBSTONE, (byte) 0, GENDER_UNKNOWN, 0L, true));
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded.getCount() == 0;
+    }
+
+    public boolean awaitLoaded(long timeoutMs) throws InterruptedException {
+        return loaded.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Apply a created or updated prescription once the surrounding transaction commits
+     */
+    public void upsertAfterCommit(Prescription prescription) {
+        Row row = new Row(prescription.getId(), (int) prescription.getPrescriptionDate().toEpochDay(),
+                clampAge(prescription.getPatientAge()), genderCode(prescription.getPatientGender()),
+                prescription.getCreatedBy().getId(), false);
+        afterCommit(() -> apply(row));
+    }
+
+    /**
+     * Tombstone a deleted prescription once the surrounding transaction commits
+     */
+    public void removeAfterCommit(Long prescriptionId) {
+        Row row = new Row(prescriptionId, TOMBSTONE, (byte) 0, GENDER_UNKNOWN, 0L, true);
+        afterCommit(() -> apply(row));
+    }
+
+    /**
+     * Count live rows with a prescription day in [from, to], grouped by one or two dimensions
+     */
+    public Breakdown aggregate(LocalDate from, LocalDate to, Dimension first, Dimension second) {
+        long started = System.nanoTime();
+        Columns view = columns;
+        int fromDay = (int) from.toEpochDay();
+        int span = (int) ChronoUnit.DAYS.between(from, to);
+        Axis a = axis(first, from, to, view);
+        Axis b = second == null ? Axis.NONE : axis(second, from, to, view);
+
+        int size = view.size;
+        int segments = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                size / Math.max(1, minRowsPerSegment)));
+        long[] counts;
+        if (segments == 1) {
+            counts = scan(view, 0, size, fromDay, span, a, b);
+        } else {
+            int step = (size + segments - 1) / segments;
+            counts = IntStream.range(0, segments).parallel()
+                    .mapToObj(s -> scan(view, s * step, Math.min(size, (s + 1) * step), fromDay, span, a, b))
+                    .reduce(PrescriptionColumnStore::merge)
+                    .orElseThrow();
+        }
+        return new Breakdown(a.labels, b.labels, counts, size, System.nanoTime() - started);
+    }
+
+    /**
+     * Tight, branch-free loop over primitive columns. Day offsets outside [0, span]
+     * (tombstones included) produce an all-ones mask and are counted into a sink bucket,
+     * so the loop never branches on data and random row order costs no mispredictions.
+     */
+    private static long[] scan(Columns view, int start, int end, int fromDay, int span, Axis a, Axis b) {
+        int stride = b.cardinality;
+        int sink = a.cardinality * stride;
+        int[] counts = new int[sink + 1];
+        int[] days = view.days;
+        for (int i = start; i < end; i++) {
+            int offset = days[i] - fromDay;
+            int outside = (offset | (span - offset)) >> 31;
+            int safeOffset = offset & ~outside;
+            int key = a.code(view, i, safeOffset) * stride + b.code(view, i, safeOffset);
+            counts[(key & ~outside) | (sink & outside)]++;
+        }
+        long[] result = new long[sink];
+        for (int i = 0; i < sink; i++) {
+            result[i] = counts[i];
+        }
+        return result;
+    }
+
+    private static long[] merge(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+
+    public int getRowCount() {
+        return columns.size;
+    }
+
+    public int getLiveRowCount() {
+        return columns.live;
+    }
+
+    public int getCapacity() {
+        return columns.ids.length;
+    }
+
+    public int getDoctorCount() {
+        return columns.doctorCount;
+    }
+
+    /**
+     * Bytes held by the column arrays (allocated capacity, not just used rows)
+     */
+    public long memoryBytes() {
+        Columns view = columns;
+        return view.ids.length * 8L + view.days.length * 4L + view.ages.length + view.genders.length
+                + view.doctors.length * 4L + view.doctorIds.length * 8L;
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        try {
+            loadAfter(maxId());
+            synchronized (writeLock) {
+                for (Row row : pending) {
+                    applyLocked(row);
+                }
+                pending.clear();
+                // Drop most of the doubling headroom left by the bulk load
+                Columns view = columns;
+                int capacity = view.size + view.size / 8 + INITIAL_CAPACITY;
+                if (capacity < view.ids.length) {
+                    columns = view.copy(capacity, view.size, -1);
+                }
+                loaded.countDown();
+            }
+            log.info("Column store loaded {} rows ({} bytes) in {} ms", columns.size, memoryBytes(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException ex) {
+            log.error("Column store load failed; retrying on the next catch-up: {}", ex.getMessage());
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    private int loadAfter(long afterId) {
+        int added = 0;
+        while (true) {
+            List<Object[]> page = prescriptionRepository.findAnalyticsRowsAfter(afterId, PageRequest.of(0, loadPageSize));
+            if (page.isEmpty()) {
+                return added;
+            }
+            synchronized (writeLock) {
+                for (Object[] values : page) {
+                    applyLocked(toRow(values));
+                }
+            }
+            added += page.size();
+            afterId = (Long) page.get(page.size() - 1)[0];
+        }
+    }
+
+    private static Row toRow(Object[] values) {
+        return new Row((Long) values[0], (int) ((LocalDate) values[1]).toEpochDay(),
+                clampAge((Integer) values[2]), genderCode((String) values[3]), (Long) values[4], false);
+    }
+
+    private long maxId() {
+        Columns view = columns;
+        return view.size == 0 ? 0L : view.ids[view.size - 1];
+    }
+
+    private void apply(Row row) {
+        synchronized (writeLock) {
+            if (isLoaded()) {
+                applyLocked(row);
+            } else {
+                pending.add(row);
+            }
+        }
+    }
+
+    private void applyLocked(Row row) {
+        Columns view = columns;
+        int pos = Arrays.binarySearch(view.ids, 0, view.size, row.id);
+        if (row.deleted) {
+            if (pos >= 0 && view.days[pos] != TOMBSTONE) {
+                view.days[pos] = TOMBSTONE;
+                columns = view.withSize(view.size, view.live - 1);
+            }
+            return;
+        }
+        if (pos >= 0) {
+            // The creator never changes on update, so the doctor column is left alone
+            boolean revived = view.days[pos] == TOMBSTONE;
+            view.ages[pos] = row.age;
+            view.genders[pos] = row.gender;
+            view.days[pos] = row.day;
+            if (revived) {
+                columns = view.withSize(view.size, view.live + 1);
+            }
+            return;
+        }
+
+        int doctor = doctorCode(row.doctorId);
+        view = columns;
+        int insertAt = -pos - 1;
+        if (insertAt == view.size) {
+            if (view.size == view.ids.length) {
+                view = view.copy(view.ids.length * 2, view.size, -1);
+            }
+            view.write(view.size, row, doctor);
+            columns = view.withSize(view.size + 1, view.live + 1);
+        } else {
+            // Out-of-order commit: copy so concurrent scans never see shifted rows
+            Columns copy = view.copy(Math.max(view.ids.length, view.size + 1), view.size, insertAt);
+            copy.write(insertAt, row, doctor);
+            columns = copy.withSize(view.size + 1, view.live + 1);
+        }
+    }
+
+    private int doctorCode(long doctorId) {
+        Integer code = doctorCodes.get(doctorId);
+        if (code != null) {
+            return code;
+        }
+        Columns view = columns;
+        long[] doctorIds = view.doctorIds;
+        if (view.doctorCount == doctorIds.length) {
+            doctorIds = Arrays.copyOf(doctorIds, doctorIds.length * 2);
+        }
+        doctorIds[view.doctorCount] = doctorId;
+        doctorCodes.put(doctorId, view.doctorCount);
+        columns = new Columns(view.size, view.live, view.ids, view.days, view.ages, view.genders, view.doctors,
+                doctorIds, view.doctorCount + 1);
+        return view.doctorCount;
+    }
+
+    private static Axis axis(Dimension dimension, LocalDate from, LocalDate to, Columns view) {
+        switch (dimension) {
+            case GENDER:
+                return new Axis(Axis.KIND_GENDER, GENDER_LABELS.size(), null, GENDER_LABELS);
+            case AGE_BAND:
+                return new Axis(Axis.KIND_AGE_BAND, AGE_BAND_LABELS.size(), null, AGE_BAND_LABELS);
+            case DOCTOR: {
+                List<String> labels = new ArrayList<>(view.doctorCount);
+                for (int i = 0; i < view.doctorCount; i++) {
+                    labels.add(Long.toString(view.doctorIds[i]));
+                }
+                return new Axis(Axis.KIND_DOCTOR, view.doctorCount, null, labels);
+            }
+            default:
+                return timeAxis(dimension, from, to);
+        }
+    }
+
+    private static Axis timeAxis(Dimension dimension, LocalDate from, LocalDate to) {
+        int span = (int) ChronoUnit.DAYS.between(from, to);
+        int[] byOffset = new int[span + 1];
+        List<String> labels = new ArrayList<>();
+        YearMonth firstMonth = YearMonth.from(from);
+        LocalDate firstMonday = from.minusDays(from.getDayOfWeek().getValue() - 1L);
+        for (int offset = 0; offset <= span; offset++) {
+            LocalDate day = from.plusDays(offset);
+            int code;
+            String label;
+            if (dimension == Dimension.DAY) {
+                code = offset;
+                label = day.toString();
+            } else if (dimension == Dimension.WEEK) {
+                code = (int) ChronoUnit.WEEKS.between(firstMonday, day);
+                label = firstMonday.plusWeeks(code).toString();
+            } else {
+                code = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(day));
+                label = firstMonth.plusMonths(code).toString();
+            }
+            byOffset[offset] = code;
+            if (code == labels.size()) {
+                labels.add(label);
+            }
+        }
+        return new Axis(Axis.KIND_TIME, labels.size(), byOffset, labels);
+    }
+
+    private static byte clampAge(Integer age) {
+        return (byte) Math.max(0, Math.min(255, age == null ? 0 : age));
+    }
+
+    private static byte genderCode(String gender) {
+        if (gender == null) {
+            return GENDER_UNKNOWN;
+        }
+        switch (gender) {
+            case "MALE":
+                return 0;
+            case "FEMALE":
+                return 1;
+            case "OTHER":
+                return 2;
+            default:
+                return GENDER_UNKNOWN;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Row(long id, int day, byte age, byte gender, long doctorId, boolean deleted) {
+    }
+
+    /**
+     * One grouping axis of a scan; code() maps a row to its bucket
+     */
+    private static final class Axis {
+
+        static final int KIND_NONE = 0;
+        static final int KIND_TIME = 1;
+        static final int KIND_GENDER = 2;
+        static final int KIND_AGE_BAND = 3;
+        static final int KIND_DOCTOR = 4;
+
+        static final Axis NONE = new Axis(KIND_NONE, 1, null, List.of());
+
+        final int kind;
+        final int cardinality;
+        final int[] byOffset;
+        final List<String> labels;
+
+        Axis(int kind, int cardinality, int[] byOffset, List<String> labels) {
+            this.kind = kind;
+            this.cardinality = cardinality;
+            this.byOffset = byOffset;
+            this.labels = labels;
+        }
+
+        int code(Columns view, int row, int dayOffset) {
+            switch (kind) {
+                case KIND_TIME:
+                    return byOffset[dayOffset];
+                case KIND_GENDER:
+                    return view.genders[row];
+                case KIND_AGE_BAND:
+                    return AGE_BAND[view.ages[row] & 0xFF];
+                case KIND_DOCTOR:
+                    return view.doctors[row];
+                default:
+                    return 0;
+            }
+        }
+    }
+
+    /**
+     * Published view of the columns. Arrays are shared between views until they grow.
+     */
+    private record Columns(int size, int live, long[] ids, int[] days, byte[] ages, byte[] genders, int[] doctors,
+                           long[] doctorIds, int doctorCount) {
+
+        static Columns empty(int capacity) {
+            return new Columns(0, 0, new long[capacity], new int[capacity], new byte[capacity], new byte[capacity],
+                    new int[capacity], new long[16], 0);
+        }
+
+        Columns withSize(int newSize, int newLive) {
+            return new Columns(newSize, newLive, ids, days, ages, genders, doctors, doctorIds, doctorCount);
+        }
+
+        /**
+         * Copy into arrays of the given capacity, leaving a gap at {@code gapAt} (or none when -1)
+         */
+        Columns copy(int capacity, int rows, int gapAt) {
+            Columns target = new Columns(size, live, new long[capacity], new int[capacity], new byte[capacity],
+                    new byte[capacity], new int[capacity], doctorIds, doctorCount);
+            int head = gapAt < 0 ? rows : gapAt;
+            int shift = gapAt < 0 ? 0 : 1;
+            System.arraycopy(ids, 0, target.ids, 0, head);
+            System.arraycopy(days, 0, target.days, 0, head);
+            System.arraycopy(ages, 0, target.ages, 0, head);
+            System.arraycopy(genders, 0, target.genders, 0, head);
+            System.arraycopy(doctors, 0, target.doctors, 0, head);
+            int tail = rows - head;
+            System.arraycopy(ids, head, target.ids, head + shift, tail);
+            System.arraycopy(days, head, target.days, head + shift, tail);
+            System.arraycopy(ages, head, target.ages, head + shift, tail);
+            System.arraycopy(genders, head, target.genders, head + shift, tail);
+            System.arraycopy(doctors, head, target.doctors, head + shift, tail);
+            return target;
+        }
+
+        void write(int row, Row values, int doctor) {
+            ids[row] = values.id;
+            ages[row] = values.age;
+            genders[row] = values.gender;
+            doctors[row] = doctor;
+            days[row] = values.day;
+        }
+    }
+}
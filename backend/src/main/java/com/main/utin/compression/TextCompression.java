@@ -0,0 +1,136 @@
+package com.main.utin.compression;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage encoding for long free-text columns. Text of at least {@link #MIN_LENGTH}
+ * characters is deflated at the fastest level and stored as Base64 behind a two-character
+ * header (a U+0001 marker and the codec letter), but only when that comes out shorter than
+ * the UTF-8 text. Everything else is stored as is, so values written before compression
+ * existed read back unchanged. The one ambiguity, a plain value that itself starts with
+ * the marker, is escaped with the raw codec letter.
+ * <p>
+ * The columns stay text, so this works on any database and keeps ad-hoc SQL possible;
+ * Base64 gives back a quarter of the gain, which still leaves clinical prose at roughly
+ * half its size. Deflaters hold about 256 KB of native memory each, so a few are pooled
+ * rather than kept per thread.
+ */
+public final class TextCompression {
+
+    /** Shorter text does not shrink enough to pay for the header and Base64 */
+    public static final int MIN_LENGTH = 200;
+
+    static final char MARKER = '\u0001';
+    private static final char DEFLATE = 'D';
+    private static final char RAW = 'R';
+
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final ArrayBlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final ArrayBlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private TextCompression() {
+    }
+
+    /**
+     * Value to store for the given text
+     */
+    public static String encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() < MIN_LENGTH) {
+            return escape(text);
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(utf8);
+        // Base64 turns 3 bytes into 4 characters; keep the plain text unless the result is smaller
+        if (compressed == null || 2 + (compressed.length * 4 + 2) / 3 >= utf8.length) {
+            return escape(text);
+        }
+        return MARKER + String.valueOf(DEFLATE) + Base64.getEncoder().withoutPadding().encodeToString(compressed);
+    }
+
+    /**
+     * Text for a stored value, compressed or not
+     */
+    public static String decode(String stored) {
+        if (stored == null || stored.length() < 2 || stored.charAt(0) != MARKER) {
+            return stored;
+        }
+        return switch (stored.charAt(1)) {
+            case DEFLATE -> inflate(Base64.getDecoder().decode(stored.substring(2)));
+            case RAW -> stored.substring(2);
+            default -> throw new IllegalStateException("Unknown text encoding '" + stored.charAt(1) + "'");
+        };
+    }
+
+    /**
+     * Whether a stored value is already in the form {@link #encode} would produce for its text
+     */
+    public static boolean isCurrent(String stored) {
+        return stored == null || stored.equals(encode(decode(stored)));
+    }
+
+    private static String escape(String text) {
+        return text.isEmpty() || text.charAt(0) != MARKER ? text : MARKER + String.valueOf(RAW) + text;
+    }
+
+    /** Compressed bytes, or null when they would not be smaller than the input */
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = DEFLATERS.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] output = new byte[input.length];
+            int length = 0;
+            while (!deflater.finished() && length < output.length) {
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            return deflater.finished() ? Arrays.copyOf(output, length) : null;
+        } finally {
+            deflater.reset();
+            if (!DEFLATERS.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static String inflate(byte[] input) {
+        Inflater inflater = INFLATERS.poll();
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[Math.max(64, input.length * 4)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                int inflated = inflater.inflate(output, length, output.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                length += inflated;
+            }
+            return new String(output, 0, length, StandardCharsets.UTF_8);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Corrupt compressed text", ex);
+        } finally {
+            inflater.reset();
+            if (!INFLATERS.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+}
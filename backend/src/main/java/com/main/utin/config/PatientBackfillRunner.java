@@ -0,0 +1,49 @@
+package com.main.utin.config;
+
+import com.main.utin.service.PatientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off migration: links prescriptions created before the patients table
+ * existed to deduplicated Patient rows. Walks by ID in committed batches, so it
+ * is cheap once everything is linked and resumes after an interrupted run.
+ */
+@Component
+public class PatientBackfillRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientBackfillRunner.class);
+
+    @Autowired
+    private PatientService patientService;
+
+    @Value("${app.patient-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.patient-backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        long afterId = 0;
+        long batches = 0;
+        while (true) {
+            long lastId = patientService.backfillBatch(afterId, batchSize);
+            if (lastId < 0) {
+                break;
+            }
+            afterId = lastId;
+            batches++;
+        }
+        if (batches > 0) {
+            log.info("Patient backfill linked {} batch(es) of prescriptions, last id {}", batches, afterId);
+        }
+    }
+}
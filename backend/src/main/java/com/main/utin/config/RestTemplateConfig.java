@@ -1,15 +1,42 @@
 package com.main.utin.config;
 
+import com.main.utin.rxnav.RxNavHttpProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * Built through RestTemplateBuilder so calls are recorded as http.client.requests
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, RxNavHttpProperties properties) {
+        JdkClientHttpRequestFactory requestFactory = pooledRequestFactory(properties);
+        return builder.requestFactory(() -> requestFactory).build();
     }
-}
 
+    /**
+     * JDK HttpClient: negotiates HTTP/2 (one multiplexed connection per host) and
+     * falls back to pooled HTTP/1.1 keep-alive connections. Every request is bounded
+     * by the connect and read timeouts. The pool's idle timeout is read once per JVM
+     * from -Djdk.httpclient.keepalive.timeout and -Djdk.httpclient.keepalive.timeout.h2,
+     * so it is set on the java command line (see scripts/fast-start.sh), not here.
+     */
+    public static JdkClientHttpRequestFactory pooledRequestFactory(RxNavHttpProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(properties.getReadTimeoutMs()));
+        return requestFactory;
+    }
+}
@@ -0,0 +1,25 @@
+package com.main.utin.config;
+
+import com.main.utin.slowquery.SlowQueryDataSourcePostProcessor;
+import com.main.utin.slowquery.SlowQueryLog;
+import com.main.utin.slowquery.SlowQueryProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Slow-query detection on the application DataSource (app.slow-query.*)
+ */
+@Configuration
+public class SlowQueryConfig {
+
+    /**
+     * Static and lazily resolving its collaborators, so registering the post-processor
+     * does not force the log, metrics or properties to be created early
+     */
+    @Bean
+    static SlowQueryDataSourcePostProcessor slowQueryDataSourcePostProcessor(
+            ObjectProvider<SlowQueryLog> slowQueryLog, ObjectProvider<SlowQueryProperties> properties) {
+        return new SlowQueryDataSourcePostProcessor(slowQueryLog, properties);
+    }
+}
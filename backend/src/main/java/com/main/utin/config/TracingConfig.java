@@ -0,0 +1,63 @@
+package com.main.utin.config;
+
+import com.main.utin.tracing.SpanKind;
+import com.main.utin.tracing.TraceSpan;
+import com.main.utin.tracing.Tracing;
+import com.main.utin.tracing.TracingJacksonHttpMessageConverter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Span sources for per-request tracing (app.tracing.*) that need wiring: service
+ * methods and JSON response serialization. The JWT filter, the RxNav client and the
+ * statement wrapper of the slow-query detector (so SQL spans need app.slow-query.enabled)
+ * open their spans directly.
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    private static final String SERVICE_PACKAGE = "com.main.utin.service.";
+
+    /**
+     * Wraps the application services, outermost, so a service span includes its transaction
+     * commit. Infrastructure role, so the advisor applies whichever auto-proxy creator is active.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTracingAdvisor() {
+        ClassFilter services = type -> type.getName().startsWith(SERVICE_PACKAGE)
+                && AnnotatedElementUtils.hasAnnotation(type, Service.class);
+        MethodInterceptor interceptor = invocation -> {
+            try (TraceSpan span = Tracing.span(SpanKind.SERVICE, invocation.getMethod())) {
+                return invocation.proceed();
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ComposablePointcut(services, MethodMatcher.TRUE),
+                interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                ? new TracingJacksonHttpMessageConverter(((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                : converter);
+    }
+}
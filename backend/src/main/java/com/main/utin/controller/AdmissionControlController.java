@@ -0,0 +1,72 @@
+package com.main.utin.controller;
+
+import com.main.utin.admission.AdmissionControlService;
+import com.main.utin.admission.EndpointClass;
+import com.main.utin.admission.RateLimit;
+import com.main.utin.dto.AdmissionLimitRequest;
+import com.main.utin.dto.AdmissionLimitResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for runtime admission control limits
+ */
+@RestController
+@RequestMapping("/api/v1/admin/admission")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Admission Control", description = "Admin endpoints for request rate limits")
+public class AdmissionControlController {
+
+    @Autowired
+    private AdmissionControlService admissionControlService;
+
+    /**
+     * Get current limits per endpoint class
+     */
+    @GetMapping("/limits")
+    @Operation(summary = "Get admission limits", description = "Current per-principal and global limits per endpoint class")
+    public ResponseEntity<List<AdmissionLimitResponse>> getLimits() {
+        List<AdmissionLimitResponse> response = admissionControlService.getLimits().entrySet().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Update limits of one endpoint class; applies to the next request
+     */
+    @PutMapping("/limits/{endpointClass}")
+    @Operation(summary = "Update admission limits", description = "Change the limits of an endpoint class at runtime")
+    public ResponseEntity<AdmissionLimitResponse> updateLimits(
+            @Parameter(description = "LIGHT_READ, HEAVY_READ or WRITE") @PathVariable EndpointClass endpointClass,
+            @Valid @RequestBody AdmissionLimitRequest request) {
+        AdmissionControlService.ClassLimits limits = new AdmissionControlService.ClassLimits(
+                new RateLimit(request.getPerPrincipalRate(), request.getPerPrincipalBurst()),
+                new RateLimit(request.getGlobalRate(), request.getGlobalBurst()));
+        admissionControlService.updateLimits(endpointClass, limits);
+        return ResponseEntity.ok(mapToResponse(Map.entry(endpointClass, limits)));
+    }
+
+    private AdmissionLimitResponse mapToResponse(Map.Entry<EndpointClass, AdmissionControlService.ClassLimits> entry) {
+        AdmissionControlService.ClassLimits limits = entry.getValue();
+        return AdmissionLimitResponse.builder()
+                .endpointClass(entry.getKey().name())
+                .perPrincipalRate(limits.perPrincipal().permitsPerSecond())
+                .perPrincipalBurst(limits.perPrincipal().burst())
+                .globalRate(limits.global().permitsPerSecond())
+                .globalBurst(limits.global().burst())
+                .build();
+    }
+}
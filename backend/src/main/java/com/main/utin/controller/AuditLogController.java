@@ -0,0 +1,52 @@
+package com.main.utin.controller;
+
+import com.main.utin.dto.AuditLogPageResponse;
+import com.main.utin.service.AuditService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller for the prescription access audit log
+ */
+@RestController
+@RequestMapping("/api/v1/admin/audit")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Audit Log", description = "Admin endpoints for who viewed or changed prescriptions")
+public class AuditLogController {
+
+    @Autowired
+    private AuditService auditService;
+
+    /**
+     * Page through audit entries, newest first
+     */
+    @GetMapping
+    @Operation(summary = "Get audit entries", description = "Audit entries in a time window, newest first; pass nextBeforeTime/nextBeforeId from the previous page to continue")
+    public ResponseEntity<AuditLogPageResponse> getEntries(
+            @Parameter(description = "Window start (default: 24 hours ago)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Window end, inclusive (default: now)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only entries for this prescription")
+            @RequestParam(required = false) Long prescriptionId,
+            @Parameter(description = "Cursor: occurredAt of the last entry of the previous page")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @Parameter(description = "Cursor: id of the last entry of the previous page")
+            @RequestParam(required = false) Long beforeId,
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "50") int size) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minusHours(24) : from;
+        return ResponseEntity.ok(auditService.getEntries(start, end, prescriptionId, beforeTime, beforeId, size));
+    }
+}
@@ -2,11 +2,13 @@ package com.main.utin.controller;
 import com.main.utin.dto.AuthResponse;
 import com.main.utin.dto.LoginRequest;
 import com.main.utin.dto.RegisterRequest;
+import com.main.utin.dto.TokenRevocationResponse;
 import com.main.utin.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 @RestController
@@ -27,4 +29,11 @@ public class AuthController {
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
+    @PostMapping("/logout")
+    @Operation(summary = "User logout", description = "Revoke the bearer token sent with this request")
+    public ResponseEntity<TokenRevocationResponse> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String token = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        return ResponseEntity.ok(authService.logout(token));
+    }
 }
@@ -1,4 +1,6 @@
 package com.main.utin.controller;
+import com.main.utin.dto.DrugInteractionResponse;
+import com.main.utin.dto.DrugInteractionResult;
 import com.main.utin.service.DrugInteractionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,8 +19,12 @@ public class DrugInteractionController {
     private DrugInteractionService drugInteractionService;
     @GetMapping
     @Operation(summary = "Get drug interaction data", description = "Fetch drug interaction data from RxNav API")
-    public ResponseEntity<Object> getDrugInteraction() {
-        Object data = drugInteractionService.getDrugInteraction();
-        return ResponseEntity.ok(data);
+    public ResponseEntity<DrugInteractionResponse> getDrugInteraction() {
+        DrugInteractionResult result = drugInteractionService.getDrugInteraction();
+        return ResponseEntity.ok()
+                .header("X-Data-Fetched-At", result.getFetchedAt().toString())
+                .header("X-Data-Stale", String.valueOf(result.isStale()))
+                .header("X-Data-Source", result.getSource())
+                .body(result.getData());
     }
 }
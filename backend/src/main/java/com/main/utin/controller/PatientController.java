@@ -0,0 +1,70 @@
+package com.main.utin.controller;
+
+import com.main.utin.dto.PatientResponse;
+import com.main.utin.dto.PatientTimelineResponse;
+import com.main.utin.service.PatientService;
+import com.main.utin.service.PrescriptionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST Controller for patient operations
+ */
+@RestController
+@RequestMapping("/api/v1/patients")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Patient", description = "Endpoints for patients and their prescription history")
+public class PatientController {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    /**
+     * Search patients by name prefix
+     */
+    @GetMapping
+    @Operation(summary = "Search patients", description = "Find patients whose name starts with the given prefix")
+    public ResponseEntity<List<PatientResponse>> searchPatients(
+            @Parameter(description = "Name prefix (case-insensitive)") @RequestParam String name,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(patientService.searchPatients(name, limit));
+    }
+
+    /**
+     * Get patient by ID
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get patient by ID", description = "Retrieve a specific patient by its ID")
+    public ResponseEntity<PatientResponse> getPatientById(
+            @Parameter(description = "Patient ID") @PathVariable Long id) {
+        return ResponseEntity.ok(patientService.getPatientById(id));
+    }
+
+    /**
+     * Get a patient's prescriptions, newest first, with keyset paging
+     */
+    @GetMapping("/{id}/prescriptions")
+    @Operation(summary = "Patient prescription timeline",
+            description = "Newest first; pass nextBeforeDate/nextBeforeId of a page to get the next older page")
+    public ResponseEntity<PatientTimelineResponse> getPatientTimeline(
+            @Parameter(description = "Patient ID") @PathVariable Long id,
+            @Parameter(description = "Cursor: prescription date of the last entry seen")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @Parameter(description = "Cursor: ID of the last entry seen")
+            @RequestParam(required = false) Long beforeId,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(prescriptionService.getPatientTimeline(id, beforeDate, beforeId, size));
+    }
+}
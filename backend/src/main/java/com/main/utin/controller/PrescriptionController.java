@@ -1,8 +1,16 @@
 package com.main.utin.controller;
 
+import com.main.utin.dto.DashboardSummaryResponse;
 import com.main.utin.dto.DayWiseCountResponse;
+import com.main.utin.dto.PrescriptionBatchRequest;
+import com.main.utin.dto.PrescriptionBatchResponse;
+import com.main.utin.dto.PrescriptionCreateResult;
+import com.main.utin.dto.PrescriptionFilter;
 import com.main.utin.dto.PrescriptionRequest;
 import com.main.utin.dto.PrescriptionResponse;
+import com.main.utin.dto.PrescriptionSortKey;
+import com.main.utin.dto.PrescriptionSummaryResponse;
+import com.main.utin.dto.PrescriptionSyncResponse;
 import com.main.utin.service.PrescriptionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,12 +18,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -32,14 +42,80 @@ public class PrescriptionController {
     private PrescriptionService prescriptionService;
 
     /**
-     * Create a new prescription
+     * Create a new prescription; retries and duplicate submissions return the existing one
      */
     @PostMapping
-    @Operation(summary = "Create prescription", description = "Create a new prescription entry")
+    @Operation(summary = "Create prescription", description = "Create a new prescription entry. Returns 201 when created, 200 with the existing prescription for a replayed Idempotency-Key or a recent identical submission, or 409 for duplicates when the duplicate policy is REJECT")
     public ResponseEntity<PrescriptionResponse> createPrescription(
+            @Parameter(description = "Client-generated key; resending it returns the prescription created by the first request")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody PrescriptionRequest request) {
-        PrescriptionResponse response = prescriptionService.createPrescription(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        PrescriptionCreateResult result = prescriptionService.createPrescription(request, idempotencyKey);
+        return new ResponseEntity<>(result.getPrescription(), result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    /**
+     * Get dashboard summary (counts and most recent entries of the current month)
+     */
+    @GetMapping("/dashboard")
+    @Operation(summary = "Dashboard summary", description = "Get month total, today's count, upcoming follow-ups and recent prescriptions")
+    public ResponseEntity<DashboardSummaryResponse> getDashboardSummary(
+            @Parameter(description = "Number of recent prescriptions to include")
+            @RequestParam(defaultValue = "5") int recent,
+            @Parameter(description = "Follow-up window in days, starting today")
+            @RequestParam(defaultValue = "7") int followUpDays) {
+        DashboardSummaryResponse response = prescriptionService.getDashboardSummary(recent, followUpDays);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get several prescriptions by ID in one request
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "Get prescriptions by IDs", description = "Retrieve several prescriptions in request order; unknown IDs are listed as missing")
+    public ResponseEntity<PrescriptionBatchResponse> getPrescriptionsByIds(
+            @Parameter(description = "Comma-separated prescription IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(prescriptionService.getPrescriptionsByIds(ids));
+    }
+
+    /**
+     * Get several prescriptions by ID (for ID lists too long for a query string)
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Get prescriptions by IDs (POST)", description = "Same as GET /batch with the IDs in the request body")
+    public ResponseEntity<PrescriptionBatchResponse> getPrescriptionsByIdsPost(
+            @Valid @RequestBody PrescriptionBatchRequest request) {
+        return ResponseEntity.ok(prescriptionService.getPrescriptionsByIds(request.getIds()));
+    }
+
+    /**
+     * Get follow-ups due within the next N days
+     */
+    @GetMapping("/follow-ups")
+    @Operation(summary = "Follow-ups due", description = "Get prescriptions whose next visit falls between today and today + days")
+    public ResponseEntity<List<PrescriptionSummaryResponse>> getFollowUpsDue(
+            @Parameter(description = "Number of days ahead, starting today")
+            @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Maximum number of entries")
+            @RequestParam(defaultValue = "100") int limit) {
+        List<PrescriptionSummaryResponse> response = prescriptionService.getFollowUpsDue(days, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get prescriptions changed and deleted since a watermark, for clients keeping a local copy
+     */
+    @GetMapping("/sync")
+    @Operation(summary = "Sync changes",
+            description = "Start without a watermark, then pass nextSince/nextSinceId of each response; repeat at once while hasMore is true. "
+                    + "Changes from the last few seconds are held back to the next sync. Returns 409 when the watermark is older than the delete history kept; sync again without one")
+    public ResponseEntity<PrescriptionSyncResponse> syncPrescriptions(
+            @Parameter(description = "Watermark: nextSince of the previous response, ISO date-time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @Parameter(description = "Watermark: nextSinceId of the previous response")
+            @RequestParam(required = false) Long sinceId,
+            @Parameter(description = "Maximum number of changes and deletes") @RequestParam(defaultValue = "200") int size) {
+        return ResponseEntity.ok(prescriptionService.getChangesSince(since, sinceId, size));
     }
 
     /**
@@ -54,15 +130,33 @@ public class PrescriptionController {
     }
 
     /**
-     * Get all prescriptions (with optional date range filter)
+     * Get prescriptions in a date range, filtered and sorted on the server
      */
     @GetMapping
-    @Operation(summary = "Get all prescriptions", description = "Get all prescriptions with optional date range filter")
+    @Operation(summary = "Get all prescriptions", description = "Get prescriptions in a date range with optional filters, a whitelisted sort and a bounded result size")
     public ResponseEntity<List<PrescriptionResponse>> getAllPrescriptions(
             @Parameter(description = "Start date (default: first day of current month)")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "End date (default: last day of current month)")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "MALE, FEMALE or OTHER")
+            @RequestParam(required = false) String gender,
+            @Parameter(description = "Minimum patient age")
+            @RequestParam(required = false) Integer minAge,
+            @Parameter(description = "Maximum patient age")
+            @RequestParam(required = false) Integer maxAge,
+            @Parameter(description = "Patient name prefix (case-insensitive)")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Text contained in the patient name or diagnosis (case-insensitive)")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Username of the prescribing doctor")
+            @RequestParam(required = false) String doctor,
+            @Parameter(description = "Sort key")
+            @RequestParam(defaultValue = "DATE") PrescriptionSortKey sort,
+            @Parameter(description = "Sort direction")
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @Parameter(description = "Maximum number of entries")
+            @RequestParam(required = false) Integer limit) {
 
         // Default to current month if dates not provided
         if (startDate == null || endDate == null) {
@@ -71,7 +165,20 @@ public class PrescriptionController {
             endDate = currentMonth.atEndOfMonth();
         }
 
-        List<PrescriptionResponse> response = prescriptionService.getPrescriptionsByDateRange(startDate, endDate);
+        PrescriptionFilter filter = PrescriptionFilter.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .gender(gender)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .namePrefix(name)
+                .search(search)
+                .doctor(doctor)
+                .sort(sort)
+                .direction(direction)
+                .limit(limit)
+                .build();
+        List<PrescriptionResponse> response = prescriptionService.searchPrescriptions(filter);
         return ResponseEntity.ok(response);
     }
 
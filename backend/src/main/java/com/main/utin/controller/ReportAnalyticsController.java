@@ -0,0 +1,55 @@
+package com.main.utin.controller;
+
+import com.main.utin.analytics.Dimension;
+import com.main.utin.dto.AnalyticsStatsResponse;
+import com.main.utin.dto.BreakdownResponse;
+import com.main.utin.service.ReportAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for in-memory multi-dimensional reports
+ */
+@RestController
+@RequestMapping("/api/v1/prescription/report")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Report Analytics", description = "Prescription counts by date range and dimension from the in-memory column store")
+public class ReportAnalyticsController {
+
+    @Autowired
+    private ReportAnalyticsService reportAnalyticsService;
+
+    /**
+     * Count prescriptions in a date range, grouped by one or two dimensions
+     */
+    @GetMapping("/breakdown")
+    @Operation(summary = "Prescription breakdown", description = "Count prescriptions in a date range grouped by DAY, WEEK, MONTH, GENDER, AGE_BAND or DOCTOR, optionally crossed with a second dimension")
+    public ResponseEntity<BreakdownResponse> getBreakdown(
+            @Parameter(description = "Start date")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "First grouping dimension")
+            @RequestParam Dimension by,
+            @Parameter(description = "Optional second grouping dimension")
+            @RequestParam(required = false) Dimension thenBy) {
+        return ResponseEntity.ok(reportAnalyticsService.getBreakdown(startDate, endDate, by, thenBy));
+    }
+
+    /**
+     * Size and memory footprint of the column store
+     */
+    @GetMapping("/analytics/stats")
+    @Operation(summary = "Analytics engine stats", description = "Row counts and memory footprint of the in-memory column store")
+    public ResponseEntity<AnalyticsStatsResponse> getStats() {
+        return ResponseEntity.ok(reportAnalyticsService.getStats());
+    }
+}
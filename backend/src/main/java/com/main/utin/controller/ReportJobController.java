@@ -0,0 +1,69 @@
+package com.main.utin.controller;
+
+import com.main.utin.dto.ReportJobRequest;
+import com.main.utin.dto.ReportJobResponse;
+import com.main.utin.service.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for asynchronous report jobs
+ */
+@RestController
+@RequestMapping("/api/v1/prescription/report/jobs")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Report Jobs", description = "Asynchronous day-wise reports over long date ranges")
+public class ReportJobController {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    /**
+     * Submit a day-wise count report job
+     */
+    @PostMapping
+    @Operation(summary = "Submit report job", description = "Start a day-wise count report; returns the job ID to poll or stream")
+    public ResponseEntity<ReportJobResponse> submitJob(@Valid @RequestBody ReportJobRequest request) {
+        ReportJobResponse response = reportJobService.submitJob(request);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Get report job status, with the result once completed
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get report job", description = "Poll job status and progress; includes the result once completed")
+    public ResponseEntity<ReportJobResponse> getJob(
+            @Parameter(description = "Report job ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+
+    /**
+     * Stream progress and the final result as server-sent events
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream report job", description = "Server-sent 'progress' events followed by one 'result' event")
+    public SseEmitter streamJob(
+            @Parameter(description = "Report job ID") @PathVariable String jobId) {
+        return reportJobService.streamJob(jobId);
+    }
+
+    /**
+     * Cancel an in-flight report job
+     */
+    @DeleteMapping("/{jobId}")
+    @Operation(summary = "Cancel report job", description = "Cancel a pending or running report job")
+    public ResponseEntity<ReportJobResponse> cancelJob(
+            @Parameter(description = "Report job ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.cancelJob(jobId));
+    }
+}
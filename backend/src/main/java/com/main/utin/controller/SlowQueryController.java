@@ -0,0 +1,65 @@
+package com.main.utin.controller;
+
+import com.main.utin.dto.SlowQueryResponse;
+import com.main.utin.slowquery.SlowQuery;
+import com.main.utin.slowquery.SlowQueryLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for statements caught by the slow-query detector
+ */
+@RestController
+@RequestMapping("/api/v1/admin/slow-queries")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Slow Queries", description = "Admin endpoints for the slowest SQL statements and their plans")
+public class SlowQueryController {
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    /**
+     * Get the slowest statements, worst first
+     */
+    @GetMapping
+    @Operation(summary = "Get slow queries", description = "Statements over the threshold grouped by SQL and calling method, with the bound parameters, row count and plan of the worst execution")
+    public ResponseEntity<List<SlowQueryResponse>> getSlowQueries() {
+        return ResponseEntity.ok(slowQueryLog.getEntries().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Start over, e.g. after deploying an index
+     */
+    @DeleteMapping
+    @Operation(summary = "Clear slow queries", description = "Forget all recorded statements")
+    public ResponseEntity<Void> clear() {
+        slowQueryLog.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private SlowQueryResponse mapToResponse(SlowQuery query) {
+        return SlowQueryResponse.builder()
+                .sql(query.sql())
+                .caller(query.caller())
+                .parameters(query.parameters())
+                .rows(query.rows())
+                .worstMs(query.worstNanos() / 1e6)
+                .worstAt(query.worstAt())
+                .occurrences(query.occurrences())
+                .averageMs(query.totalNanos() / 1e6 / query.occurrences())
+                .lastSeenAt(query.lastSeenAt())
+                .plan(query.plan())
+                .build();
+    }
+}
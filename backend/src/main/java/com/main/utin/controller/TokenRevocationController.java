@@ -0,0 +1,47 @@
+package com.main.utin.controller;
+
+import com.main.utin.dto.TokenRevocationRequest;
+import com.main.utin.dto.TokenRevocationResponse;
+import com.main.utin.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for revoking issued JWTs before they expire
+ */
+@RestController
+@RequestMapping("/api/v1/admin/tokens")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Token Revocation", description = "Admin endpoints for revoking leaked tokens and signing users out everywhere")
+public class TokenRevocationController {
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * Revoke one token, e.g. one that has leaked
+     */
+    @PostMapping("/revoke")
+    @Operation(summary = "Revoke a token", description = "Reject the given token on every request until it expires")
+    public ResponseEntity<TokenRevocationResponse> revokeToken(@Valid @RequestBody TokenRevocationRequest request) {
+        return ResponseEntity.ok(authService.revokeToken(request.getToken()));
+    }
+
+    /**
+     * Kill switch for an account
+     */
+    @PostMapping("/revoke-user/{username}")
+    @Operation(summary = "Revoke all tokens of a user", description = "Reject every token issued to the user so far; new logins still work unless the account is deactivated")
+    public ResponseEntity<TokenRevocationResponse> revokeAllTokens(
+            @Parameter(description = "Username") @PathVariable String username) {
+        return ResponseEntity.ok(authService.revokeAllTokens(username));
+    }
+}
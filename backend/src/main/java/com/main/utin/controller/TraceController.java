@@ -0,0 +1,99 @@
+package com.main.utin.controller;
+
+import com.main.utin.dto.TraceResponse;
+import com.main.utin.dto.TraceSpanResponse;
+import com.main.utin.dto.TraceSummaryResponse;
+import com.main.utin.dto.TraceView;
+import com.main.utin.exception.ResourceNotFoundException;
+import com.main.utin.tracing.RequestTrace;
+import com.main.utin.tracing.TraceStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for sampled per-request traces
+ */
+@RestController
+@RequestMapping("/api/v1/admin/traces")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Traces", description = "Admin endpoints for sampled request traces and where their time went")
+public class TraceController {
+
+    @Autowired
+    private TraceStore traceStore;
+
+    /**
+     * List the most recent or the slowest kept traces
+     */
+    @GetMapping
+    @Operation(summary = "List traces", description = "Sampled requests with their duration and time per span kind (JWT, user lookup, service, SQL, RxNav, serialization)")
+    public ResponseEntity<List<TraceSummaryResponse>> getTraces(
+            @Parameter(description = "RECENT (newest first) or SLOWEST (slowest first)") @RequestParam(defaultValue = "RECENT") TraceView view) {
+        List<RequestTrace> traces = view == TraceView.SLOWEST ? traceStore.getSlowest() : traceStore.getRecent();
+        return ResponseEntity.ok(traces.stream()
+                .map(this::mapToSummary)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Get one trace with all of its spans
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get trace", description = "All spans of a trace in start order, with nesting depth; the ID is returned in the X-Trace-Id header of sampled responses")
+    public ResponseEntity<TraceResponse> getTrace(@PathVariable String id) {
+        RequestTrace trace = traceStore.find(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Trace not found with id: " + id));
+        return ResponseEntity.ok(TraceResponse.builder()
+                .summary(mapToSummary(trace))
+                .spans(trace.getSpans().stream()
+                        .map(span -> TraceSpanResponse.builder()
+                                .kind(span.kind())
+                                .detail(span.detail())
+                                .startMs(span.startOffsetNanos() / 1e6)
+                                .durationMs(span.durationNanos() / 1e6)
+                                .depth(span.depth())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    /**
+     * Drop all kept traces
+     */
+    @DeleteMapping
+    @Operation(summary = "Clear traces", description = "Forget all recent and slowest traces")
+    public ResponseEntity<Void> clear() {
+        traceStore.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private TraceSummaryResponse mapToSummary(RequestTrace trace) {
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        trace.selfNanosByKind().forEach((kind, nanos) -> breakdown.put(kind.name(), nanos / 1e6));
+        breakdown.put("UNTRACED", trace.untracedNanos() / 1e6);
+        return TraceSummaryResponse.builder()
+                .id(trace.getId())
+                .method(trace.getMethod())
+                .path(trace.getPath())
+                .status(trace.getStatus())
+                .username(trace.getUsername())
+                .startedAt(trace.getStartedAt())
+                .durationMs(trace.getDurationNanos() / 1e6)
+                .spanCount(trace.getSpans().size())
+                .droppedSpans(trace.getDroppedSpans())
+                .breakdownMs(breakdown)
+                .build();
+    }
+}
@@ -0,0 +1,6 @@
+package com.main.utin.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,52 @@
+package com.main.utin.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers users who committed a write recently, so their reads stay on the
+ * primary until the replica has had time to catch up.
+ */
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final long stickinessMs;
+    private final int maxTrackedUsers;
+
+    public ReadYourWritesTracker(long stickinessMs, int maxTrackedUsers) {
+        this.stickinessMs = stickinessMs;
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+
+    public void markWrite(String username) {
+        if (username == null || stickinessMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (stickyUntil.size() >= maxTrackedUsers) {
+            stickyUntil.values().removeIf(until -> until <= now);
+        }
+        if (stickyUntil.size() < maxTrackedUsers) {
+            stickyUntil.put(username, now + stickinessMs);
+        }
+    }
+
+    public boolean isSticky(String username) {
+        if (username == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            stickyUntil.remove(username, until);
+            return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        return stickyUntil.size();
+    }
+}
@@ -0,0 +1,69 @@
+package com.main.utin.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Periodically probes the replica. When the probe fails or the reported lag
+ * exceeds the configured maximum, read-only transactions fall back to the primary.
+ * Without a lag query only reachability is checked.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMs;
+
+    private volatile boolean replicaUsable = true;
+    private volatile long lastLagMs;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, long maxLagMs) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        try {
+            long lag = 0;
+            if (StringUtils.hasText(lagQuery)) {
+                Number value = replicaJdbcTemplate.queryForObject(lagQuery, Number.class);
+                lag = value == null ? 0 : value.longValue();
+            } else {
+                replicaJdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            }
+            lastLagMs = lag;
+            setUsable(lag <= maxLagMs, "lag " + lag + " ms");
+        } catch (Exception ex) {
+            lastLagMs = -1;
+            setUsable(false, ex.getMessage());
+        }
+    }
+
+    private void setUsable(boolean usable, String reason) {
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica usable again ({})", reason);
+            } else {
+                log.warn("Routing reads to primary, replica unusable ({})", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+}
@@ -0,0 +1,27 @@
+package com.main.utin.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionLimitRequest {
+
+    @NotNull(message = "Per-principal rate is required")
+    private Double perPrincipalRate;
+
+    @NotNull(message = "Per-principal burst is required")
+    @Min(value = 1, message = "Per-principal burst must be at least 1")
+    private Integer perPrincipalBurst;
+
+    @NotNull(message = "Global rate is required")
+    private Double globalRate;
+
+    @NotNull(message = "Global burst is required")
+    @Min(value = 1, message = "Global burst must be at least 1")
+    private Integer globalBurst;
+}
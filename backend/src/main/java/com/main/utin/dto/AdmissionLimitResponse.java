@@ -0,0 +1,17 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionLimitResponse {
+
+    private String endpointClass;
+    private Double perPrincipalRate;
+    private Integer perPrincipalBurst;
+    private Double globalRate;
+    private Integer globalBurst;
+}
@@ -0,0 +1,16 @@
+package com.main.utin.dto;
+import lombok.*;
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsStatsResponse {
+    private Boolean loaded;
+    private Integer rows;
+    private Integer liveRows;
+    private Integer capacity;
+    private Integer doctors;
+    private Long memoryBytes;
+    private Double bytesPerRow;
+}
@@ -0,0 +1,21 @@
+package com.main.utin.dto;
+
+import com.main.utin.entity.AuditAction;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogEntryResponse {
+
+    private Long id;
+    private LocalDateTime occurredAt;
+    private String username;
+    private AuditAction action;
+    private Long prescriptionId;
+    private String details;
+}
@@ -0,0 +1,20 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogPageResponse {
+
+    private List<AuditLogEntryResponse> entries;
+
+    /** Keyset cursor for the next (older) page; null when there are no more entries */
+    private LocalDateTime nextBeforeTime;
+    private Long nextBeforeId;
+}
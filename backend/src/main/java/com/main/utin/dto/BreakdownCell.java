@@ -0,0 +1,12 @@
+package com.main.utin.dto;
+import lombok.*;
+import java.util.List;
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BreakdownCell {
+    private List<String> keys;
+    private Long count;
+}
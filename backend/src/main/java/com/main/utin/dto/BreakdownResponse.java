@@ -0,0 +1,19 @@
+package com.main.utin.dto;
+import com.main.utin.analytics.Dimension;
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BreakdownResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Dimension> dimensions;
+    private Long total;
+    private List<BreakdownCell> cells;
+    private Integer scannedRows;
+    private Long elapsedMicros;
+}
@@ -0,0 +1,27 @@
+package com.main.utin.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardSummaryResponse {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate monthStart;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate monthEnd;
+
+    private Long monthTotal;
+    private Long todayCount;
+    private Long upcomingFollowUps;
+    private Integer followUpDays;
+    private List<PrescriptionSummaryResponse> recentPrescriptions;
+}
@@ -0,0 +1,17 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrugInteractionGroup {
+
+    private String sourceName;
+    private String sourceDisclaimer;
+    private List<DrugInteractionPair> pairs;
+}
@@ -0,0 +1,20 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrugInteractionPair {
+
+    /** Names of the interacting drugs, in RxNav order */
+    private List<String> drugs;
+    private List<String> rxcuis;
+    private String severity;
+    private String description;
+    private String comment;
+}
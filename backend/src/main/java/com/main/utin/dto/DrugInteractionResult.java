@@ -0,0 +1,27 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrugInteractionResult {
+
+    private DrugInteractionResponse data;
+
+    /** When the data was fetched from RxNav */
+    private Instant fetchedAt;
+
+    /** Older than the configured max age; a background refresh has been requested */
+    private boolean stale;
+
+    /**
+     * "network" when fetched for this request, "snapshot" when served from the local store,
+     * "fallback" when RxNav is unavailable and nothing is stored
+     */
+    private String source;
+}
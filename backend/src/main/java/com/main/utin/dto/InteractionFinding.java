@@ -0,0 +1,17 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InteractionFinding {
+
+    private String drug;
+    private String interactsWith;
+    private String severity;
+    private String description;
+    private String source;
+}
@@ -0,0 +1,28 @@
+package com.main.utin.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.main.utin.entity.ScreeningStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InteractionScreeningResponse {
+
+    private ScreeningStatus status;
+    private List<String> drugs;
+    private List<InteractionFinding> findings;
+    private Integer attempts;
+    private String lastError;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime requestedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime screenedAt;
+}
@@ -0,0 +1,23 @@
+package com.main.utin.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientTimelineResponse {
+
+    private PatientResponse patient;
+    private List<PrescriptionSummaryResponse> prescriptions;
+
+    /** Keyset cursor for the next (older) page; null when there are no more entries */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate nextBeforeDate;
+    private Long nextBeforeId;
+}
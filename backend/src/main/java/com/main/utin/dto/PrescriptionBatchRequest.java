@@ -0,0 +1,17 @@
+package com.main.utin.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrescriptionBatchRequest {
+
+    @NotEmpty(message = "At least one prescription ID is required")
+    private List<Long> ids;
+}
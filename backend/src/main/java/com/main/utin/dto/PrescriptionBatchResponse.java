@@ -0,0 +1,18 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrescriptionBatchResponse {
+
+    /** Found prescriptions, in the order the IDs were requested */
+    private List<PrescriptionResponse> prescriptions;
+
+    private List<Long> missingIds;
+}
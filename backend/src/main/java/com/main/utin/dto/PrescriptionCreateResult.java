@@ -0,0 +1,18 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of a create request: the new prescription, or the existing one when the
+ * request was a duplicate or a replay of an Idempotency-Key
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrescriptionCreateResult {
+
+    private PrescriptionResponse prescription;
+    private boolean created;
+}
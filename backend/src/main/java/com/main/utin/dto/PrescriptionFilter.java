@@ -0,0 +1,32 @@
+package com.main.utin.dto;
+
+import lombok.*;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+/**
+ * Server-side filters for the prescription list; null fields are not applied
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrescriptionFilter {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String gender;
+    private Integer minAge;
+    private Integer maxAge;
+    /** Case-insensitive patient name prefix */
+    private String namePrefix;
+    /** Case-insensitive substring of the patient name or the diagnosis */
+    private String search;
+    /** Username of the creating doctor */
+    private String doctor;
+    private PrescriptionSortKey sort;
+    private Sort.Direction direction;
+    private Integer limit;
+}
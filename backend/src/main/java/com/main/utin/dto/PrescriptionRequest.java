@@ -40,5 +40,8 @@ public class PrescriptionRequest {
 
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate nextVisitDate;
+
+    /** Existing patient to attach to; when absent the patient is matched or created from the fields above */
+    private Long patientId;
 }
 
@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 public class PrescriptionResponse {
 
     private Long id;
+    private Long patientId;
 
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate prescriptionDate;
@@ -35,5 +36,8 @@ public class PrescriptionResponse {
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
+
+    /** Drug-drug interaction screening; null in list views and for rows never screened */
+    private InteractionScreeningResponse interactionScreening;
 }
 
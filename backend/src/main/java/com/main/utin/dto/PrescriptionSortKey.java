@@ -0,0 +1,23 @@
+package com.main.utin.dto;
+
+/**
+ * Sort keys accepted by the prescription list; anything else is rejected
+ * so clients cannot sort on unindexed or internal columns.
+ */
+public enum PrescriptionSortKey {
+    DATE("prescriptionDate"),
+    PATIENT_NAME("patientName"),
+    AGE("patientAge"),
+    NEXT_VISIT("nextVisitDate"),
+    CREATED("createdAt");
+
+    private final String property;
+
+    PrescriptionSortKey(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
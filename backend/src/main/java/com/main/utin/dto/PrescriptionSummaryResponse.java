@@ -0,0 +1,31 @@
+package com.main.utin.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrescriptionSummaryResponse {
+
+    private Long id;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate prescriptionDate;
+
+    private String patientName;
+    private Integer patientAge;
+    private String patientGender;
+    private String diagnosis;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate nextVisitDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime reminderMarkedAt;
+}
@@ -0,0 +1,30 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrescriptionSyncResponse {
+
+    /** Prescriptions created or changed after the watermark, oldest change first */
+    private List<PrescriptionResponse> prescriptions;
+
+    /** Prescriptions deleted after the watermark */
+    private List<Long> deletedIds;
+
+    /**
+     * Watermark to send with the next sync; kept at full precision (ISO-8601 with
+     * fractional seconds), a rounded value would skip or repeat changes
+     */
+    private LocalDateTime nextSince;
+    private Long nextSinceId;
+
+    /** More changes are waiting; sync again right away with the new watermark */
+    private boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlowQueryResponse {
+
+    private String sql;
+    private String caller;
+    private List<String> parameters;
+    private Long rows;
+    private Double worstMs;
+    private LocalDateTime worstAt;
+    private Long occurrences;
+    private Double averageMs;
+    private LocalDateTime lastSeenAt;
+    private String plan;
+}
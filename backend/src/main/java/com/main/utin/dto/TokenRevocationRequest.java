@@ -0,0 +1,15 @@
+package com.main.utin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevocationRequest {
+
+    @NotBlank(message = "Token is required")
+    private String token;
+}
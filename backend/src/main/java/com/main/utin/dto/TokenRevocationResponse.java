@@ -0,0 +1,19 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevocationResponse {
+
+    private String username;
+    private String tokenId;
+    private LocalDateTime revokedAt;
+    private LocalDateTime expiresAt;
+    private String message;
+}
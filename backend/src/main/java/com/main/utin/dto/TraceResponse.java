@@ -0,0 +1,16 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceResponse {
+
+    private TraceSummaryResponse summary;
+    private List<TraceSpanResponse> spans;
+}
@@ -0,0 +1,18 @@
+package com.main.utin.dto;
+
+import com.main.utin.tracing.SpanKind;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceSpanResponse {
+
+    private SpanKind kind;
+    private String detail;
+    private Double startMs;
+    private Double durationMs;
+    private Integer depth;
+}
@@ -0,0 +1,26 @@
+package com.main.utin.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceSummaryResponse {
+
+    private String id;
+    private String method;
+    private String path;
+    private Integer status;
+    private String username;
+    private LocalDateTime startedAt;
+    private Double durationMs;
+    private Integer spanCount;
+    private Integer droppedSpans;
+    /** Time per span kind excluding child spans, plus UNTRACED for time outside any span */
+    private Map<String, Double> breakdownMs;
+}
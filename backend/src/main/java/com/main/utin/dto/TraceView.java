@@ -0,0 +1,9 @@
+package com.main.utin.dto;
+
+/**
+ * Which kept traces the trace list returns
+ */
+public enum TraceView {
+    RECENT,
+    SLOWEST
+}
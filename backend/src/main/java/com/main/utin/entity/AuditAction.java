@@ -0,0 +1,11 @@
+package com.main.utin.entity;
+
+public enum AuditAction {
+    VIEW,
+    LIST,
+    CREATE,
+    UPDATE,
+    DELETE,
+    /** Written by the audit flusher when events were dropped under overload */
+    EVENTS_DROPPED
+}
@@ -0,0 +1,36 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+/**
+ * Append-only access audit record. Rows are inserted in JDBC batches by the
+ * audit flusher and never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "access_audit_log", indexes = {
+        @Index(name = "idx_audit_time", columnList = "occurred_at, id"),
+        @Index(name = "idx_audit_prescription_time", columnList = "prescription_id, occurred_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    @Column(nullable = false, length = 50)
+    private String username;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AuditAction action;
+    @Column(name = "prescription_id")
+    private Long prescriptionId;
+    @Column(length = 255)
+    private String details;
+}
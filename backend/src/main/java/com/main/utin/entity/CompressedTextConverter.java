@@ -0,0 +1,23 @@
+package com.main.utin.entity;
+
+import com.main.utin.compression.TextCompression;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores long text columns compressed, see {@link TextCompression}; reads both
+ * compressed and plain values
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return TextCompression.encode(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return TextCompression.decode(dbData);
+    }
+}
@@ -0,0 +1,40 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+@Entity
+@Table(name = "interaction_screenings", indexes = {
+        @Index(name = "idx_screening_due", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InteractionScreening {
+    @Id
+    @Column(name = "prescription_id")
+    private Long prescriptionId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ScreeningStatus status;
+    /** Drug names extracted from the medicines text, comma separated */
+    @Column(columnDefinition = "TEXT")
+    private String drugs;
+    @Column(name = "findings_json", columnDefinition = "TEXT")
+    private String findingsJson;
+    @Column(name = "finding_count")
+    private Integer findingCount;
+    @Column(nullable = false)
+    private Integer attempts;
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "screened_at")
+    private LocalDateTime screenedAt;
+    @Version
+    private Long version;
+}
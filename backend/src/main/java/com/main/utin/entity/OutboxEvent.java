@@ -0,0 +1,36 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+/**
+ * Change notice written in the same transaction as the change itself. The generated
+ * ID is the sequence number nodes tail the table by; the aggregate key names the
+ * changed row (prescription ID, username) so caches can drop just that entry.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OutboxEventType eventType;
+    @Column(name = "aggregate_key", nullable = false, length = 100)
+    private String aggregateKey;
+    @Column(name = "origin_node", nullable = false, length = 36)
+    private String originNode;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
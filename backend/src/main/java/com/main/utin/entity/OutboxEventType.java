@@ -0,0 +1,7 @@
+package com.main.utin.entity;
+
+public enum OutboxEventType {
+    PRESCRIPTION_CHANGED,
+    USER_CHANGED,
+    TOKENS_REVOKED
+}
@@ -0,0 +1,39 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+@Entity
+@Table(name = "patients", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_patient_identity", columnNames = {"normalized_name", "gender", "birth_year"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Patient {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, length = 100)
+    private String name;
+    @Column(name = "normalized_name", nullable = false, length = 100)
+    private String normalizedName;
+    @Column(nullable = false, length = 10)
+    private String gender;
+    @Column(name = "birth_year")
+    private Integer birthYear;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -4,7 +4,16 @@ import lombok.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescription_date", columnList = "prescription_date"),
+        @Index(name = "idx_prescription_date_gender_age", columnList = "prescription_date, patient_gender, patient_age"),
+        @Index(name = "idx_prescription_creator_date", columnList = "created_by, prescription_date"),
+        @Index(name = "idx_prescription_next_visit", columnList = "next_visit_date, id"),
+        @Index(name = "idx_prescription_reminder_due", columnList = "reminder_marked_at, next_visit_date, id"),
+        @Index(name = "idx_prescription_patient_timeline", columnList = "patient_id, prescription_date, id"),
+        @Index(name = "idx_prescription_content_hash", columnList = "content_hash, created_at"),
+        @Index(name = "idx_prescription_updated", columnList = "updated_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,12 +31,23 @@ public class Prescription {
     private Integer patientAge;
     @Column(name = "patient_gender", nullable = false, length = 10)
     private String patientGender;
+    /** Stored compressed when long; rows written before compression are read as they are */
+    @Convert(converter = CompressedTextConverter.class)
     @Column(columnDefinition = "TEXT")
     private String diagnosis;
+    @Convert(converter = CompressedTextConverter.class)
     @Column(columnDefinition = "TEXT")
     private String medicines;
     @Column(name = "next_visit_date")
     private LocalDate nextVisitDate;
+    /** SHA-256 over the normalized patient, date, diagnosis and medicines; used to spot duplicate submissions */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    @Column(name = "reminder_marked_at")
+    private LocalDateTime reminderMarkedAt;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    private Patient patient;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
@@ -0,0 +1,31 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+/**
+ * Marks a deleted prescription for sync clients, which would otherwise never learn of
+ * the delete. Kept for a bounded retention period; a client whose watermark is older
+ * has to sync again from the start.
+ */
+@Entity
+@Table(name = "prescription_tombstones", indexes = {
+        @Index(name = "idx_prescription_tombstone_deleted", columnList = "deleted_at, prescription_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrescriptionTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "prescription_id", nullable = false)
+    private Long prescriptionId;
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now();
+    }
+}
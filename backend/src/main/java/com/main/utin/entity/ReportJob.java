@@ -0,0 +1,42 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+@Entity
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_job_range", columnList = "start_date, end_date, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJob {
+    @Id
+    @Column(length = 36)
+    private String id;
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status;
+    @Column(name = "partitions_total", nullable = false)
+    private Integer partitionsTotal;
+    @Column(name = "result_json", columnDefinition = "TEXT")
+    private String resultJson;
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+    @Column(name = "created_by", length = 50)
+    private String createdBy;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
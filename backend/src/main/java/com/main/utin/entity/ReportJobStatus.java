@@ -0,0 +1,9 @@
+package com.main.utin.entity;
+
+public enum ReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,36 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+/**
+ * Entry in the JWT revocation list. A row with a token ID revokes that one token;
+ * a row without one revokes every token of the user issued at or before revokedAt.
+ * Rows are only needed until expiresAt, after which the tokens they cover are
+ * rejected by their own expiry.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_token_jti", columnList = "jti"),
+        @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(length = 36)
+    private String jti;
+    @Column(nullable = false, length = 50)
+    private String username;
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    @Column(name = "revoked_by", length = 50)
+    private String revokedBy;
+}
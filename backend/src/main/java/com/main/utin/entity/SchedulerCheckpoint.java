@@ -0,0 +1,30 @@
+package com.main.utin.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+@Entity
+@Table(name = "scheduler_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerCheckpoint {
+    @Id
+    @Column(length = 100)
+    private String name;
+    @Column(name = "position_date")
+    private LocalDate positionDate;
+    @Column(name = "position_id")
+    private Long positionId;
+    @Version
+    private Long version;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
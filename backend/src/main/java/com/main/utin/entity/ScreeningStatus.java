@@ -0,0 +1,7 @@
+package com.main.utin.entity;
+
+public enum ScreeningStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
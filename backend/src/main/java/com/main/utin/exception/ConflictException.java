@@ -0,0 +1,11 @@
+package com.main.utin.exception;
+
+/**
+ * The request conflicts with existing state, e.g. it duplicates a recent write
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
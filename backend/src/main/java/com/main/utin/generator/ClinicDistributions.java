@@ -0,0 +1,167 @@
+package com.main.utin.generator;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Value pools and weightings for synthetic clinic data. Names, diagnoses and
+ * prescribing doctors follow Zipf-like distributions (a few very common values,
+ * a long tail); visit dates follow clinic weekday patterns, a winter peak and
+ * gradual growth over the history window.
+ */
+final class ClinicDistributions {
+
+    static final String[] MALE_FIRST_NAMES = {
+            "Mohammad", "Abdul", "Md. Rahim", "Karim", "Hasan", "Hossain", "Rafiq", "Jamal", "Kamal", "Shahid",
+            "Arif", "Faruk", "Habib", "Imran", "Jahid", "Mahmud", "Nasir", "Rashed", "Sajid", "Tanvir",
+            "Anwar", "Babul", "Delwar", "Enamul", "Golam", "Iqbal", "Jashim", "Liton", "Mizan", "Nurul",
+            "Obaid", "Parvez", "Rubel", "Sohel", "Tarek", "Ujjal", "Wahid", "Yusuf", "Zahid", "Shafiq"
+    };
+
+    static final String[] FEMALE_FIRST_NAMES = {
+            "Fatema", "Ayesha", "Nasrin", "Rokeya", "Shirin", "Taslima", "Sharmin", "Farzana", "Nadia", "Sumaiya",
+            "Jannat", "Rehana", "Salma", "Rabeya", "Khadija", "Marium", "Parvin", "Shapla", "Tahmina", "Ruma",
+            "Anika", "Bilkis", "Dilruba", "Eva", "Farhana", "Hasina", "Ismat", "Jesmin", "Kulsum", "Laila",
+            "Mahmuda", "Nazma", "Popy", "Rima", "Sabina", "Tania", "Umme", "Yasmin", "Zarin", "Moushumi"
+    };
+
+    static final String[] LAST_NAMES = {
+            "Rahman", "Hossain", "Islam", "Ahmed", "Akter", "Begum", "Khan", "Chowdhury", "Uddin", "Alam",
+            "Sarkar", "Miah", "Sheikh", "Mondal", "Das", "Roy", "Saha", "Biswas", "Haque", "Kabir",
+            "Siddique", "Talukder", "Bhuiyan", "Molla", "Howlader", "Majumder", "Karim", "Ali", "Ullah", "Sultana",
+            "Parvez", "Mahmud", "Hasan", "Khatun", "Nahar", "Dey", "Paul", "Ghosh", "Sen", "Bhattacharya",
+            "Munshi", "Pramanik", "Shikder", "Khandaker", "Sikder", "Matubbar", "Akhand", "Patwary", "Dewan", "Gazi"
+    };
+
+    record Diagnosis(String name, String[][] medicines) {
+    }
+
+    /** Ordered roughly by how common they are in outpatient practice */
+    static final Diagnosis[] DIAGNOSES = {
+            new Diagnosis("Viral fever", new String[][]{
+                    {"Tab. Paracetamol 500mg 1+1+1 (5 days)"},
+                    {"Tab. Paracetamol 500mg 1+1+1 (5 days)", "Tab. Cetirizine 10mg 0+0+1 (5 days)"}}),
+            new Diagnosis("Upper respiratory tract infection", new String[][]{
+                    {"Tab. Paracetamol 500mg 1+1+1 (5 days)", "Tab. Cetirizine 10mg 0+0+1 (7 days)"},
+                    {"Cap. Amoxicillin 500mg 1+1+1 (7 days)", "Tab. Paracetamol 500mg 1+1+1 (5 days)"},
+                    {"Tab. Azithromycin 500mg 1+0+0 (3 days)", "Syp. Dextromethorphan 10ml 1+1+1 (5 days)"}}),
+            new Diagnosis("Essential hypertension", new String[][]{
+                    {"Tab. Amlodipine 5mg 1+0+0 (continue)"},
+                    {"Tab. Losartan 50mg 1+0+0 (continue)"},
+                    {"Tab. Amlodipine 5mg 1+0+0 (continue)", "Tab. Losartan 50mg 1+0+0 (continue)"}}),
+            new Diagnosis("Type 2 diabetes mellitus", new String[][]{
+                    {"Tab. Metformin 500mg 1+0+1 (continue)"},
+                    {"Tab. Metformin 850mg 1+0+1 (continue)", "Tab. Glimepiride 2mg 1+0+0 (continue)"},
+                    {"Tab. Metformin 500mg 1+0+1 (continue)", "Tab. Sitagliptin 50mg 1+0+0 (continue)"}}),
+            new Diagnosis("Gastritis", new String[][]{
+                    {"Cap. Omeprazole 20mg 1+0+1 before meal (14 days)"},
+                    {"Cap. Esomeprazole 20mg 1+0+1 before meal (14 days)", "Susp. Antacid 10ml 1+1+1 (7 days)"}}),
+            new Diagnosis("Acute gastroenteritis", new String[][]{
+                    {"ORS 1 sachet after each loose stool", "Tab. Metronidazole 400mg 1+1+1 (5 days)"},
+                    {"ORS 1 sachet after each loose stool", "Tab. Zinc 20mg 1+0+0 (10 days)"}}),
+            new Diagnosis("Bronchial asthma", new String[][]{
+                    {"Salbutamol inhaler 2 puffs as needed", "Tab. Montelukast 10mg 0+0+1 (30 days)"},
+                    {"Budesonide-formoterol inhaler 2 puffs 1+0+1 (continue)"}}),
+            new Diagnosis("Allergic rhinitis", new String[][]{
+                    {"Tab. Fexofenadine 120mg 0+0+1 (14 days)"},
+                    {"Tab. Cetirizine 10mg 0+0+1 (14 days)", "Fluticasone nasal spray 1+0+1 (14 days)"}}),
+            new Diagnosis("Urinary tract infection", new String[][]{
+                    {"Tab. Ciprofloxacin 500mg 1+0+1 (7 days)"},
+                    {"Tab. Nitrofurantoin 100mg 1+0+1 (7 days)"}}),
+            new Diagnosis("Dyslipidemia", new String[][]{
+                    {"Tab. Atorvastatin 10mg 0+0+1 (continue)"},
+                    {"Tab. Rosuvastatin 10mg 0+0+1 (continue)"}}),
+            new Diagnosis("Low back pain", new String[][]{
+                    {"Tab. Naproxen 500mg 1+0+1 after meal (7 days)", "Cap. Omeprazole 20mg 1+0+1 (7 days)"},
+                    {"Tab. Tolperisone 50mg 1+1+1 (7 days)", "Tab. Paracetamol 500mg 1+1+1 (5 days)"}}),
+            new Diagnosis("Osteoarthritis of knee", new String[][]{
+                    {"Tab. Aceclofenac 100mg 1+0+1 after meal (10 days)", "Tab. Calcium 500mg + Vitamin D 0+1+0 (30 days)"}}),
+            new Diagnosis("Iron deficiency anemia", new String[][]{
+                    {"Cap. Ferrous fumarate + Folic acid 0+1+0 (90 days)"}}),
+            new Diagnosis("Migraine", new String[][]{
+                    {"Tab. Naproxen 500mg as needed", "Tab. Propranolol 10mg 1+0+1 (30 days)"},
+                    {"Tab. Flunarizine 5mg 0+0+1 (30 days)"}}),
+            new Diagnosis("Skin fungal infection", new String[][]{
+                    {"Cream Clotrimazole 1% apply twice daily (14 days)"},
+                    {"Tab. Fluconazole 150mg once weekly (4 weeks)", "Cream Clotrimazole 1% apply twice daily (14 days)"}}),
+            new Diagnosis("Typhoid fever", new String[][]{
+                    {"Tab. Azithromycin 500mg 1+0+0 (7 days)", "Tab. Paracetamol 500mg 1+1+1 (5 days)"},
+                    {"Tab. Cefixime 200mg 1+0+1 (14 days)"}}),
+            new Diagnosis("Dengue fever", new String[][]{
+                    {"Tab. Paracetamol 500mg 1+1+1 (5 days)", "ORS 1 sachet three times daily"}}),
+            new Diagnosis("Generalized anxiety disorder", new String[][]{
+                    {"Tab. Escitalopram 10mg 0+0+1 (30 days)"},
+                    {"Tab. Clonazepam 0.5mg 0+0+1 (14 days)"}}),
+            new Diagnosis("Hypothyroidism", new String[][]{
+                    {"Tab. Levothyroxine 50mcg 1+0+0 empty stomach (continue)"}}),
+            new Diagnosis("Vitamin D deficiency", new String[][]{
+                    {"Cap. Cholecalciferol 40000 IU once weekly (8 weeks)"}})
+    };
+
+    /** Days until the next visit, for the share of prescriptions that schedule one */
+    static final int[] FOLLOW_UP_DAYS = {7, 7, 10, 14, 14, 14, 30, 30, 90};
+
+    private ClinicDistributions() {
+    }
+
+    /**
+     * Weight proportional to 1 / rank^exponent.
+     */
+    static WeightedIndex zipf(int size, double exponent) {
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, exponent);
+        }
+        return new WeightedIndex(weights);
+    }
+
+    /**
+     * One weight per day of the history window ending at {@code end}.
+     */
+    static WeightedIndex visitDays(LocalDate end, int days) {
+        double[] weights = new double[days];
+        for (int i = 0; i < days; i++) {
+            LocalDate day = end.minusDays(days - 1L - i);
+            // Busiest after the Friday weekly holiday, quiet on Friday itself
+            double weekday = switch (day.getDayOfWeek()) {
+                case SATURDAY -> 1.35;
+                case SUNDAY -> 1.25;
+                case MONDAY, TUESDAY -> 1.1;
+                case WEDNESDAY, THURSDAY -> 1.0;
+                case FRIDAY -> 0.25;
+            };
+            // Winter peak (respiratory season), trough in late summer
+            double season = 1.0 + 0.2 * Math.cos(2 * Math.PI * (day.getDayOfYear() - 15) / 365.0);
+            // Practice grows over the window: the oldest day gets 60% of today's volume
+            double growth = 0.6 + 0.4 * i / Math.max(1, days - 1);
+            weights[i] = weekday * season * growth;
+        }
+        return new WeightedIndex(weights);
+    }
+
+    /**
+     * Samples an index with probability proportional to its weight (binary search on the CDF).
+     */
+    static final class WeightedIndex {
+
+        private final double[] cumulative;
+
+        WeightedIndex(double[] weights) {
+            cumulative = new double[weights.length];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.main.utin.generator;
+
+import com.main.utin.generator.ClinicDistributions.Diagnosis;
+import com.main.utin.generator.ClinicDistributions.WeightedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds users, patients and prescriptions at production scale for performance
+ * work. Only active with the "generator" profile.
+ *
+ * Rows are written with plain JDBC batches, bypassing JPA. Prescriptions are
+ * split into fixed-size chunks that a pool of workers inserts in parallel. Each
+ * chunk draws from its own random stream derived from the seed and the chunk
+ * number, so contents do not depend on thread scheduling; only the generated
+ * prescription IDs differ between runs.
+ */
+@Component
+@Profile("generator")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String INSERT_USER = "INSERT INTO users (username, password, full_name, email, role, active, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PATIENT = "INSERT INTO patients (name, normalized_name, gender, birth_year, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRESCRIPTION = "INSERT INTO prescriptions (prescription_date, patient_name, patient_age, "
+            + "patient_gender, diagnosis, medicines, next_visit_date, patient_id, created_by, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Separate random streams for the different kinds of rows */
+    private static final long USER_STREAM = 1;
+    private static final long PATIENT_STREAM = 2;
+    private static final long PRESCRIPTION_STREAM = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private SyntheticDataProperties properties;
+
+    private final WeightedIndex maleNames = ClinicDistributions.zipf(ClinicDistributions.MALE_FIRST_NAMES.length, 1.0);
+    private final WeightedIndex femaleNames = ClinicDistributions.zipf(ClinicDistributions.FEMALE_FIRST_NAMES.length, 1.0);
+    private final WeightedIndex lastNames = ClinicDistributions.zipf(ClinicDistributions.LAST_NAMES.length, 0.9);
+    private final WeightedIndex diagnoses = ClinicDistributions.zipf(ClinicDistributions.DIAGNOSES.length, 0.8);
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM prescriptions", Long.class);
+        if (properties.isSkipIfPopulated() && existing != null && existing > 0) {
+            log.info("Synthetic data generation skipped: {} prescriptions already present", existing);
+            return;
+        }
+
+        LocalDate endDate = properties.getEndDate() != null ? properties.getEndDate() : LocalDate.now();
+        long started = System.nanoTime();
+
+        long[] userIds = createUsers();
+        int patientCount = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.max(1, properties.getPrescriptions() / Math.max(1, properties.getVisitsPerPatient())));
+        long[] patientIds = createPatients(patientCount, endDate);
+        long patientsDone = System.nanoTime();
+        log.info("Generated {} users and {} patients in {} ms", userIds.length, patientIds.length,
+                (patientsDone - started) / 1_000_000);
+
+        insertPrescriptions(userIds, patientIds, endDate);
+        double seconds = (System.nanoTime() - patientsDone) / 1e9;
+        log.info("Generated {} prescriptions in {} s ({} rows/s, {} threads, batch size {})",
+                properties.getPrescriptions(), String.format("%.1f", seconds),
+                Math.round(properties.getPrescriptions() / Math.max(seconds, 0.001)),
+                properties.getThreads(), properties.getBatchSize());
+    }
+
+    private long[] createUsers() {
+        String prefix = properties.getUsernamePrefix();
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT username FROM users WHERE username LIKE ?", String.class, prefix + "%"));
+        // One hash shared by every generated user; BCrypt per row would dominate the run
+        String passwordHash = passwordEncoder.encode(properties.getPassword());
+        SplittableRandom random = new SplittableRandom(mix(properties.getSeed(), USER_STREAM));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= properties.getUsers(); i++) {
+            String username = String.format("%s%04d", prefix, i);
+            boolean female = random.nextBoolean();
+            String fullName = "Dr. " + firstName(random, female) + " " + lastName(random);
+            if (!existing.contains(username)) {
+                rows.add(new Object[]{username, passwordHash, fullName, username + "@cmedhealth.com",
+                        "ROLE_USER", true, now, now});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, rows);
+
+        long[] ids = new long[properties.getUsers()];
+        int[] next = {0};
+        jdbcTemplate.query("SELECT id FROM users WHERE username LIKE ? ORDER BY username",
+                rs -> {
+                    if (next[0] < ids.length) {
+                        ids[next[0]++] = rs.getLong(1);
+                    }
+                }, prefix + "%");
+        return ids;
+    }
+
+    /**
+     * Inserted on one thread so IDs come back in generation order.
+     */
+    private long[] createPatients(int count, LocalDate endDate) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM patients", Long.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < count; from += batchSize) {
+            int first = from;
+            int size = Math.min(batchSize, count - from);
+            jdbcTemplate.batchUpdate(INSERT_PATIENT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PatientProfile patient = patient(first + i, endDate);
+                    ps.setString(1, patient.name());
+                    ps.setString(2, patient.name().toLowerCase(Locale.ROOT));
+                    ps.setString(3, patient.gender());
+                    ps.setInt(4, patient.birthYear());
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+
+        long[] ids = new long[count];
+        int[] next = {0};
+        jdbcTemplate.query("SELECT id FROM patients WHERE id > ? ORDER BY id",
+                rs -> {
+                    if (next[0] < ids.length) {
+                        ids[next[0]++] = rs.getLong(1);
+                    }
+                }, maxId);
+        return ids;
+    }
+
+    private void insertPrescriptions(long[] userIds, long[] patientIds, LocalDate endDate)
+            throws InterruptedException, ExecutionException {
+        long total = properties.getPrescriptions();
+        int batchSize = properties.getBatchSize();
+        long chunks = (total + batchSize - 1) / batchSize;
+        int historyDays = Math.max(1, properties.getHistoryDays());
+        LocalDate startDate = endDate.minusDays(historyDays - 1L);
+        WeightedIndex days = ClinicDistributions.visitDays(endDate, historyDays);
+        WeightedIndex doctors = ClinicDistributions.zipf(userIds.length, 0.7);
+
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+        long progressStep = Math.max(1, chunks / 10);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()));
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < Math.max(1, properties.getThreads()); t++) {
+                workers.add(pool.submit(() -> {
+                    long chunk;
+                    while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                        int size = (int) Math.min(batchSize, total - chunk * batchSize);
+                        SplittableRandom random = new SplittableRandom(mix(mix(properties.getSeed(), PRESCRIPTION_STREAM), chunk));
+                        jdbcTemplate.batchUpdate(INSERT_PRESCRIPTION, new PrescriptionBatch(
+                                random, size, startDate, endDate, days, doctors, userIds, patientIds));
+                        long done = inserted.addAndGet(size);
+                        if ((chunk + 1) % progressStep == 0) {
+                            log.info("Generated {} / {} prescriptions", done, total);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates rows on demand as JDBC asks for them; setValues is called in index order.
+     */
+    private final class PrescriptionBatch implements BatchPreparedStatementSetter {
+
+        private final SplittableRandom random;
+        private final int size;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final WeightedIndex days;
+        private final WeightedIndex doctors;
+        private final long[] userIds;
+        private final long[] patientIds;
+
+        PrescriptionBatch(SplittableRandom random, int size, LocalDate startDate, LocalDate endDate,
+                          WeightedIndex days, WeightedIndex doctors, long[] userIds, long[] patientIds) {
+            this.random = random;
+            this.size = size;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.days = days;
+            this.doctors = doctors;
+            this.userIds = userIds;
+            this.patientIds = patientIds;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            LocalDate date = startDate.plusDays(days.sample(random));
+            // Skewed towards low indexes: a minority of (chronic) patients account for many visits
+            int patientIndex = (int) (patientIds.length * Math.pow(random.nextDouble(), 1.5));
+            PatientProfile patient = patient(patientIndex, endDate);
+            int age = Math.max(0, date.getYear() - patient.birthYear());
+
+            Diagnosis diagnosis = ClinicDistributions.DIAGNOSES[diagnoses.sample(random)];
+            String diagnosisText = diagnosis.name();
+            String medicines = pick(random, diagnosis.medicines());
+            if (age >= 45 && random.nextDouble() < 0.25) {
+                // Common chronic comorbidity: hypertension or diabetes alongside the presenting problem
+                Diagnosis chronic = ClinicDistributions.DIAGNOSES[2 + random.nextInt(2)];
+                if (chronic != diagnosis) {
+                    diagnosisText = diagnosisText + ", " + chronic.name();
+                    medicines = medicines + "\n" + pick(random, chronic.medicines());
+                }
+            }
+            LocalDate nextVisit = random.nextDouble() < 0.65
+                    ? date.plusDays(ClinicDistributions.FOLLOW_UP_DAYS[random.nextInt(ClinicDistributions.FOLLOW_UP_DAYS.length)])
+                    : null;
+            Timestamp createdAt = Timestamp.valueOf(date.atTime(8, 0).plusMinutes(random.nextInt(12 * 60)));
+
+            ps.setDate(1, Date.valueOf(date));
+            ps.setString(2, patient.name());
+            ps.setInt(3, age);
+            ps.setString(4, patient.gender());
+            ps.setString(5, diagnosisText);
+            ps.setString(6, medicines);
+            if (nextVisit != null) {
+                ps.setDate(7, Date.valueOf(nextVisit));
+            } else {
+                ps.setNull(7, Types.DATE);
+            }
+            ps.setLong(8, patientIds[patientIndex]);
+            ps.setLong(9, userIds[doctors.sample(random)]);
+            ps.setTimestamp(10, createdAt);
+            ps.setTimestamp(11, createdAt);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+
+    private record PatientProfile(String name, String gender, int birthYear) {
+    }
+
+    /**
+     * Pure function of the seed and index, so prescriptions can re-derive a
+     * patient's details instead of holding millions of them in memory.
+     */
+    private PatientProfile patient(int index, LocalDate endDate) {
+        SplittableRandom random = new SplittableRandom(mix(mix(properties.getSeed(), PATIENT_STREAM), index));
+        boolean female = random.nextDouble() < 0.52;
+        String name = firstName(random, female) + " " + lastName(random);
+        int age;
+        if (random.nextDouble() < 0.18) {
+            age = random.nextInt(15);
+        } else {
+            age = (int) Math.round(42 + 16 * random.nextGaussian());
+            age = Math.max(15, Math.min(90, age));
+        }
+        return new PatientProfile(name, female ? "FEMALE" : "MALE", endDate.getYear() - age);
+    }
+
+    private String firstName(SplittableRandom random, boolean female) {
+        return female
+                ? ClinicDistributions.FEMALE_FIRST_NAMES[femaleNames.sample(random)]
+                : ClinicDistributions.MALE_FIRST_NAMES[maleNames.sample(random)];
+    }
+
+    private String lastName(SplittableRandom random) {
+        return ClinicDistributions.LAST_NAMES[lastNames.sample(random)];
+    }
+
+    private static String pick(SplittableRandom random, String[][] options) {
+        return String.join("\n", options[random.nextInt(options.length)]);
+    }
+
+    /** SplitMix64 finalizer: nearby seeds and indexes still give unrelated streams */
+    private static long mix(long seed, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
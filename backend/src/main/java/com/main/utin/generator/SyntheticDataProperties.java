@@ -0,0 +1,48 @@
+package com.main.utin.generator;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Settings for the synthetic data generator (app.generator.*), which only runs
+ * with the "generator" profile.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.generator")
+public class SyntheticDataProperties {
+
+    /** Same seed, same settings: same users, patients and prescription contents */
+    private long seed = 42;
+
+    private int users = 50;
+
+    private long prescriptions = 1_000_000;
+
+    /** Average visits per patient; sets the size of the patient pool */
+    private int visitsPerPatient = 4;
+
+    /** Prescriptions are spread over this many days ending at endDate */
+    private int historyDays = 730;
+
+    /** Last day of the history window; defaults to today. Fix it to reproduce a data set on a later day */
+    private LocalDate endDate;
+
+    private int batchSize = 5_000;
+
+    /** Parallel insert workers; keep below the connection pool size */
+    private int threads = 4;
+
+    /** Do nothing when prescriptions already exist, so restarts do not append another data set */
+    private boolean skipIfPopulated = true;
+
+    private String usernamePrefix = "gen-doctor-";
+
+    /** Password for every generated user */
+    private String password = "password123";
+}
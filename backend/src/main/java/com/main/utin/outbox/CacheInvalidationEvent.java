@@ -0,0 +1,12 @@
+package com.main.utin.outbox;
+
+import com.main.utin.entity.OutboxEventType;
+
+import java.util.Set;
+
+/**
+ * Local application event telling this node's caches that another node changed the
+ * given aggregates (prescription IDs or usernames, depending on the type)
+ */
+public record CacheInvalidationEvent(OutboxEventType type, Set<String> keys) {
+}
@@ -0,0 +1,189 @@
+package com.main.utin.outbox;
+
+import com.main.utin.entity.OutboxEvent;
+import com.main.utin.entity.OutboxEventType;
+import com.main.utin.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails the outbox by sequence number and turns notices written by other nodes into
+ * local {@link CacheInvalidationEvent}s, one per event type and poll.
+ * <p>
+ * IDs are assigned at insert but become visible at commit, so a longer transaction can
+ * commit a lower ID after a higher one was already read. IDs skipped over are kept as
+ * gaps and looked up again on later polls until they show up or the gap timeout passes
+ * (a rolled-back insert leaves a gap that never fills). Polling starts at the highest ID
+ * present when the node first polls; its caches are built after that point anyway.
+ */
+@Component
+public class OutboxPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPoller.class);
+
+    private static final int GAP_LOOKUP_CHUNK = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter receivedCounter;
+    private final Counter abandonedGapCounter;
+
+    private final Object lock = new Object();
+    /** Highest ID read so far; -1 until the first poll; guarded by lock */
+    private long lastSeenId = -1;
+    /** Skipped IDs to look up again, with the System.nanoTime() they were noticed at; guarded by lock */
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Value("${app.outbox.gap-timeout-ms:60000}")
+    private long gapTimeoutMs;
+
+    @Value("${app.outbox.max-gaps:10000}")
+    private int maxGaps;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    public OutboxPoller(OutboxEventRepository outboxEventRepository, OutboxWriter outboxWriter,
+                        ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxWriter = outboxWriter;
+        this.eventPublisher = eventPublisher;
+        this.receivedCounter = Counter.builder("outbox.events.received")
+                .description("Outbox notices from other nodes turned into local invalidations")
+                .register(meterRegistry);
+        this.abandonedGapCounter = Counter.builder("outbox.gaps.abandoned")
+                .description("Skipped outbox IDs given up on after the gap timeout or over the gap limit")
+                .register(meterRegistry);
+        Gauge.builder("outbox.gaps", this, OutboxPoller::getGapCount)
+                .description("Skipped outbox IDs still being looked for")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        List<OutboxEvent> received = new ArrayList<>();
+        synchronized (lock) {
+            try {
+                if (lastSeenId < 0) {
+                    Long maxId = outboxEventRepository.findMaxId();
+                    lastSeenId = maxId == null ? 0 : maxId;
+                    return;
+                }
+                recheckGaps(received);
+                for (int i = 0; i < maxBatchesPerPoll; i++) {
+                    List<OutboxEvent> batch = outboxEventRepository.findAfter(lastSeenId, PageRequest.of(0, batchSize));
+                    for (OutboxEvent event : batch) {
+                        noteGapsBefore(event.getId());
+                        lastSeenId = event.getId();
+                    }
+                    received.addAll(batch);
+                    if (batch.size() < batchSize) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Outbox poll failed: {}", ex.getMessage());
+            }
+        }
+        publish(received);
+    }
+
+    /**
+     * Drop notices past their retention; every node runs this, the deletes are idempotent
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = outboxEventRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.debug("Purged {} outbox events", deleted);
+        }
+    }
+
+    public long getLastSeenId() {
+        synchronized (lock) {
+            return lastSeenId;
+        }
+    }
+
+    public int getGapCount() {
+        synchronized (lock) {
+            return gaps.size();
+        }
+    }
+
+    private void noteGapsBefore(long id) {
+        long now = System.nanoTime();
+        for (long missing = lastSeenId + 1; missing < id; missing++) {
+            if (gaps.size() >= maxGaps) {
+                abandonedGapCounter.increment(id - missing);
+                log.warn("Outbox gap limit reached; not waiting for IDs {}..{}", missing, id - 1);
+                return;
+            }
+            gaps.put(missing, now);
+        }
+    }
+
+    private void recheckGaps(List<OutboxEvent> received) {
+        long expiredBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(gapTimeoutMs);
+        Iterator<Long> noticedAt = gaps.values().iterator();
+        while (noticedAt.hasNext()) {
+            if (noticedAt.next() - expiredBefore < 0) {
+                noticedAt.remove();
+                abandonedGapCounter.increment();
+            }
+        }
+        List<Long> ids = new ArrayList<>(gaps.keySet());
+        for (int from = 0; from < ids.size(); from += GAP_LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + GAP_LOOKUP_CHUNK));
+            for (OutboxEvent event : outboxEventRepository.findByIdIn(chunk)) {
+                gaps.remove(event.getId());
+                received.add(event);
+            }
+        }
+    }
+
+    private void publish(List<OutboxEvent> received) {
+        Map<OutboxEventType, Set<String>> keysByType = new EnumMap<>(OutboxEventType.class);
+        for (OutboxEvent event : received) {
+            // This node already invalidated its own caches when it made the change
+            if (!outboxWriter.getNodeId().equals(event.getOriginNode())) {
+                keysByType.computeIfAbsent(event.getEventType(), type -> new LinkedHashSet<>()).add(event.getAggregateKey());
+                receivedCounter.increment();
+            }
+        }
+        keysByType.forEach((type, keys) -> {
+            try {
+                eventPublisher.publishEvent(new CacheInvalidationEvent(type, Set.copyOf(keys)));
+            } catch (RuntimeException ex) {
+                log.error("Cache invalidation for {} {} failed: {}", type, keys, ex.getMessage());
+            }
+        });
+    }
+}
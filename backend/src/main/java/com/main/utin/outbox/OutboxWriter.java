@@ -0,0 +1,39 @@
+package com.main.utin.outbox;
+
+import com.main.utin.entity.OutboxEvent;
+import com.main.utin.entity.OutboxEventType;
+import com.main.utin.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Appends change notices to the outbox. Must be called inside the transaction making
+ * the change, so the notice commits or rolls back together with it.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    /** Identifies this application instance, so its poller can skip its own notices */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Object aggregateKey) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(type)
+                .aggregateKey(String.valueOf(aggregateKey))
+                .originNode(nodeId)
+                .build());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
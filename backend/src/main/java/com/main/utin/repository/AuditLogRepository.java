@@ -0,0 +1,16 @@
+package com.main.utin.repository;
+import com.main.utin.entity.AuditLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+@Repository
+public interface AuditLogRepository extends JpaRepository<AuditLogEntry, Long> {
+    @Query("SELECT a FROM AuditLogEntry a WHERE a.occurredAt >= :from AND (a.occurredAt < :beforeTime OR (a.occurredAt = :beforeTime AND a.id < :beforeId)) ORDER BY a.occurredAt DESC, a.id DESC")
+    List<AuditLogEntry> findPageBefore(@Param("from") LocalDateTime from, @Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId, Pageable pageable);
+    @Query("SELECT a FROM AuditLogEntry a WHERE a.prescriptionId = :prescriptionId AND a.occurredAt >= :from AND (a.occurredAt < :beforeTime OR (a.occurredAt = :beforeTime AND a.id < :beforeId)) ORDER BY a.occurredAt DESC, a.id DESC")
+    List<AuditLogEntry> findPrescriptionPageBefore(@Param("prescriptionId") Long prescriptionId, @Param("from") LocalDateTime from, @Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId, Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.main.utin.repository;
+import com.main.utin.entity.InteractionScreening;
+import com.main.utin.entity.ScreeningStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+@Repository
+public interface InteractionScreeningRepository extends JpaRepository<InteractionScreening, Long> {
+    List<InteractionScreening> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            ScreeningStatus status, LocalDateTime dueBy, Pageable pageable);
+    /** Bulk delete, so a worker update committed in between does not fail the caller on the version check */
+    @Modifying
+    @Query("DELETE FROM InteractionScreening s WHERE s.prescriptionId = :prescriptionId")
+    int deleteByPrescriptionId(@Param("prescriptionId") Long prescriptionId);
+}
@@ -0,0 +1,12 @@
+package com.main.utin.repository;
+import com.main.utin.entity.Patient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+@Repository
+public interface PatientRepository extends JpaRepository<Patient, Long> {
+    Optional<Patient> findFirstByNormalizedNameAndGenderAndBirthYearBetweenOrderByIdAsc(String normalizedName, String gender, Integer minBirthYear, Integer maxBirthYear);
+    List<Patient> findByNormalizedNameStartingWithOrderByNormalizedNameAscIdAsc(String prefix, Pageable pageable);
+}
@@ -1,16 +1,55 @@
 package com.main.utin.repository;
+import com.main.utin.entity.Patient;
 import com.main.utin.entity.Prescription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 @Repository
-public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
-    @Query("SELECT p FROM Prescription p WHERE p.prescriptionDate BETWEEN :startDate AND :endDate ORDER BY p.prescriptionDate DESC")
-    List<Prescription> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+public interface PrescriptionRepository extends JpaRepository<Prescription, Long>, JpaSpecificationExecutor<Prescription> {
     @Query("SELECT p.prescriptionDate as day, COUNT(p) as count FROM Prescription p WHERE p.prescriptionDate BETWEEN :startDate AND :endDate GROUP BY p.prescriptionDate ORDER BY p.prescriptionDate")
     List<Object[]> getDayWisePrescriptionCount(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     List<Prescription> findByPatientNameContainingIgnoreCase(String patientName);
+    long countByPrescriptionDateBetween(LocalDate startDate, LocalDate endDate);
+    long countByPrescriptionDate(LocalDate prescriptionDate);
+    long countByNextVisitDateBetween(LocalDate startDate, LocalDate endDate);
+    @Query("SELECT p FROM Prescription p WHERE p.prescriptionDate BETWEEN :startDate AND :endDate ORDER BY p.prescriptionDate DESC, p.id DESC")
+    List<Prescription> findRecentInRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+    List<Prescription> findByNextVisitDateBetweenOrderByNextVisitDateAscIdAsc(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    @Query("SELECT p.id FROM Prescription p WHERE p.reminderMarkedAt IS NULL AND p.nextVisitDate BETWEEN :fromDate AND :dueBy ORDER BY p.nextVisitDate, p.id")
+    List<Long> findUnmarkedDue(@Param("fromDate") LocalDate fromDate, @Param("dueBy") LocalDate dueBy, Pageable pageable);
+    @Query("SELECT MIN(p.nextVisitDate) FROM Prescription p WHERE p.reminderMarkedAt IS NULL AND p.nextVisitDate BETWEEN :fromDate AND :dueBy")
+    LocalDate findOldestUnmarkedDue(@Param("fromDate") LocalDate fromDate, @Param("dueBy") LocalDate dueBy);
+    @Modifying
+    @Query("UPDATE Prescription p SET p.reminderMarkedAt = :markedAt WHERE p.id IN :ids AND p.reminderMarkedAt IS NULL")
+    int markReminders(@Param("ids") List<Long> ids, @Param("markedAt") LocalDateTime markedAt);
+    @Query("SELECT p FROM Prescription p WHERE p.patient.id = :patientId ORDER BY p.prescriptionDate DESC, p.id DESC")
+    List<Prescription> findPatientTimeline(@Param("patientId") Long patientId, Pageable pageable);
+    @Query("SELECT p FROM Prescription p WHERE p.patient.id = :patientId AND (p.prescriptionDate < :beforeDate OR (p.prescriptionDate = :beforeDate AND p.id < :beforeId)) ORDER BY p.prescriptionDate DESC, p.id DESC")
+    List<Prescription> findPatientTimelineBefore(@Param("patientId") Long patientId, @Param("beforeDate") LocalDate beforeDate, @Param("beforeId") Long beforeId, Pageable pageable);
+    @Query("SELECT p FROM Prescription p WHERE p.patient IS NULL AND p.id > :afterId ORDER BY p.id")
+    List<Prescription> findWithoutPatientAfter(@Param("afterId") Long afterId, Pageable pageable);
+    Optional<Prescription> findFirstByContentHashAndCreatedAtAfterOrderByIdDesc(String contentHash, LocalDateTime createdAfter);
+    @Query("SELECT p FROM Prescription p JOIN FETCH p.createdBy WHERE p.id IN :ids")
+    List<Prescription> findAllWithCreatorByIdIn(@Param("ids") Collection<Long> ids);
+    @Query("SELECT p.id, p.prescriptionDate, p.patientAge, p.patientGender, p.createdBy.id FROM Prescription p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findAnalyticsRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    @Query("SELECT p FROM Prescription p JOIN FETCH p.createdBy WHERE p.updatedAt >= :since AND p.updatedAt < :horizon AND (p.updatedAt > :since OR p.id > :sinceId) ORDER BY p.updatedAt, p.id")
+    List<Prescription> findChangedAfter(@Param("since") LocalDateTime since, @Param("sinceId") Long sinceId, @Param("horizon") LocalDateTime horizon, Pageable pageable);
+    // Read-write so the rows come from the primary; a replica may not have the change the outbox reported yet
+    @Transactional
+    @Query("SELECT p.id, p.prescriptionDate, p.patientAge, p.patientGender, p.createdBy.id FROM Prescription p WHERE p.id IN :ids")
+    List<Object[]> findAnalyticsRowsByIdIn(@Param("ids") Collection<Long> ids);
+    @Modifying
+    @Query("UPDATE Prescription p SET p.patient = :patient WHERE p.id IN :ids")
+    int assignPatient(@Param("ids") List<Long> ids, @Param("patient") Patient patient);
 }
@@ -0,0 +1,67 @@
+package com.main.utin.repository;
+
+import com.main.utin.entity.Prescription;
+import com.main.utin.entity.User;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Predicates for the dynamic prescription list query. Each one maps to a plain
+ * column comparison so the database can use the prescription indexes.
+ */
+public final class PrescriptionSpecifications {
+
+    private PrescriptionSpecifications() {
+    }
+
+    public static Specification<Prescription> dateBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> cb.between(root.get("prescriptionDate"), startDate, endDate);
+    }
+
+    public static Specification<Prescription> genderIs(String gender) {
+        return (root, query, cb) -> cb.equal(root.get("patientGender"), gender);
+    }
+
+    public static Specification<Prescription> ageAtLeast(int minAge) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("patientAge"), minAge);
+    }
+
+    public static Specification<Prescription> ageAtMost(int maxAge) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("patientAge"), maxAge);
+    }
+
+    /**
+     * Case-insensitive prefix match on the name written on the prescription itself,
+     * not on the linked patient's, so every row matches on the name it shows. Always
+     * combined with the date range, whose index bounds the rows this is evaluated on
+     */
+    public static Specification<Prescription> patientNameStartsWith(String lowerCasePrefix) {
+        return (root, query, cb) ->
+                cb.like(cb.lower(root.get("patientName")), escapeLike(lowerCasePrefix) + "%", '\\');
+    }
+
+    /**
+     * Fetch the creator with the prescription (the response needs its name) and
+     * optionally filter on its username through the same join
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<Prescription> withCreator(String username) {
+        return (root, query, cb) -> {
+            Join<Prescription, User> creator;
+            if (query.getResultType() == Long.class || query.getResultType() == long.class) {
+                creator = root.join("createdBy", JoinType.INNER);
+            } else {
+                // Hibernate's fetch is also a join; the API types it as Fetch only, hence the cast via Object
+                creator = (Join<Prescription, User>) (Object) root.fetch("createdBy", JoinType.INNER);
+            }
+            return username == null ? null : cb.equal(creator.get("username"), username);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,20 @@
+package com.main.utin.repository;
+import com.main.utin.entity.PrescriptionTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+@Repository
+public interface PrescriptionTombstoneRepository extends JpaRepository<PrescriptionTombstone, Long> {
+    @Query("SELECT t FROM PrescriptionTombstone t WHERE t.deletedAt >= :since AND t.deletedAt < :horizon AND (t.deletedAt > :since OR t.prescriptionId > :sinceId) ORDER BY t.deletedAt, t.prescriptionId")
+    List<PrescriptionTombstone> findDeletedAfter(@Param("since") LocalDateTime since, @Param("sinceId") Long sinceId, @Param("horizon") LocalDateTime horizon, Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PrescriptionTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
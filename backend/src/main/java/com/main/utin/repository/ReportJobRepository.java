@@ -0,0 +1,22 @@
+package com.main.utin.repository;
+import com.main.utin.entity.ReportJob;
+import com.main.utin.entity.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+    Optional<ReportJob> findFirstByStartDateAndEndDateAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+            LocalDate startDate, LocalDate endDate, ReportJobStatus status, LocalDateTime completedAfter);
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.main.utin.entity.ReportJobStatus.FAILED, j.errorMessage = :message, j.completedAt = :completedAt WHERE j.status IN :statuses")
+    int failAllWithStatusIn(@Param("statuses") Collection<ReportJobStatus> statuses, @Param("message") String message, @Param("completedAt") LocalDateTime completedAt);
+}
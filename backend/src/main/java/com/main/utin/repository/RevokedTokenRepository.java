@@ -0,0 +1,23 @@
+package com.main.utin.repository;
+import com.main.utin.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    // Read-write so the check runs on the primary; a replica may not have a revocation made moments ago
+    @Transactional
+    boolean existsByJti(String jti);
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    @Query("SELECT r FROM RevokedToken r WHERE r.expiresAt > :now AND r.revokedAt >= :since")
+    List<RevokedToken> findActiveRevokedSince(@Param("now") LocalDateTime now, @Param("since") LocalDateTime since);
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,113 @@
+package com.main.utin.rxnav;
+
+import com.main.utin.tracing.SpanKind;
+import com.main.utin.tracing.TraceSpan;
+import com.main.utin.tracing.Tracing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All outbound RxNav traffic goes through here. Calls pass the circuit breaker
+ * first, then a semaphore bulkhead that caps concurrent calls, so a slow or
+ * failing RxNav costs callers at most the bulkhead wait instead of a blocked thread.
+ */
+@Component
+public class RxNavClient {
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final long bulkheadWaitMs;
+
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter rejectedCounter;
+    private final Counter bulkheadFullCounter;
+
+    public RxNavClient(RestTemplate restTemplate, RxNavHttpProperties properties, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = new CircuitBreaker(properties.getFailureRateThreshold(), properties.getWindowSize(),
+                properties.getMinimumCalls(), properties.getOpenDurationMs(), properties.getHalfOpenCalls());
+        this.maxConcurrentCalls = properties.getMaxConcurrentCalls();
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.bulkheadWaitMs = properties.getBulkheadWaitMs();
+
+        this.successCounter = callCounter(meterRegistry, "success");
+        this.failureCounter = callCounter(meterRegistry, "failure");
+        this.rejectedCounter = callCounter(meterRegistry, "circuit_open");
+        this.bulkheadFullCounter = callCounter(meterRegistry, "bulkhead_full");
+        Gauge.builder("rxnav.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("RxNav circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("rxnav.bulkhead.in-use", bulkhead, semaphore -> maxConcurrentCalls - semaphore.availablePermits())
+                .description("RxNav calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("rxnav.bulkhead.waiting", bulkhead, Semaphore::getQueueLength)
+                .description("Callers waiting for an RxNav slot")
+                .register(meterRegistry);
+    }
+
+    public String get(String url, Object... uriVariables) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            rejectedCounter.increment();
+            throw new RxNavUnavailableException("RxNav circuit breaker is open");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            circuitBreaker.onIgnored();
+            bulkheadFullCounter.increment();
+            throw new RxNavUnavailableException("Too many concurrent RxNav calls");
+        }
+        try (TraceSpan span = Tracing.span(SpanKind.RXNAV, url)) {
+            String body = restTemplate.getForObject(url, String.class, uriVariables);
+            circuitBreaker.onSuccess();
+            successCounter.increment();
+            return body;
+        } catch (HttpClientErrorException.TooManyRequests ex) {
+            // Throttled: back off like on any other failure
+            circuitBreaker.onFailure();
+            failureCounter.increment();
+            throw ex;
+        } catch (HttpClientErrorException ex) {
+            // Any other 4xx says the request was bad, not that RxNav is unhealthy
+            circuitBreaker.onSuccess();
+            throw ex;
+        } catch (RestClientException ex) {
+            circuitBreaker.onFailure();
+            failureCounter.increment();
+            throw ex;
+        } catch (RuntimeException | Error ex) {
+            // Not an answer from RxNav (a bad URI, a bug); return the permit so a half-open trial is not lost
+            circuitBreaker.onIgnored();
+            throw ex;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("rxnav.calls")
+                .description("Outbound RxNav calls by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.main.utin.rxnav;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbound HTTP settings for RxNav calls (app.rxnav.http.*): timeouts, the
+ * bulkhead size and the circuit breaker thresholds.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.rxnav.http")
+public class RxNavHttpProperties {
+
+    private long connectTimeoutMs = 2_000;
+
+    /** Upper bound on waiting for a response; a hung socket cannot pin a thread longer than this */
+    private long readTimeoutMs = 5_000;
+
+    /** Bulkhead: concurrent RxNav calls allowed */
+    private int maxConcurrentCalls = 8;
+
+    /** How long a call may wait for a bulkhead slot before being rejected */
+    private long bulkheadWaitMs = 100;
+
+    /** Failure percentage over the window that opens the breaker */
+    private int failureRateThreshold = 50;
+
+    /** Outcomes kept in the breaker's sliding window */
+    private int windowSize = 20;
+
+    /** Calls required in the window before the failure rate is evaluated */
+    private int minimumCalls = 5;
+
+    private long openDurationMs = 30_000;
+
+    /** Trial calls let through while half-open; all must succeed to close */
+    private int halfOpenCalls = 2;
+}
@@ -0,0 +1,168 @@
+package com.main.utin.rxnav;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.dto.DrugInteractionGroup;
+import com.main.utin.dto.DrugInteractionPair;
+import com.main.utin.dto.DrugInteractionResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parse of an RxNav interaction.json body into the compact typed model.
+ * Only the fields the UI needs are read; every other subtree (user input,
+ * disclaimers, concept URLs, term types...) is skipped without being materialized.
+ */
+@Component
+public class RxNavInteractionParser {
+
+    private final JsonFactory jsonFactory;
+
+    public RxNavInteractionParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public DrugInteractionResponse parse(String rxcui, byte[] body) throws IOException {
+        List<DrugInteractionGroup> groups = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object from RxNav");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("interactionTypeGroup".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        groups.add(parseGroup(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return DrugInteractionResponse.builder()
+                .rxcui(rxcui)
+                .groups(groups)
+                .build();
+    }
+
+    private DrugInteractionGroup parseGroup(JsonParser parser) throws IOException {
+        DrugInteractionGroup group = DrugInteractionGroup.builder().pairs(new ArrayList<>()).build();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "sourceName" -> group.setSourceName(text(parser, value));
+                case "sourceDisclaimer" -> group.setSourceDisclaimer(text(parser, value));
+                case "interactionType" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            parseType(parser, group.getPairs());
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return group;
+    }
+
+    private void parseType(JsonParser parser, List<DrugInteractionPair> pairs) throws IOException {
+        String comment = null;
+        int first = pairs.size();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("comment".equals(field)) {
+                comment = text(parser, value);
+            } else if ("interactionPair".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    pairs.add(parsePair(parser));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        // "comment" may appear before or after the pairs it belongs to
+        for (int i = first; i < pairs.size(); i++) {
+            pairs.get(i).setComment(comment);
+        }
+    }
+
+    private DrugInteractionPair parsePair(JsonParser parser) throws IOException {
+        DrugInteractionPair pair = DrugInteractionPair.builder()
+                .drugs(new ArrayList<>(2))
+                .rxcuis(new ArrayList<>(2))
+                .build();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "severity" -> pair.setSeverity(text(parser, value));
+                case "description" -> pair.setDescription(text(parser, value));
+                case "interactionConcept" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            parseConcept(parser, pair);
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return pair;
+    }
+
+    private void parseConcept(JsonParser parser, DrugInteractionPair pair) throws IOException {
+        String minName = null;
+        String minRxcui = null;
+        String sourceName = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            boolean min = "minConceptItem".equals(field);
+            boolean source = "sourceConceptItem".equals(field);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String itemField = parser.currentName();
+                JsonToken itemValue = parser.nextToken();
+                if ("name".equals(itemField) && (min || source)) {
+                    if (min) {
+                        minName = text(parser, itemValue);
+                    } else {
+                        sourceName = text(parser, itemValue);
+                    }
+                } else if ("rxcui".equals(itemField) && min) {
+                    minRxcui = text(parser, itemValue);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        pair.getDrugs().add(minName != null ? minName : sourceName);
+        pair.getRxcuis().add(minRxcui);
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.main.utin.rxnav;
+
+/**
+ * Raw upstream response body with the time it was fetched.
+ */
+public record RxNavSnapshot(String key, long fetchedAtMillis, byte[] body) {
+
+    public long ageMillis(long nowMillis) {
+        return nowMillis - fetchedAtMillis;
+    }
+}
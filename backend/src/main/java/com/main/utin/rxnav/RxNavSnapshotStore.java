@@ -0,0 +1,206 @@
+package com.main.utin.rxnav;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, file-backed store of RxNav responses with an in-memory index of
+ * the latest record per key. Record layout:
+ * <pre>
+ * int magic | int keyLength | long fetchedAtMillis | int bodyLength | int crc32 | key | body
+ * </pre>
+ * On open the file is scanned once to rebuild the index; a torn tail from a
+ * crash is cut off. Superseded records are dropped by compaction.
+ */
+@Component
+public class RxNavSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RxNavSnapshotStore.class);
+
+    private static final int MAGIC = 0x52584e56;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+    private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    private record IndexEntry(long offset, int keyLength, int bodyLength, long fetchedAtMillis) {
+        long recordSize() {
+            return HEADER_SIZE + keyLength + bodyLength;
+        }
+    }
+
+    @Value("${app.rxnav.snapshot-path:data/rxnav-snapshots.log}")
+    private String snapshotPath;
+
+    private Path file;
+    private FileChannel channel;
+    /** Replaced, never cleared, when rebuilt, so unsynchronized readers never see it empty */
+    private volatile Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    private long liveBytes;
+
+    @PostConstruct
+    synchronized void open() throws IOException {
+        file = Paths.get(snapshotPath).toAbsolutePath();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        rebuildIndex();
+        log.info("RxNav snapshot store opened at {} with {} entries", file, index.size());
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    public synchronized Optional<RxNavSnapshot> get(String key) {
+        IndexEntry entry = index.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        ByteBuffer body = ByteBuffer.allocate(entry.bodyLength());
+        try {
+            readFully(body, entry.offset() + HEADER_SIZE + entry.keyLength());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read RxNav snapshot for " + key, ex);
+        }
+        return Optional.of(new RxNavSnapshot(key, entry.fetchedAtMillis(), body.array()));
+    }
+
+    public Set<String> keys() {
+        return index.keySet();
+    }
+
+    public Optional<Long> fetchedAt(String key) {
+        IndexEntry entry = index.get(key);
+        return entry == null ? Optional.empty() : Optional.of(entry.fetchedAtMillis());
+    }
+
+    public synchronized void put(String key, byte[] body, long fetchedAtMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + body.length);
+        record.putInt(MAGIC)
+                .putInt(keyBytes.length)
+                .putLong(fetchedAtMillis)
+                .putInt(body.length)
+                .putInt(crc(keyBytes, body))
+                .put(keyBytes)
+                .put(body)
+                .flip();
+        try {
+            long offset = channel.size();
+            while (record.hasRemaining()) {
+                channel.write(record, offset + record.position());
+            }
+            channel.force(false);
+            IndexEntry previous = index.put(key, new IndexEntry(offset, keyBytes.length, body.length, fetchedAtMillis));
+            liveBytes += HEADER_SIZE + keyBytes.length + body.length - (previous == null ? 0 : previous.recordSize());
+            if (channel.size() > MIN_COMPACTION_SIZE && channel.size() > 2 * liveBytes) {
+                compact();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write RxNav snapshot for " + key, ex);
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        Map<String, IndexEntry> rebuilt = new ConcurrentHashMap<>();
+        long rebuiltLiveBytes = 0;
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int magic = header.getInt();
+            int keyLength = header.getInt();
+            long fetchedAt = header.getLong();
+            int bodyLength = header.getInt();
+            int crc = header.getInt();
+            if (magic != MAGIC || keyLength < 0 || bodyLength < 0 || position + HEADER_SIZE + keyLength + bodyLength > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(keyLength + bodyLength);
+            readFully(payload, position + HEADER_SIZE);
+            byte[] keyBytes = new byte[keyLength];
+            byte[] body = new byte[bodyLength];
+            payload.flip();
+            payload.get(keyBytes).get(body);
+            if (crc(keyBytes, body) != crc) {
+                break;
+            }
+            IndexEntry entry = new IndexEntry(position, keyLength, bodyLength, fetchedAt);
+            IndexEntry previous = rebuilt.put(new String(keyBytes, StandardCharsets.UTF_8), entry);
+            rebuiltLiveBytes += entry.recordSize() - (previous == null ? 0 : previous.recordSize());
+            position += entry.recordSize();
+        }
+        if (position < size) {
+            log.warn("Truncating corrupt or partial RxNav snapshot tail at offset {} of {}", position, size);
+            channel.truncate(position);
+        }
+        index = rebuilt;
+        liveBytes = rebuiltLiveBytes;
+    }
+
+    /**
+     * Rewrites only the latest record per key into a new file and swaps it in.
+     */
+    private void compact() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (IndexEntry entry : index.values()) {
+                ByteBuffer record = ByteBuffer.allocate((int) entry.recordSize());
+                readFully(record, entry.offset());
+                record.flip();
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        rebuildIndex();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of snapshot file");
+            }
+        }
+    }
+
+    private static int crc(byte[] key, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,17 @@
+package com.main.utin.rxnav;
+
+/**
+ * RxNav data cannot be had right now: the circuit breaker is open, the bulkhead is
+ * full, the call failed, or the service is offline with nothing stored. Callers that
+ * can degrade (stale data, an empty fallback) catch this one.
+ */
+public class RxNavUnavailableException extends RuntimeException {
+
+    public RxNavUnavailableException(String message) {
+        super(message);
+    }
+
+    public RxNavUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,91 @@
+package com.main.utin.scheduler;
+
+import com.main.utin.service.FollowUpReminderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically marks follow-up reminders for visits due within the lead window.
+ * Each run processes at most {@code maxBatchesPerRun} bounded batches.
+ */
+@Component
+@ConditionalOnProperty(name = "followup.reminder.enabled", havingValue = "true", matchIfMissing = true)
+public class FollowUpReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowUpReminderScheduler.class);
+
+    private final FollowUpReminderService reminderService;
+    private final Counter scannedCounter;
+    private final Timer batchTimer;
+    /** Epoch millis at which the oldest unmarked row became due, 0 when none is pending */
+    private final AtomicLong oldestDueAtMillis = new AtomicLong();
+
+    @Value("${followup.reminder.lead-days:1}")
+    private int leadDays;
+
+    @Value("${followup.reminder.batch-size:500}")
+    private int batchSize;
+
+    @Value("${followup.reminder.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    public FollowUpReminderScheduler(FollowUpReminderService reminderService, MeterRegistry meterRegistry) {
+        this.reminderService = reminderService;
+        this.scannedCounter = Counter.builder("followup.reminder.scanned")
+                .description("Prescriptions scanned by the follow-up reminder job")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("followup.reminder.batch")
+                .description("Time spent per reminder batch")
+                .register(meterRegistry);
+        // Evaluated when scraped, so a stalled job shows a growing lag rather than its last value
+        TimeGauge.builder("followup.reminder.lag", this, TimeUnit.MILLISECONDS, FollowUpReminderScheduler::lagMillis)
+                .description("How long the oldest unmarked reminder has been due")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${followup.reminder.interval-ms:60000}",
+            initialDelayString = "${followup.reminder.initial-delay-ms:30000}")
+    public void run() {
+        LocalDate dueBy = LocalDate.now().plusDays(leadDays);
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int scanned = batchTimer.record(() -> reminderService.markNextBatch(dueBy, batchSize));
+                total += scanned;
+                if (scanned < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception ex) {
+            // Unmarked rows stay selected, so the next run picks up where this one failed
+            log.warn("Follow-up reminder batch failed: {}", ex.getMessage());
+        }
+        scannedCounter.increment(total);
+
+        LocalDate oldestPending = reminderService.getOldestPendingDate(dueBy);
+        // A row is due from the start of its visit date minus the lead window
+        oldestDueAtMillis.set(oldestPending == null ? 0 : oldestPending.minusDays(leadDays)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (total > 0) {
+            log.debug("Follow-up reminder run marked {} prescriptions, oldest pending {}", total, oldestPending);
+        }
+    }
+
+    private double lagMillis() {
+        long dueAt = oldestDueAtMillis.get();
+        return dueAt == 0 ? 0 : Math.max(0, System.currentTimeMillis() - dueAt);
+    }
+}
@@ -0,0 +1,140 @@
+package com.main.utin.scheduler;
+
+import com.main.utin.compression.TextCompression;
+import com.main.utin.entity.SchedulerCheckpoint;
+import com.main.utin.repository.SchedulerCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites prescription text stored before compression was introduced. Walks the table
+ * by id from a persisted checkpoint in bounded batches; each batch and its checkpoint
+ * advance commit together. Rows are updated only if their updated_at is unchanged since
+ * they were read, so an edit made in between is never overwritten, and updated_at is
+ * left alone since the text itself does not change. Once the walk reaches the end it
+ * keeps polling from there, which costs one indexed probe per run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.text-compression.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class PrescriptionTextCompressionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionTextCompressionScheduler.class);
+
+    static final String CHECKPOINT_NAME = "prescription-text-compression";
+
+    private static final String SELECT_BATCH =
+            "SELECT id, diagnosis, medicines, updated_at FROM prescriptions WHERE id > ? ORDER BY id";
+    private static final String UPDATE_ROW =
+            "UPDATE prescriptions SET diagnosis = ?, medicines = ? WHERE id = ? AND updated_at IS NOT DISTINCT FROM ?";
+
+    private final SchedulerCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter compressedCounter;
+    private final Counter bytesSavedCounter;
+
+    @Value("${app.text-compression.migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.text-compression.migration.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    public PrescriptionTextCompressionScheduler(SchedulerCheckpointRepository checkpointRepository,
+                                                JdbcTemplate jdbcTemplate,
+                                                PlatformTransactionManager transactionManager,
+                                                MeterRegistry meterRegistry) {
+        this.checkpointRepository = checkpointRepository;
+        // Own template so the row limit does not leak to other users of the shared one
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compressedCounter = Counter.builder("text.compression.migrated")
+                .description("Prescriptions whose stored text was rewritten compressed")
+                .register(meterRegistry);
+        this.bytesSavedCounter = Counter.builder("text.compression.bytes.saved")
+                .description("Characters of stored text saved by the compression migration")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.text-compression.migration.interval-ms:300000}",
+            initialDelayString = "${app.text-compression.migration.initial-delay-ms:60000}")
+    public void run() {
+        // Bounds the batch query without dialect-specific LIMIT syntax
+        jdbcTemplate.setMaxRows(batchSize);
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer scanned = transactionTemplate.execute(status -> migrateNextBatch());
+                total += scanned == null ? 0 : scanned;
+                if (scanned == null || scanned < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception ex) {
+            // Another node may have advanced the checkpoint concurrently; the next run resumes from it
+            log.warn("Text compression batch failed: {}", ex.getMessage());
+        }
+        if (total > 0) {
+            log.debug("Text compression run scanned {} prescriptions", total);
+        }
+    }
+
+    private int migrateNextBatch() {
+        SchedulerCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> SchedulerCheckpoint.builder().name(CHECKPOINT_NAME).positionId(0L).build());
+
+        List<Object[]> updates = new ArrayList<>();
+        long[] saved = new long[1];
+        long[] lastId = {checkpoint.getPositionId()};
+        int[] scanned = new int[1];
+        jdbcTemplate.query(SELECT_BATCH, rs -> {
+            long id = rs.getLong(1);
+            String diagnosis = rs.getString(2);
+            String medicines = rs.getString(3);
+            Timestamp updatedAt = rs.getTimestamp(4);
+            lastId[0] = id;
+            scanned[0]++;
+            String newDiagnosis = TextCompression.encode(TextCompression.decode(diagnosis));
+            String newMedicines = TextCompression.encode(TextCompression.decode(medicines));
+            long before = storedSize(diagnosis) + storedSize(medicines);
+            long after = storedSize(newDiagnosis) + storedSize(newMedicines);
+            if (after < before) {
+                updates.add(new Object[]{newDiagnosis, newMedicines, id, updatedAt});
+                saved[0] += before - after;
+            }
+        }, checkpoint.getPositionId());
+
+        if (!updates.isEmpty()) {
+            int[] results = jdbcTemplate.batchUpdate(UPDATE_ROW, updates);
+            int written = 0;
+            for (int result : results) {
+                // A driver that cannot report per-row counts returns SUCCESS_NO_INFO (-2)
+                written += result == 0 ? 0 : 1;
+            }
+            compressedCounter.increment(written);
+            bytesSavedCounter.increment(saved[0]);
+        }
+        if (scanned[0] > 0) {
+            checkpoint.setPositionId(lastId[0]);
+            checkpointRepository.save(checkpoint);
+        }
+        return scanned[0];
+    }
+
+    private static long storedSize(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,64 @@
+package com.main.utin.screening;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pulls drug names out of the free-text medicines field. Each line or
+ * comma/semicolon separated entry is reduced to its leading words before the
+ * first digit, e.g. "1. Tab. Paracetamol 500mg 1+0+1" becomes "paracetamol".
+ */
+public final class MedicineNameExtractor {
+
+    private static final int MAX_DRUGS = 20;
+    private static final Pattern ENTRY_SEPARATOR = Pattern.compile("[\\r\\n,;]+");
+    private static final Pattern LEADING_NUMBERING = Pattern.compile("^\\s*(?:\\d+[.)]|[-*\\u2022])\\s*");
+    private static final Pattern DOSE_START = Pattern.compile("\\d");
+    private static final Set<String> DOSAGE_FORMS = Set.of(
+            "tab", "tablet", "cap", "capsule", "syp", "syrup", "inj", "injection",
+            "susp", "suspension", "drop", "drops", "cream", "oint", "ointment", "gel", "sol", "solution");
+
+    private MedicineNameExtractor() {
+    }
+
+    public static List<String> extract(String medicines) {
+        Set<String> names = new LinkedHashSet<>();
+        if (medicines == null || medicines.isBlank()) {
+            return new ArrayList<>();
+        }
+        for (String entry : ENTRY_SEPARATOR.split(medicines)) {
+            String name = toName(entry);
+            if (name != null) {
+                names.add(name);
+                if (names.size() == MAX_DRUGS) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static String toName(String entry) {
+        String text = LEADING_NUMBERING.matcher(entry).replaceFirst("");
+        Matcher dose = DOSE_START.matcher(text);
+        if (dose.find()) {
+            text = text.substring(0, dose.start());
+        }
+        StringBuilder name = new StringBuilder();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^a-z-]+")) {
+            if (word.isEmpty() || (name.length() == 0 && DOSAGE_FORMS.contains(word))) {
+                continue;
+            }
+            if (name.length() > 0) {
+                name.append(' ');
+            }
+            name.append(word);
+        }
+        return name.length() >= 3 ? name.toString() : null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.main.utin.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over string keys. {@link #mightContain} never returns a
+ * false negative; false positives occur at roughly the rate the filter was sized for
+ * as long as no more than the expected number of keys is added.
+ * <p>
+ * The bit count is rounded up to a power of two so probes are a mask instead of a
+ * division; the extra bits only lower the false positive rate. Bits live in an
+ * {@link AtomicLongArray} so lookups on request threads see keys added concurrently
+ * by other threads without locking.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitMask;
+    private final int hashFunctions;
+
+    private BloomFilter(long bits, int hashFunctions) {
+        this.words = new AtomicLongArray((int) (bits >>> 6));
+        this.bitMask = bits - 1;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Size a filter for the expected number of keys and target false positive rate
+     */
+    static BloomFilter create(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("expectedKeys must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        double optimalBits = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bits = Math.max(64, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+        if (bits > (1L << 36)) {
+            throw new IllegalArgumentException("Bloom filter would need more than 8 GiB");
+        }
+        int hashFunctions = (int) Math.max(1, Math.min(16, Math.round(optimalBits / expectedKeys * Math.log(2))));
+        return new BloomFilter(bits, hashFunctions);
+    }
+
+    void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitCount() {
+        return bitMask + 1;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * False positive rate expected once the given number of keys has been added
+     */
+    double expectedFalsePositiveRate(long keys) {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * keys / bitCount()), hashFunctions);
+    }
+
+    /**
+     * Spread of the intrinsic String hash. 32 bits of key entropy add about
+     * keys / 2^32 to the false positive rate, negligible at the sizes used here, and
+     * keys are server-generated token IDs, so they cannot be chosen to collide.
+     */
+    private static long hash(String key) {
+        return mix(key.hashCode() * 0x9E3779B97F4A7C15L + key.length());
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -2,14 +2,18 @@ package com.main.utin.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 @Component
 public class JwtTokenProvider {
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
     @Value("${jwt.secret}")
     private String jwtSecret;
     @Value("${jwt.expiration}")
@@ -22,6 +26,7 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
@@ -36,12 +41,26 @@ public class JwtTokenProvider {
                 .getPayload();
         return claims.getSubject();
     }
+    /**
+     * Verify the token and return its claims in a single parse, or null when it is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
+        } catch (Exception ex) {
+            log.debug("JWT validation failed: {}", ex.getMessage());
+            return null;
+        }
+    }
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
     public boolean validateToken(String authToken) {
         try {
             Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
             return true;
         } catch (Exception ex) {
-            System.err.println("JWT validation failed: " + ex.getMessage());
+            log.debug("JWT validation failed: {}", ex.getMessage());
         }
         return false;
     }
@@ -0,0 +1,264 @@
+package com.main.utin.security;
+
+import com.main.utin.entity.OutboxEventType;
+import com.main.utin.entity.RevokedToken;
+import com.main.utin.outbox.CacheInvalidationEvent;
+import com.main.utin.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked JWTs, persisted in revoked_tokens and checked on every authenticated request.
+ * <p>
+ * Single-token revocations (logout, leaked token) are fronted by a Bloom filter of
+ * their token IDs: a token whose ID is not in the filter is known not to be revoked
+ * without touching the database, and only filter hits, which are the revoked tokens
+ * plus a small false positive rate, are confirmed with a lookup. Per-user kill switches
+ * are rare, so they are held exactly in memory as the latest cutoff per user.
+ * <p>
+ * Both are rebuilt from the table at startup and after the periodic purge of expired
+ * rows, which also resizes the filter. Revocations made on this node apply immediately;
+ * ones made on other nodes are picked up by a sync that re-reads recent rows with some
+ * overlap, since adding a key twice is harmless. The sync runs as soon as the outbox
+ * reports a revocation and periodically as a fallback.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final Counter clearCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter revokedCounter;
+
+    private final Object lock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile BloomFilter bloom;
+    private volatile Map<String, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+    /** Local revocations made while a rebuild reads the table; guarded by lock, null when not rebuilding */
+    private List<RevokedToken> addedDuringRebuild;
+    /** Revocations up to this time are in the filter; guarded by lock */
+    private LocalDateTime syncedUpTo;
+
+    @Value("${app.security.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${app.security.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.security.revocation.sync-overlap-ms:300000}")
+    private long syncOverlapMs;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, JwtTokenProvider jwtTokenProvider,
+                               MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.clearCounter = Counter.builder("security.revocation.checks")
+                .tag("outcome", "clear")
+                .description("Token revocation checks answered by the in-memory filter alone")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("security.revocation.checks")
+                .tag("outcome", "false_positive")
+                .description("Token revocation checks where a filter hit was not confirmed by the table")
+                .register(meterRegistry);
+        this.revokedCounter = Counter.builder("security.revocation.checks")
+                .tag("outcome", "revoked")
+                .description("Token revocation checks that rejected a revoked token")
+                .register(meterRegistry);
+        Gauge.builder("security.revocation.user.cutoffs", this, list -> list.userCutoffs.size())
+                .description("Users with a kill switch in effect")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the filter before the first request can be authenticated
+     */
+    @PostConstruct
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (lock) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<RevokedToken> rows;
+            try {
+                rows = new ArrayList<>(revokedTokenRepository.findByExpiresAtAfter(startedAt));
+            } catch (RuntimeException ex) {
+                synchronized (lock) {
+                    addedDuringRebuild = null;
+                }
+                throw ex;
+            }
+            synchronized (lock) {
+                rows.addAll(addedDuringRebuild);
+                long tokenIds = rows.stream().filter(row -> row.getJti() != null).count();
+                // Twice the live entries, so the filter stays near its target rate until the next purge
+                BloomFilter next = BloomFilter.create((int) Math.min(Integer.MAX_VALUE / 2, Math.max(expectedEntries, 2 * tokenIds)),
+                        falsePositiveRate);
+                Map<String, UserCutoff> cutoffs = new ConcurrentHashMap<>();
+                rows.forEach(row -> apply(row, next, cutoffs));
+                bloom = next;
+                userCutoffs = cutoffs;
+                syncedUpTo = startedAt;
+                addedDuringRebuild = null;
+                log.info("Token revocation list loaded: {} token IDs in a {}-bit filter ({} hashes), {} user cutoffs",
+                        tokenIds, next.bitCount(), next.hashFunctions(), cutoffs.size());
+            }
+        }
+    }
+
+    /**
+     * Whether a token with valid signature and expiry has been revoked
+     */
+    public boolean isRevoked(Claims claims) {
+        String username = claims.getSubject();
+        UserCutoff cutoff = username == null ? null : userCutoffs.get(username);
+        // Token timestamps have second precision, so a token issued in the same second as the cutoff is revoked too
+        if (cutoff != null && (claims.getIssuedAt() == null
+                || !toLocal(claims.getIssuedAt()).isAfter(cutoff.revokedAt().withNano(0)))) {
+            revokedCounter.increment();
+            return true;
+        }
+        String jti = claims.getId();
+        if (jti == null || !bloom.mightContain(jti)) {
+            clearCounter.increment();
+            return false;
+        }
+        if (revokedTokenRepository.existsByJti(jti)) {
+            revokedCounter.increment();
+            return true;
+        }
+        falsePositiveCounter.increment();
+        return false;
+    }
+
+    /**
+     * Revoke one token until it expires
+     */
+    public RevokedToken revokeToken(String jti, String username, LocalDateTime expiresAt, String revokedBy) {
+        RevokedToken row = RevokedToken.builder()
+                .jti(jti)
+                .username(username)
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .revokedBy(revokedBy)
+                .build();
+        // Publish before the insert so there is no window in which the token still passes the filter
+        publish(row);
+        return revokedTokenRepository.save(row);
+    }
+
+    /**
+     * Revoke every token of the user issued up to now; later logins are unaffected
+     */
+    public RevokedToken revokeAllTokens(String username, String revokedBy) {
+        LocalDateTime now = LocalDateTime.now();
+        RevokedToken row = RevokedToken.builder()
+                .username(username)
+                .revokedAt(now)
+                // Every token issued before now has expired by then
+                .expiresAt(now.plusNanos(jwtTokenProvider.getExpirationMs() * 1_000_000).plusSeconds(1))
+                .revokedBy(revokedBy)
+                .build();
+        publish(row);
+        return revokedTokenRepository.save(row);
+    }
+
+    /**
+     * Pick up revocations made on other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval-ms:5000}",
+            initialDelayString = "${app.security.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            LocalDateTime since;
+            synchronized (lock) {
+                since = syncedUpTo.minusNanos(syncOverlapMs * 1_000_000);
+            }
+            List<RevokedToken> rows = revokedTokenRepository.findActiveRevokedSince(startedAt, since);
+            synchronized (lock) {
+                rows.forEach(row -> apply(row, bloom, userCutoffs));
+                if (startedAt.isAfter(syncedUpTo)) {
+                    syncedUpTo = startedAt;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Token revocation sync failed: {}", ex.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.type() == OutboxEventType.TOKENS_REVOKED) {
+            sync();
+        }
+    }
+
+    /**
+     * Drop expired entries from the table, then rebuild the filter without them
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${app.security.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+            rebuild();
+            if (deleted > 0) {
+                log.info("Purged {} expired token revocations", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Token revocation purge failed: {}", ex.getMessage());
+        }
+    }
+
+    private void publish(RevokedToken row) {
+        synchronized (lock) {
+            apply(row, bloom, userCutoffs);
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(row);
+            }
+        }
+    }
+
+    private static void apply(RevokedToken row, BloomFilter filter, Map<String, UserCutoff> cutoffs) {
+        if (row.getJti() != null) {
+            filter.put(row.getJti());
+        } else {
+            cutoffs.merge(row.getUsername(), new UserCutoff(row.getRevokedAt(), row.getExpiresAt()), UserCutoff::latest);
+        }
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private record UserCutoff(LocalDateTime revokedAt, LocalDateTime expiresAt) {
+
+        UserCutoff latest(UserCutoff other) {
+            return new UserCutoff(
+                    revokedAt.isAfter(other.revokedAt) ? revokedAt : other.revokedAt,
+                    expiresAt.isAfter(other.expiresAt) ? expiresAt : other.expiresAt);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.main.utin.service;
+
+import com.main.utin.dto.AuditLogPageResponse;
+import com.main.utin.entity.AuditAction;
+
+import java.time.LocalDateTime;
+
+public interface AuditService {
+
+    /**
+     * Captures an access event for the current user without touching the database;
+     * events are written in batches by a background flusher.
+     */
+    void record(AuditAction action, Long prescriptionId, String details);
+
+    /**
+     * Like {@link #record} but only once the caller's transaction commits.
+     */
+    void recordAfterCommit(AuditAction action, Long prescriptionId, String details);
+
+    AuditLogPageResponse getEntries(LocalDateTime from, LocalDateTime to, Long prescriptionId,
+                                    LocalDateTime beforeTime, Long beforeId, int size);
+}
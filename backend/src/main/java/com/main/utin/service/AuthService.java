@@ -3,6 +3,7 @@ package com.main.utin.service;
 import com.main.utin.dto.AuthResponse;
 import com.main.utin.dto.LoginRequest;
 import com.main.utin.dto.RegisterRequest;
+import com.main.utin.dto.TokenRevocationResponse;
 import com.main.utin.entity.User;
 
 public interface AuthService {
@@ -12,4 +13,19 @@ public interface AuthService {
     AuthResponse login(LoginRequest request);
 
     User getCurrentUser();
+
+    /**
+     * Revoke the caller's own token
+     */
+    TokenRevocationResponse logout(String token);
+
+    /**
+     * Revoke a single (e.g. leaked) token
+     */
+    TokenRevocationResponse revokeToken(String token);
+
+    /**
+     * Kill switch: revoke every token the user holds now
+     */
+    TokenRevocationResponse revokeAllTokens(String username);
 }
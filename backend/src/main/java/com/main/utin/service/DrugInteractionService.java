@@ -1,6 +1,21 @@
 package com.main.utin.service;
 
+import com.main.utin.dto.DrugInteractionResult;
+
+import java.util.Optional;
+
 public interface DrugInteractionService {
 
-    Object getDrugInteraction();
+    DrugInteractionResult getDrugInteraction();
+
+    /**
+     * Interactions recorded for one RxNorm concept, served from the snapshot store when possible
+     */
+    DrugInteractionResult getDrugInteraction(String rxcui);
+
+    /**
+     * Best-match RxNorm concept for a drug name; empty when RxNav knows no such drug.
+     * Throws {@link com.main.utin.rxnav.RxNavUnavailableException} offline for a name never resolved before
+     */
+    Optional<String> resolveRxcui(String drugName);
 }
@@ -0,0 +1,18 @@
+package com.main.utin.service;
+
+import java.time.LocalDate;
+
+public interface FollowUpReminderService {
+
+    /**
+     * Marks the next batch of unmarked follow-ups due from today up to dueBy.
+     *
+     * @return number of prescriptions marked in this batch (0 when caught up)
+     */
+    int markNextBatch(LocalDate dueBy, int batchSize);
+
+    /**
+     * Earliest visit date up to dueBy still waiting for a reminder, or null when caught up
+     */
+    LocalDate getOldestPendingDate(LocalDate dueBy);
+}
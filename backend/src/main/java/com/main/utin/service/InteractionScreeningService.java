@@ -0,0 +1,21 @@
+package com.main.utin.service;
+
+import com.main.utin.dto.InteractionScreeningResponse;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface InteractionScreeningService {
+
+    /**
+     * Marks the prescription for screening within the caller's transaction;
+     * the actual lookup is queued once that transaction commits.
+     */
+    void requestScreening(Long prescriptionId);
+
+    InteractionScreeningResponse getScreening(Long prescriptionId);
+
+    Map<Long, InteractionScreeningResponse> getScreenings(Collection<Long> prescriptionIds);
+
+    void deleteScreening(Long prescriptionId);
+}
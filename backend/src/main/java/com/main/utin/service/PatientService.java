@@ -0,0 +1,28 @@
+package com.main.utin.service;
+
+import com.main.utin.dto.PatientResponse;
+import com.main.utin.entity.Patient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PatientService {
+
+    /**
+     * Finds the patient matching name, gender and approximate birth year, or creates one.
+     */
+    Patient resolvePatient(String name, Integer age, String gender, LocalDate onDate);
+
+    Patient getPatientEntity(Long id);
+
+    PatientResponse getPatientById(Long id);
+
+    List<PatientResponse> searchPatients(String namePrefix, int limit);
+
+    /**
+     * Links the next batch of prescriptions without a patient, starting after the given ID.
+     *
+     * @return ID of the last prescription processed, or -1 when none are left
+     */
+    long backfillBatch(long afterId, int batchSize);
+}
@@ -1,26 +1,52 @@
 package com.main.utin.service;
 
+import com.main.utin.dto.DashboardSummaryResponse;
 import com.main.utin.dto.DayWiseCountResponse;
+import com.main.utin.dto.PatientTimelineResponse;
+import com.main.utin.dto.PrescriptionBatchResponse;
+import com.main.utin.dto.PrescriptionCreateResult;
+import com.main.utin.dto.PrescriptionFilter;
 import com.main.utin.dto.PrescriptionRequest;
 import com.main.utin.dto.PrescriptionResponse;
+import com.main.utin.dto.PrescriptionSummaryResponse;
+import com.main.utin.dto.PrescriptionSyncResponse;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PrescriptionService {
 
-    PrescriptionResponse createPrescription(PrescriptionRequest request);
+    /**
+     * Create a prescription unless it duplicates a recent one or replays an earlier
+     * request with the same idempotency key (may be null)
+     */
+    PrescriptionCreateResult createPrescription(PrescriptionRequest request, String idempotencyKey);
 
     PrescriptionResponse getPrescriptionById(Long id);
 
+    PrescriptionBatchResponse getPrescriptionsByIds(List<Long> ids);
+
     List<PrescriptionResponse> getAllPrescriptions();
 
-    List<PrescriptionResponse> getPrescriptionsByDateRange(LocalDate startDate, LocalDate endDate);
+    List<PrescriptionResponse> searchPrescriptions(PrescriptionFilter filter);
 
     PrescriptionResponse updatePrescription(Long id, PrescriptionRequest request);
 
     void deletePrescription(Long id);
 
     List<DayWiseCountResponse> getDayWisePrescriptionCount(LocalDate startDate, LocalDate endDate);
+
+    DashboardSummaryResponse getDashboardSummary(int recentLimit, int followUpDays);
+
+    List<PrescriptionSummaryResponse> getFollowUpsDue(int days, int limit);
+
+    PatientTimelineResponse getPatientTimeline(Long patientId, LocalDate beforeDate, Long beforeId, int size);
+
+    /**
+     * Prescriptions changed and deleted after the (updatedAt, ID) watermark, oldest first,
+     * with the watermark to continue from; a null watermark starts from scratch
+     */
+    PrescriptionSyncResponse getChangesSince(LocalDateTime since, Long sinceId, int size);
 }
 
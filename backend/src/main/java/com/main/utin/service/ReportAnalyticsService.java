@@ -0,0 +1,14 @@
+package com.main.utin.service;
+
+import com.main.utin.analytics.Dimension;
+import com.main.utin.dto.AnalyticsStatsResponse;
+import com.main.utin.dto.BreakdownResponse;
+
+import java.time.LocalDate;
+
+public interface ReportAnalyticsService {
+
+    BreakdownResponse getBreakdown(LocalDate startDate, LocalDate endDate, Dimension by, Dimension thenBy);
+
+    AnalyticsStatsResponse getStats();
+}
@@ -0,0 +1,16 @@
+package com.main.utin.service;
+
+import com.main.utin.dto.ReportJobRequest;
+import com.main.utin.dto.ReportJobResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ReportJobService {
+
+    ReportJobResponse submitJob(ReportJobRequest request);
+
+    ReportJobResponse getJob(String jobId);
+
+    ReportJobResponse cancelJob(String jobId);
+
+    SseEmitter streamJob(String jobId);
+}
@@ -0,0 +1,274 @@
+package com.main.utin.service.impl;
+
+import com.main.utin.audit.AuditRingBuffer;
+import com.main.utin.dto.AuditLogEntryResponse;
+import com.main.utin.dto.AuditLogPageResponse;
+import com.main.utin.entity.AuditAction;
+import com.main.utin.entity.AuditLogEntry;
+import com.main.utin.exception.BusinessException;
+import com.main.utin.repository.AuditLogRepository;
+import com.main.utin.service.AuditService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Access audit log kept off the request path. Callers only build an event and
+ * offer it to a lock-free ring buffer; a single flusher thread drains the buffer
+ * and appends the events with batched JDBC inserts. When the buffer is full the
+ * caller spins for a bounded time (backpressure) and then drops the event. Drops
+ * are counted and written to the log itself as EVENTS_DROPPED rows, so gaps in
+ * the trail are visible to whoever reads it.
+ */
+@Service
+public class AuditServiceImpl implements AuditService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditServiceImpl.class);
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO access_audit_log (occurred_at, username, action, prescription_id, details) VALUES (?, ?, ?, ?, ?)";
+    private static final String SYSTEM_USER = "system";
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+    private static final int MAX_DETAILS_LENGTH = 255;
+
+    private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter capturedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    private AuditRingBuffer<AuditEvent> buffer;
+    /** Drops not yet reported in the log; the flusher turns them into an EVENTS_DROPPED row */
+    private final AtomicLong unreportedDrops = new AtomicLong();
+    private Thread flusher;
+    private volatile boolean running;
+
+    @Value("${app.audit.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    @Value("${app.audit.max-page-size:200}")
+    private int maxPageSize;
+
+    public AuditServiceImpl(AuditLogRepository auditLogRepository, JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry) {
+        this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.capturedCounter = Counter.builder("audit.events.captured")
+                .description("Audit events accepted into the buffer")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.events.dropped")
+                .description("Audit events dropped because the buffer stayed full or the log was unwritable")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.events.written")
+                .description("Audit events appended to the audit table")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Time to append one batch of audit events")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        buffer = new AuditRingBuffer<>(Integer.highestOneBit(Math.max(2, bufferCapacity)));
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting to be flushed")
+                .register(meterRegistry);
+        running = true;
+        flusher = new Thread(this::runFlusher, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public void record(AuditAction action, Long prescriptionId, String details) {
+        offer(new AuditEvent(LocalDateTime.now(), currentUsername(), action, prescriptionId, truncate(details)));
+    }
+
+    @Override
+    public void recordAfterCommit(AuditAction action, Long prescriptionId, String details) {
+        AuditEvent event = new AuditEvent(LocalDateTime.now(), currentUsername(), action, prescriptionId, truncate(details));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(event);
+                }
+            });
+        } else {
+            offer(event);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditLogPageResponse getEntries(LocalDateTime from, LocalDateTime to, Long prescriptionId,
+                                           LocalDateTime beforeTime, Long beforeId, int size) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("'to' must not be before 'from'");
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // The first page starts at 'to' (inclusive); later pages continue below the cursor
+        LocalDateTime cursorTime = beforeTime == null || beforeId == null ? to : beforeTime;
+        long cursorId = beforeTime == null || beforeId == null ? Long.MAX_VALUE : beforeId;
+        // Fetch one extra row to know whether an older page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<AuditLogEntry> rows = prescriptionId == null
+                ? auditLogRepository.findPageBefore(from, cursorTime, cursorId, page)
+                : auditLogRepository.findPrescriptionPageBefore(prescriptionId, from, cursorTime, cursorId, page);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AuditLogEntry> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        AuditLogEntry last = hasMore ? pageRows.get(pageRows.size() - 1) : null;
+
+        return AuditLogPageResponse.builder()
+                .entries(pageRows.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextBeforeTime(last == null ? null : last.getOccurredAt())
+                .nextBeforeId(last == null ? null : last.getId())
+                .build();
+    }
+
+    private void offer(AuditEvent event) {
+        if (buffer.offer(event)) {
+            capturedCounter.increment();
+            return;
+        }
+        // Backpressure: give the flusher a short window before giving up on the event
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            if (buffer.offer(event)) {
+                capturedCounter.increment();
+                return;
+            }
+        }
+        droppedCounter.increment();
+        unreportedDrops.incrementAndGet();
+    }
+
+    private void runFlusher() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize + 1);
+        while (true) {
+            boolean stopping = !running;
+            int drained = buffer.drain(batch::add, batchSize);
+            long drops = unreportedDrops.getAndSet(0);
+            if (drops > 0) {
+                batch.add(new AuditEvent(LocalDateTime.now(), SYSTEM_USER, AuditAction.EVENTS_DROPPED, null,
+                        drops + " audit events dropped"));
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+            if (stopping && buffer.size() == 0) {
+                return;
+            }
+            if (drained < batchSize && !stopping) {
+                // Let a partial batch grow instead of issuing many tiny inserts
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+
+    /**
+     * Append the batch, retrying with backoff while the database is unavailable.
+     * The buffer keeps absorbing events meanwhile and drops are accounted as usual.
+     */
+    private void write(List<AuditEvent> batch) {
+        long backoffMs = Math.max(100, flushIntervalMs);
+        while (true) {
+            try {
+                flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_EVENT, batch, batch.size(), (ps, event) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(event.occurredAt()));
+                    ps.setString(2, event.username());
+                    ps.setString(3, event.action().name());
+                    if (event.prescriptionId() == null) {
+                        ps.setNull(4, Types.BIGINT);
+                    } else {
+                        ps.setLong(4, event.prescriptionId());
+                    }
+                    ps.setString(5, event.details());
+                }));
+                writtenCounter.increment(batch.size());
+                return;
+            } catch (DataAccessException ex) {
+                if (!running) {
+                    log.error("Dropping {} audit events on shutdown: {}", batch.size(), ex.getMessage());
+                    droppedCounter.increment(batch.size());
+                    return;
+                }
+                log.warn("Audit flush of {} events failed, retrying in {} ms: {}", batch.size(), backoffMs, ex.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "anonymous" : authentication.getName();
+    }
+
+    private static String truncate(String details) {
+        return details == null || details.length() <= MAX_DETAILS_LENGTH ? details : details.substring(0, MAX_DETAILS_LENGTH);
+    }
+
+    private AuditLogEntryResponse mapToResponse(AuditLogEntry entry) {
+        return AuditLogEntryResponse.builder()
+                .id(entry.getId())
+                .occurredAt(entry.getOccurredAt())
+                .username(entry.getUsername())
+                .action(entry.getAction())
+                .prescriptionId(entry.getPrescriptionId())
+                .details(entry.getDetails())
+                .build();
+    }
+
+    private record AuditEvent(LocalDateTime occurredAt, String username, AuditAction action, Long prescriptionId,
+                              String details) {
+    }
+}
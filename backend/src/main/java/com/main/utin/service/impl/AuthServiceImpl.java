@@ -3,11 +3,18 @@ package com.main.utin.service.impl;
 import com.main.utin.dto.AuthResponse;
 import com.main.utin.dto.LoginRequest;
 import com.main.utin.dto.RegisterRequest;
+import com.main.utin.dto.TokenRevocationResponse;
+import com.main.utin.entity.OutboxEventType;
+import com.main.utin.entity.RevokedToken;
 import com.main.utin.entity.User;
 import com.main.utin.exception.BusinessException;
+import com.main.utin.exception.ResourceNotFoundException;
+import com.main.utin.outbox.OutboxWriter;
 import com.main.utin.repository.UserRepository;
 import com.main.utin.security.JwtTokenProvider;
+import com.main.utin.security.TokenRevocationList;
 import com.main.utin.service.AuthService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,6 +24,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 @Service
 public class AuthServiceImpl implements AuthService {
 
@@ -31,6 +41,12 @@ public class AuthServiceImpl implements AuthService {
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
     @Override
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -49,6 +65,7 @@ public class AuthServiceImpl implements AuthService {
                 .active(true)
                 .build();
         userRepository.save(user);
+        outboxWriter.append(OutboxEventType.USER_CHANGED, user.getUsername());
         String token = jwtTokenProvider.generateTokenFromUsername(user.getUsername());
         return AuthResponse.builder()
                 .token(token)
@@ -86,4 +103,52 @@ public class AuthServiceImpl implements AuthService {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("User not found"));
     }
+    @Override
+    @Transactional
+    public TokenRevocationResponse logout(String token) {
+        Claims claims = parseForRevocation(token);
+        return revoke(claims, claims.getSubject(), "Logged out");
+    }
+    @Override
+    @Transactional
+    public TokenRevocationResponse revokeToken(String token) {
+        Claims claims = parseForRevocation(token);
+        return revoke(claims, SecurityContextHolder.getContext().getAuthentication().getName(), "Token revoked");
+    }
+    @Override
+    @Transactional
+    public TokenRevocationResponse revokeAllTokens(String username) {
+        if (!userRepository.existsByUsername(username)) {
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+        RevokedToken row = revocationList.revokeAllTokens(username,
+                SecurityContextHolder.getContext().getAuthentication().getName());
+        outboxWriter.append(OutboxEventType.TOKENS_REVOKED, username);
+        return mapToResponse(row, "All tokens issued to " + username + " so far are revoked");
+    }
+    private Claims parseForRevocation(String token) {
+        Claims claims = token == null ? null : jwtTokenProvider.parseClaims(token);
+        if (claims == null) {
+            throw new BusinessException("Invalid or expired token");
+        }
+        return claims;
+    }
+    private TokenRevocationResponse revoke(Claims claims, String revokedBy, String message) {
+        // Tokens issued before token IDs were introduced can only be revoked together with the user's other tokens
+        RevokedToken row = claims.getId() == null
+                ? revocationList.revokeAllTokens(claims.getSubject(), revokedBy)
+                : revocationList.revokeToken(claims.getId(), claims.getSubject(),
+                        LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()), revokedBy);
+        outboxWriter.append(OutboxEventType.TOKENS_REVOKED, claims.getSubject());
+        return mapToResponse(row, message);
+    }
+    private TokenRevocationResponse mapToResponse(RevokedToken row, String message) {
+        return TokenRevocationResponse.builder()
+                .username(row.getUsername())
+                .tokenId(row.getJti())
+                .revokedAt(row.getRevokedAt())
+                .expiresAt(row.getExpiresAt())
+                .message(message)
+                .build();
+    }
 }
@@ -1,26 +1,261 @@
 package com.main.utin.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.dto.DrugInteractionResponse;
+import com.main.utin.dto.DrugInteractionResult;
+import com.main.utin.rxnav.CircuitBreaker;
+import com.main.utin.rxnav.RxNavClient;
+import com.main.utin.rxnav.RxNavInteractionParser;
+import com.main.utin.rxnav.RxNavSnapshot;
+import com.main.utin.rxnav.RxNavSnapshotStore;
+import com.main.utin.rxnav.RxNavUnavailableException;
 import com.main.utin.service.DrugInteractionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves RxNav data from the local snapshot store first. Stale entries are
+ * returned immediately and refreshed in the background; the network is only
+ * on the request path when nothing has ever been stored for a key. In offline
+ * mode the network is never used. Drug name lookups are stored next to the
+ * interaction snapshots, so names resolved once also resolve offline.
+ */
 @Service
 public class DrugInteractionServiceImpl implements DrugInteractionService {
-    
-    private final RestTemplate restTemplate;
-    private static final String API_URL = "https://rxnav.nlm.nih.gov/REST/interaction/interaction.json?rxcui=341248";
 
-    public DrugInteractionServiceImpl(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    private static final Logger log = LoggerFactory.getLogger(DrugInteractionServiceImpl.class);
+
+    private static final String API_URL = "https://rxnav.nlm.nih.gov/REST/interaction/interaction.json?rxcui={rxcui}";
+    private static final String RXCUI_URL = "https://rxnav.nlm.nih.gov/REST/rxcui.json?name={name}&search=2";
+    private static final String DEFAULT_RXCUI = "341248";
+    private static final int MAX_RESOLVED_NAMES = 10_000;
+    /** Store key prefix of name lookups; interaction snapshots are keyed by the bare numeric rxcui */
+    private static final String RXCUI_KEY_PREFIX = "rxcui:";
+
+    private final RxNavClient rxNavClient;
+    private final RxNavSnapshotStore snapshotStore;
+    private final RxNavInteractionParser interactionParser;
+    private final ObjectMapper objectMapper;
+
+    /** Parsed snapshots in their compact typed form; the raw body is only kept on disk */
+    private final Map<String, DrugInteractionResult> parsed = new ConcurrentHashMap<>();
+    /** Hot copy of the stored drug name lookups; misses are kept too so unknown names are not looked up again */
+    private final Map<String, Optional<String>> rxcuiByName = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rxnav-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.rxnav.offline:false}")
+    private boolean offline;
+
+    @Value("${app.rxnav.max-age-ms:21600000}")
+    private long maxAgeMs;
+
+    public DrugInteractionServiceImpl(RxNavClient rxNavClient, RxNavSnapshotStore snapshotStore,
+                                      RxNavInteractionParser interactionParser, ObjectMapper objectMapper) {
+        this.rxNavClient = rxNavClient;
+        this.snapshotStore = snapshotStore;
+        this.interactionParser = interactionParser;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Warm start: parse whatever the store holds before any request or network call.
+     */
+    @PostConstruct
+    void warmUp() {
+        for (String key : snapshotStore.keys()) {
+            if (key.startsWith(RXCUI_KEY_PREFIX)) {
+                continue;
+            }
+            try {
+                snapshotStore.get(key).ifPresent(snapshot -> parsed.put(key, toResult(snapshot)));
+            } catch (RuntimeException ex) {
+                log.warn("Skipping unreadable RxNav snapshot for {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 
     @Override
-    public Object getDrugInteraction() {
+    public DrugInteractionResult getDrugInteraction() {
         try {
-            return restTemplate.getForObject(API_URL, Object.class);
+            return getDrugInteraction(DEFAULT_RXCUI);
+        } catch (RxNavUnavailableException ex) {
+            // Nothing stored and RxNav unreachable, refusing calls or offline: answer immediately with no data
+            return DrugInteractionResult.builder()
+                    .data(DrugInteractionResponse.builder().rxcui(DEFAULT_RXCUI).groups(List.of()).build())
+                    .fetchedAt(Instant.now())
+                    .stale(true)
+                    .source("fallback")
+                    .build();
+        }
+    }
+
+    @Override
+    public DrugInteractionResult getDrugInteraction(String rxcui) {
+        String key = rxcui;
+        DrugInteractionResult cached = parsed.get(key);
+        if (cached == null) {
+            Optional<RxNavSnapshot> snapshot = snapshotStore.get(key);
+            if (snapshot.isPresent()) {
+                cached = toResult(snapshot.get());
+                parsed.put(key, cached);
+            }
+        }
+
+        if (cached != null) {
+            boolean stale = System.currentTimeMillis() - cached.getFetchedAt().toEpochMilli() > maxAgeMs;
+            if (stale && !offline) {
+                refreshInBackground(key);
+            }
+            return DrugInteractionResult.builder()
+                    .data(cached.getData())
+                    .fetchedAt(cached.getFetchedAt())
+                    .stale(stale)
+                    .source("snapshot")
+                    .build();
+        }
+
+        if (offline) {
+            throw new RxNavUnavailableException("Drug interaction data is not available offline: no snapshot stored");
+        }
+        try {
+            DrugInteractionResult fetched = fetchAndStore(key);
+            fetched.setSource("network");
+            return fetched;
+        } catch (RxNavUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch drug interaction data: " + e.getMessage());
+            // Nothing stored and the first fetch failed: as unavailable as an open breaker
+            throw new RxNavUnavailableException("Failed to fetch drug interaction data: " + e.getMessage(), e);
         }
     }
-}
 
+    @Override
+    public Optional<String> resolveRxcui(String drugName) {
+        String name = drugName.trim().toLowerCase(Locale.ROOT);
+        Optional<String> cached = rxcuiByName.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<RxNavSnapshot> stored = snapshotStore.get(RXCUI_KEY_PREFIX + name);
+        if (stored.isPresent()) {
+            // An empty body records a name RxNav did not know
+            String value = new String(stored.get().body(), StandardCharsets.UTF_8);
+            return remember(name, value.isEmpty() ? Optional.empty() : Optional.of(value));
+        }
+        if (offline) {
+            throw new RxNavUnavailableException("Drug name '" + name + "' was never resolved and RxNav is offline");
+        }
+        String body = rxNavClient.get(RXCUI_URL, name);
+        Optional<String> rxcui = Optional.empty();
+        if (body != null) {
+            try {
+                JsonNode ids = objectMapper.readTree(body).path("idGroup").path("rxnormId");
+                if (ids.isArray() && !ids.isEmpty()) {
+                    rxcui = Optional.of(ids.get(0).asText());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unreadable RxNav rxcui response for " + name, ex);
+            }
+        }
+        snapshotStore.put(RXCUI_KEY_PREFIX + name, rxcui.orElse("").getBytes(StandardCharsets.UTF_8),
+                System.currentTimeMillis());
+        return remember(name, rxcui);
+    }
+
+    private Optional<String> remember(String name, Optional<String> rxcui) {
+        // Only bounds the hot copy; the store still holds every lookup
+        if (rxcuiByName.size() >= MAX_RESOLVED_NAMES) {
+            rxcuiByName.clear();
+        }
+        rxcuiByName.put(name, rxcui);
+        return rxcui;
+    }
+
+    /**
+     * Refreshes every stored entry that is older than the max age.
+     */
+    @Scheduled(fixedDelayString = "${app.rxnav.refresh-interval-ms:600000}",
+            initialDelayString = "${app.rxnav.refresh-initial-delay-ms:60000}")
+    public void refreshStaleSnapshots() {
+        if (offline) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String key : snapshotStore.keys()) {
+            if (key.startsWith(RXCUI_KEY_PREFIX)) {
+                continue;
+            }
+            snapshotStore.fetchedAt(key)
+                    .filter(fetchedAt -> now - fetchedAt > maxAgeMs)
+                    .ifPresent(fetchedAt -> refreshInBackground(key));
+        }
+    }
+
+    private void refreshInBackground(String key) {
+        if (rxNavClient.getCircuitState() == CircuitBreaker.State.OPEN || !refreshing.add(key)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                fetchAndStore(key);
+            } catch (Exception ex) {
+                log.warn("Background refresh of RxNav data for {} failed, keeping snapshot: {}", key, ex.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    private DrugInteractionResult fetchAndStore(String key) {
+        String body = rxNavClient.get(API_URL, key);
+        if (body == null) {
+            throw new IllegalStateException("Empty response from RxNav");
+        }
+        RxNavSnapshot snapshot = new RxNavSnapshot(key, System.currentTimeMillis(), body.getBytes(StandardCharsets.UTF_8));
+        DrugInteractionResult result = toResult(snapshot);
+        snapshotStore.put(key, snapshot.body(), snapshot.fetchedAtMillis());
+        parsed.put(key, result);
+        return result;
+    }
+
+    private DrugInteractionResult toResult(RxNavSnapshot snapshot) {
+        try {
+            return DrugInteractionResult.builder()
+                    .data(interactionParser.parse(snapshot.key(), snapshot.body()))
+                    .fetchedAt(Instant.ofEpochMilli(snapshot.fetchedAtMillis()))
+                    .stale(false)
+                    .build();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unreadable RxNav snapshot for " + snapshot.key(), ex);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.main.utin.service.impl;
+
+import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.service.FollowUpReminderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Marks prescriptions whose follow-up falls between today and the due date and
+ * that have no reminder yet. Selecting on the unmarked state rather than a moving
+ * position means prescriptions created or rescheduled into a date already passed
+ * over, and reschedules that cleared the mark, are picked up on the next run.
+ * Visits already in the past are not reminded.
+ */
+@Service
+public class FollowUpReminderServiceImpl implements FollowUpReminderService {
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Override
+    @Transactional
+    public int markNextBatch(LocalDate dueBy, int batchSize) {
+        List<Long> due = prescriptionRepository.findUnmarkedDue(LocalDate.now(), dueBy, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        // Rows marked concurrently by another node are skipped by the update itself
+        prescriptionRepository.markReminders(due, LocalDateTime.now());
+        return due.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDate getOldestPendingDate(LocalDate dueBy) {
+        return prescriptionRepository.findOldestUnmarkedDue(LocalDate.now(), dueBy);
+    }
+}
@@ -0,0 +1,443 @@
+package com.main.utin.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.dto.DrugInteractionGroup;
+import com.main.utin.dto.DrugInteractionPair;
+import com.main.utin.dto.DrugInteractionResponse;
+import com.main.utin.dto.InteractionFinding;
+import com.main.utin.dto.InteractionScreeningResponse;
+import com.main.utin.entity.InteractionScreening;
+import com.main.utin.entity.Prescription;
+import com.main.utin.entity.ScreeningStatus;
+import com.main.utin.repository.InteractionScreeningRepository;
+import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.screening.MedicineNameExtractor;
+import com.main.utin.service.DrugInteractionService;
+import com.main.utin.service.InteractionScreeningService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Screens prescriptions for drug-drug interactions off the request path.
+ * A saved prescription gets a PENDING row in the same transaction and its ID is
+ * offered to a bounded queue after commit. When the queue is full the offer is
+ * dropped and the row stays PENDING; a sweeper re-queues due rows as capacity
+ * frees up, so saves never block on screening. A single worker drains the queue
+ * in batches so names and rxcuis shared by concurrent saves are looked up once.
+ */
+@Service
+public class InteractionScreeningServiceImpl implements InteractionScreeningService {
+
+    private static final Logger log = LoggerFactory.getLogger(InteractionScreeningServiceImpl.class);
+
+    private final InteractionScreeningRepository screeningRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final DrugInteractionService drugInteractionService;
+    private final ObjectMapper objectMapper;
+
+    private final Timer lagTimer;
+    private final Counter overflowCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    private BlockingQueue<Long> queue;
+    /** IDs currently in the queue, so the same prescription is not queued twice */
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    /** IDs the worker is screening right now; the sweeper leaves them alone */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private Thread worker;
+    private volatile boolean running;
+
+    @Value("${app.screening.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.screening.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.screening.linger-ms:200}")
+    private long lingerMs;
+
+    @Value("${app.screening.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.screening.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    public InteractionScreeningServiceImpl(InteractionScreeningRepository screeningRepository,
+                                           PrescriptionRepository prescriptionRepository,
+                                           DrugInteractionService drugInteractionService,
+                                           ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) {
+        this.screeningRepository = screeningRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.drugInteractionService = drugInteractionService;
+        this.objectMapper = objectMapper;
+        this.lagTimer = Timer.builder("interaction.screening.lag")
+                .description("Time from prescription save to completed interaction screening")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("interaction.screening.overflow")
+                .description("Screening requests left to the sweeper because the queue was full")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("interaction.screening.retries")
+                .description("Screenings rescheduled after a failed lookup")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("interaction.screening.failed")
+                .description("Screenings that gave up after the maximum attempts")
+                .register(meterRegistry);
+        meterRegistry.gauge("interaction.screening.queue.size", queued, Set::size);
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::runWorker, "interaction-screening");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    @Override
+    @Transactional
+    public void requestScreening(Long prescriptionId) {
+        LocalDateTime now = LocalDateTime.now();
+        InteractionScreening screening = screeningRepository.findById(prescriptionId)
+                .orElseGet(() -> InteractionScreening.builder().prescriptionId(prescriptionId).build());
+        screening.setStatus(ScreeningStatus.PENDING);
+        screening.setDrugs(null);
+        screening.setFindingsJson(null);
+        screening.setFindingCount(null);
+        screening.setAttempts(0);
+        screening.setLastError(null);
+        screening.setRequestedAt(now);
+        screening.setNextAttemptAt(now);
+        screening.setScreenedAt(null);
+        screeningRepository.save(screening);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(prescriptionId);
+                }
+            });
+        } else {
+            enqueue(prescriptionId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InteractionScreeningResponse getScreening(Long prescriptionId) {
+        return screeningRepository.findById(prescriptionId)
+                .map(this::mapToResponse)
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, InteractionScreeningResponse> getScreenings(Collection<Long> prescriptionIds) {
+        return screeningRepository.findAllById(prescriptionIds).stream()
+                .collect(Collectors.toMap(InteractionScreening::getPrescriptionId, this::mapToResponse));
+    }
+
+    @Override
+    @Transactional
+    public void deleteScreening(Long prescriptionId) {
+        screeningRepository.deleteByPrescriptionId(prescriptionId);
+    }
+
+    /**
+     * Re-queues PENDING rows whose offer was dropped, that are due for a retry, or
+     * that were left behind by a restart. Only fills the free queue capacity.
+     */
+    @Scheduled(fixedDelayString = "${app.screening.sweep-interval-ms:5000}",
+            initialDelayString = "${app.screening.sweep-initial-delay-ms:10000}")
+    public void sweep() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<InteractionScreening> due = screeningRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                ScreeningStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, capacity));
+        for (InteractionScreening screening : due) {
+            Long id = screening.getPrescriptionId();
+            if (inFlight.contains(id) || !queued.add(id)) {
+                continue;
+            }
+            if (!queue.offer(id)) {
+                queued.remove(id);
+                break;
+            }
+        }
+    }
+
+    private void enqueue(Long prescriptionId) {
+        if (!queued.add(prescriptionId)) {
+            return;
+        }
+        if (!queue.offer(prescriptionId)) {
+            queued.remove(prescriptionId);
+            overflowCounter.increment();
+        }
+    }
+
+    private void runWorker() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Linger briefly so IDs from concurrent saves share one round of lookups
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Long next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // Dequeued IDs may be requested again while this batch runs
+                queued.removeAll(batch);
+                inFlight.addAll(batch);
+                screenBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // Rows stay PENDING and are picked up again by the sweeper
+                log.warn("Interaction screening batch failed: {}", ex.getMessage());
+            } finally {
+                inFlight.removeAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void screenBatch(List<Long> ids) {
+        List<InteractionScreening> screenings = screeningRepository.findAllById(ids).stream()
+                .filter(screening -> screening.getStatus() == ScreeningStatus.PENDING)
+                .collect(Collectors.toList());
+        if (screenings.isEmpty()) {
+            return;
+        }
+        Map<Long, Prescription> prescriptions = prescriptionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Prescription::getId, Function.identity()));
+
+        Map<Long, List<String>> drugsByPrescription = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        for (InteractionScreening screening : screenings) {
+            Prescription prescription = prescriptions.get(screening.getPrescriptionId());
+            List<String> drugs = MedicineNameExtractor.extract(prescription == null ? null : prescription.getMedicines());
+            drugsByPrescription.put(screening.getPrescriptionId(), drugs);
+            if (drugs.size() > 1) {
+                names.addAll(drugs);
+            }
+        }
+
+        // One lookup per distinct name and rxcui across the whole batch
+        Map<String, String> rxcuiByName = new HashMap<>();
+        Map<String, String> failures = new HashMap<>();
+        for (String name : names) {
+            try {
+                drugInteractionService.resolveRxcui(name).ifPresent(rxcui -> rxcuiByName.put(name, rxcui));
+            } catch (RuntimeException ex) {
+                failures.put(name, ex.getMessage());
+            }
+        }
+        Map<String, DrugInteractionResponse> interactionsByRxcui = new HashMap<>();
+        for (String rxcui : new HashSet<>(rxcuiByName.values())) {
+            try {
+                interactionsByRxcui.put(rxcui, drugInteractionService.getDrugInteraction(rxcui).getData());
+            } catch (RuntimeException ex) {
+                failures.put(rxcui, ex.getMessage());
+            }
+        }
+
+        for (InteractionScreening screening : screenings) {
+            List<String> drugs = drugsByPrescription.get(screening.getPrescriptionId());
+            Optional<String> error = drugs.stream()
+                    .flatMap(name -> Stream.of(name, rxcuiByName.get(name)))
+                    .filter(Objects::nonNull)
+                    .map(failures::get)
+                    .filter(Objects::nonNull)
+                    .findFirst();
+            try {
+                if (error.isPresent()) {
+                    scheduleRetry(screening, error.get());
+                } else {
+                    complete(screening, drugs, findInteractions(drugs, rxcuiByName, interactionsByRxcui));
+                }
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                // Re-requested after an edit while this batch ran; the newer request wins
+                log.debug("Screening of prescription {} superseded", screening.getPrescriptionId());
+            }
+        }
+    }
+
+    private List<InteractionFinding> findInteractions(List<String> drugs, Map<String, String> rxcuiByName,
+                                                      Map<String, DrugInteractionResponse> interactionsByRxcui) {
+        List<InteractionFinding> findings = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String drug : drugs) {
+            DrugInteractionResponse interactions = interactionsByRxcui.get(rxcuiByName.get(drug));
+            if (interactions == null || interactions.getGroups() == null) {
+                continue;
+            }
+            for (String other : drugs) {
+                if (other.equals(drug)) {
+                    continue;
+                }
+                String otherRxcui = rxcuiByName.get(other);
+                for (DrugInteractionGroup group : interactions.getGroups()) {
+                    for (DrugInteractionPair pair : group.getPairs()) {
+                        if (!mentions(pair, other, otherRxcui)) {
+                            continue;
+                        }
+                        // Each unordered drug pair is reported once per source
+                        String key = (drug.compareTo(other) < 0 ? drug + '|' + other : other + '|' + drug)
+                                + '|' + group.getSourceName();
+                        if (seen.add(key)) {
+                            findings.add(InteractionFinding.builder()
+                                    .drug(drug)
+                                    .interactsWith(other)
+                                    .severity(pair.getSeverity())
+                                    .description(pair.getDescription())
+                                    .source(group.getSourceName())
+                                    .build());
+                        }
+                    }
+                }
+            }
+        }
+        return findings;
+    }
+
+    private static boolean mentions(DrugInteractionPair pair, String name, String rxcui) {
+        if (rxcui != null && pair.getRxcuis() != null && pair.getRxcuis().contains(rxcui)) {
+            return true;
+        }
+        if (pair.getDrugs() == null) {
+            return false;
+        }
+        for (String drug : pair.getDrugs()) {
+            if (drug != null && drug.toLowerCase(Locale.ROOT).contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void complete(InteractionScreening screening, List<String> drugs, List<InteractionFinding> findings) {
+        LocalDateTime now = LocalDateTime.now();
+        screening.setStatus(ScreeningStatus.COMPLETED);
+        screening.setDrugs(String.join(",", drugs));
+        screening.setFindingsJson(writeFindings(findings));
+        screening.setFindingCount(findings.size());
+        screening.setAttempts(screening.getAttempts() + 1);
+        screening.setLastError(null);
+        screening.setNextAttemptAt(null);
+        screening.setScreenedAt(now);
+        screeningRepository.save(screening);
+        lagTimer.record(Duration.between(screening.getRequestedAt(), now));
+    }
+
+    private void scheduleRetry(InteractionScreening screening, String error) {
+        int attempts = screening.getAttempts() + 1;
+        screening.setAttempts(attempts);
+        screening.setLastError(truncate(error));
+        if (attempts >= maxAttempts) {
+            screening.setStatus(ScreeningStatus.FAILED);
+            screening.setNextAttemptAt(null);
+            failedCounter.increment();
+        } else {
+            long backoff = retryBackoffMs << Math.min(attempts - 1, 10);
+            screening.setNextAttemptAt(LocalDateTime.now().plus(backoff, ChronoUnit.MILLIS));
+            retryCounter.increment();
+        }
+        screeningRepository.save(screening);
+    }
+
+    private String writeFindings(List<InteractionFinding> findings) {
+        try {
+            return objectMapper.writeValueAsString(findings);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize screening findings", ex);
+        }
+    }
+
+    private InteractionScreeningResponse mapToResponse(InteractionScreening screening) {
+        List<InteractionFinding> findings = null;
+        if (screening.getFindingsJson() != null) {
+            try {
+                findings = objectMapper.readValue(screening.getFindingsJson(), new TypeReference<List<InteractionFinding>>() {
+                });
+            } catch (JsonProcessingException ex) {
+                log.warn("Unreadable screening findings for prescription {}", screening.getPrescriptionId());
+            }
+        }
+        return InteractionScreeningResponse.builder()
+                .status(screening.getStatus())
+                .drugs(screening.getDrugs() == null || screening.getDrugs().isEmpty()
+                        ? List.of() : Arrays.asList(screening.getDrugs().split(",")))
+                .findings(findings)
+                .attempts(screening.getAttempts())
+                .lastError(screening.getLastError())
+                .requestedAt(screening.getRequestedAt())
+                .screenedAt(screening.getScreenedAt())
+                .build();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
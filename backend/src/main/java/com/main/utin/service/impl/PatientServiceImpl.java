@@ -0,0 +1,148 @@
+package com.main.utin.service.impl;
+
+import com.main.utin.dto.PatientResponse;
+import com.main.utin.entity.Patient;
+import com.main.utin.entity.Prescription;
+import com.main.utin.exception.ResourceNotFoundException;
+import com.main.utin.repository.PatientRepository;
+import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.service.PatientService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+public class PatientServiceImpl implements PatientService {
+
+    /** Birth years derived from age are only accurate to +/- 1 year */
+    private static final int BIRTH_YEAR_TOLERANCE = 1;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Find-then-insert guarded by the unique identity key: the insert runs in its
+     * own transaction, so when a concurrent request creates the same patient first
+     * the collision is caught and the winner's row is used instead of a duplicate.
+     */
+    @Override
+    @Transactional
+    public Patient resolvePatient(String name, Integer age, String gender, LocalDate onDate) {
+        String normalizedName = normalizeName(name);
+        Integer birthYear = birthYear(age, onDate);
+        int minBirthYear = birthYear == null ? Integer.MIN_VALUE : birthYear - BIRTH_YEAR_TOLERANCE;
+        int maxBirthYear = birthYear == null ? Integer.MAX_VALUE : birthYear + BIRTH_YEAR_TOLERANCE;
+
+        Optional<Patient> existing = patientRepository
+                .findFirstByNormalizedNameAndGenderAndBirthYearBetweenOrderByIdAsc(normalizedName, gender, minBirthYear, maxBirthYear);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        TransactionTemplate insert = new TransactionTemplate(transactionManager);
+        insert.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            Long id = insert.execute(status -> patientRepository.save(Patient.builder()
+                    .name(name.trim())
+                    .normalizedName(normalizedName)
+                    .gender(gender)
+                    .birthYear(birthYear)
+                    .build()).getId());
+            // A reference managed by this transaction rather than the other one's detached instance
+            return patientRepository.getReferenceById(id);
+        } catch (DataIntegrityViolationException ex) {
+            // Lost the race to a concurrent resolve of the same identity; its row is committed by now
+            return patientRepository
+                    .findFirstByNormalizedNameAndGenderAndBirthYearBetweenOrderByIdAsc(normalizedName, gender, minBirthYear, maxBirthYear)
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Patient getPatientEntity(Long id) {
+        return patientRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientResponse getPatientById(Long id) {
+        return mapToResponse(getPatientEntity(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PatientResponse> searchPatients(String namePrefix, int limit) {
+        return patientRepository
+                .findByNormalizedNameStartingWithOrderByNormalizedNameAscIdAsc(
+                        normalizeName(namePrefix), PageRequest.of(0, Math.max(1, Math.min(limit, 100)))).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public long backfillBatch(long afterId, int batchSize) {
+        List<Prescription> prescriptions = prescriptionRepository.findWithoutPatientAfter(afterId, PageRequest.of(0, batchSize));
+        if (prescriptions.isEmpty()) {
+            return -1;
+        }
+
+        // Resolve each distinct identity once per batch, then link with one bulk update per patient
+        Map<String, Patient> resolved = new HashMap<>();
+        Map<Long, List<Long>> idsByPatient = new HashMap<>();
+        for (Prescription prescription : prescriptions) {
+            String key = normalizeName(prescription.getPatientName()) + '|' + prescription.getPatientGender()
+                    + '|' + birthYear(prescription.getPatientAge(), prescription.getPrescriptionDate());
+            Patient patient = resolved.computeIfAbsent(key, k -> resolvePatient(
+                    prescription.getPatientName(), prescription.getPatientAge(),
+                    prescription.getPatientGender(), prescription.getPrescriptionDate()));
+            idsByPatient.computeIfAbsent(patient.getId(), id -> new ArrayList<>()).add(prescription.getId());
+        }
+        idsByPatient.forEach((patientId, ids) ->
+                prescriptionRepository.assignPatient(ids, patientRepository.getReferenceById(patientId)));
+
+        return prescriptions.get(prescriptions.size() - 1).getId();
+    }
+
+    static String normalizeName(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Integer birthYear(Integer age, LocalDate onDate) {
+        if (age == null || onDate == null) {
+            return null;
+        }
+        return onDate.getYear() - age;
+    }
+
+    private PatientResponse mapToResponse(Patient patient) {
+        return PatientResponse.builder()
+                .id(patient.getId())
+                .name(patient.getName())
+                .gender(patient.getGender())
+                .birthYear(patient.getBirthYear())
+                .createdAt(patient.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.main.utin.service.impl;
+
+import com.main.utin.dto.PrescriptionRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Content hash of a prescription: SHA-256 over the creating user, the patient (the
+ * chosen patient ID, or the normalized name, age and gender it is resolved from), the
+ * prescription and next visit dates and the diagnosis and medicines with case and
+ * whitespace normalized. Two submissions of the same form by the same user hash alike
+ * even when retyped with different spacing or capitalization; anything that would be
+ * stored differently, or another user's identical entry, does not.
+ */
+final class PrescriptionContentHash {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private PrescriptionContentHash() {
+    }
+
+    static String of(PrescriptionRequest request, Long createdById) {
+        String content = String.valueOf(createdById) + SEPARATOR
+                + String.valueOf(request.getPatientId()) + SEPARATOR
+                + PatientServiceImpl.normalizeName(request.getPatientName()) + SEPARATOR
+                + request.getPatientAge() + SEPARATOR
+                + request.getPatientGender() + SEPARATOR
+                + request.getPrescriptionDate() + SEPARATOR
+                + request.getNextVisitDate() + SEPARATOR
+                + normalizeText(request.getDiagnosis()) + SEPARATOR
+                + normalizeText(request.getMedicines());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static String normalizeText(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
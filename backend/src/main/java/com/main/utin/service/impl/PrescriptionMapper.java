@@ -0,0 +1,35 @@
+package com.main.utin.service.impl;
+
+import com.main.utin.dto.PrescriptionResponse;
+import com.main.utin.entity.Prescription;
+
+/**
+ * Entity to response mapping shared by the service and warm-up. Pure mapping over an
+ * entity the caller already holds: loading it, and auditing the access, stay with the caller.
+ */
+public final class PrescriptionMapper {
+
+    private PrescriptionMapper() {
+    }
+
+    /**
+     * Response without the interaction screening; needs the creator loaded
+     */
+    public static PrescriptionResponse toResponse(Prescription prescription) {
+        return PrescriptionResponse.builder()
+                .id(prescription.getId())
+                .patientId(prescription.getPatient() != null ? prescription.getPatient().getId() : null)
+                .prescriptionDate(prescription.getPrescriptionDate())
+                .patientName(prescription.getPatientName())
+                .patientAge(prescription.getPatientAge())
+                .patientGender(prescription.getPatientGender())
+                .diagnosis(prescription.getDiagnosis())
+                .medicines(prescription.getMedicines())
+                .nextVisitDate(prescription.getNextVisitDate())
+                .createdByUsername(prescription.getCreatedBy().getUsername())
+                .createdByFullName(prescription.getCreatedBy().getFullName())
+                .createdAt(prescription.getCreatedAt())
+                .updatedAt(prescription.getUpdatedAt())
+                .build();
+    }
+}
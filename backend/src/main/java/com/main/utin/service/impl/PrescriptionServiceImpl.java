@@ -1,38 +1,215 @@
 package com.main.utin.service.impl;
 
+import com.main.utin.analytics.PrescriptionColumnStore;
+import com.main.utin.dto.DashboardSummaryResponse;
 import com.main.utin.dto.DayWiseCountResponse;
+import com.main.utin.dto.InteractionScreeningResponse;
+import com.main.utin.dto.PatientResponse;
+import com.main.utin.dto.PatientTimelineResponse;
+import com.main.utin.dto.PrescriptionBatchResponse;
+import com.main.utin.dto.PrescriptionCreateResult;
+import com.main.utin.dto.PrescriptionFilter;
 import com.main.utin.dto.PrescriptionRequest;
 import com.main.utin.dto.PrescriptionResponse;
+import com.main.utin.dto.PrescriptionSortKey;
+import com.main.utin.dto.PrescriptionSummaryResponse;
+import com.main.utin.dto.PrescriptionSyncResponse;
+import com.main.utin.entity.AuditAction;
+import com.main.utin.entity.IdempotencyRecord;
+import com.main.utin.entity.OutboxEventType;
+import com.main.utin.entity.Patient;
 import com.main.utin.entity.Prescription;
+import com.main.utin.entity.PrescriptionTombstone;
 import com.main.utin.entity.User;
+import com.main.utin.exception.BusinessException;
+import com.main.utin.exception.ConflictException;
 import com.main.utin.exception.ResourceNotFoundException;
+import com.main.utin.outbox.CacheInvalidationEvent;
+import com.main.utin.outbox.OutboxWriter;
+import com.main.utin.repository.IdempotencyRecordRepository;
 import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.repository.PrescriptionSpecifications;
+import com.main.utin.repository.PrescriptionTombstoneRepository;
+import com.main.utin.service.AuditService;
 import com.main.utin.service.AuthService;
+import com.main.utin.service.InteractionScreeningService;
+import com.main.utin.service.PatientService;
 import com.main.utin.service.PrescriptionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PrescriptionServiceImpl implements PrescriptionService {
 
+    private static final int SUMMARY_TEXT_LENGTH = 120;
+    private static final Set<String> VALID_GENDERS = Set.of("MALE", "FEMALE", "OTHER");
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    private static final int CONTENT_LOCK_STRIPES = 64;
+    /** Watermark used when a client syncs from scratch */
+    private static final LocalDateTime SYNC_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /** What a create does when an identical prescription was created within the window */
+    enum DuplicatePolicy {
+        RETURN_EXISTING,
+        REJECT
+    }
+
     @Autowired
     private PrescriptionRepository prescriptionRepository;
 
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private InteractionScreeningService interactionScreeningService;
+
+    @Autowired
+    private PrescriptionColumnStore columnStore;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private PrescriptionTombstoneRepository tombstoneRepository;
+
+    @Value("${prescription.dashboard.cache-ttl-ms:5000}")
+    private long dashboardCacheTtlMs;
+
+    @Value("${prescription.dashboard.max-recent:20}")
+    private int dashboardMaxRecent;
+
+    @Value("${prescription.follow-up.max-limit:500}")
+    private int followUpMaxLimit;
+
+    @Value("${prescription.timeline.max-page-size:100}")
+    private int timelineMaxPageSize;
+
+    @Value("${prescription.list.default-limit:100}")
+    private int listDefaultLimit;
+
+    @Value("${prescription.list.max-limit:500}")
+    private int listMaxLimit;
+
+    @Value("${prescription.batch.max-ids:1000}")
+    private int batchMaxIds;
+
+    @Value("${prescription.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${prescription.dedup.enabled:true}")
+    private boolean dedupEnabled;
+
+    @Value("${prescription.dedup.window-seconds:600}")
+    private long dedupWindowSeconds;
+
+    @Value("${prescription.dedup.policy:RETURN_EXISTING}")
+    private DuplicatePolicy dedupPolicy;
+
+    @Value("${prescription.idempotency.retention-hours:24}")
+    private long idempotencyRetentionHours;
+
+    @Value("${prescription.sync.max-page-size:500}")
+    private int syncMaxPageSize;
+
+    @Value("${prescription.sync.settle-ms:5000}")
+    private long syncSettleMs;
+
+    @Value("${prescription.sync.tombstone-retention-days:90}")
+    private long tombstoneRetentionDays;
+
+    /**
+     * Serializes concurrent creates of the same content on this node until commit, so a
+     * double click sees the first row instead of racing it
+     */
+    private final ReentrantLock[] contentLocks = new ReentrantLock[CONTENT_LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < contentLocks.length; i++) {
+            contentLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Last computed dashboard summary; shared by all callers until it expires
+     */
+    private volatile CachedDashboard cachedDashboard;
+
+    /**
+     * Bumped by every invalidation; a summary computed under an older generation is never served
+     */
+    private final AtomicLong dashboardGeneration = new AtomicLong();
+
     @Override
     @Transactional
-    public PrescriptionResponse createPrescription(PrescriptionRequest request) {
+    public PrescriptionCreateResult createPrescription(PrescriptionRequest request, String idempotencyKey) {
+        String key = blankToNull(idempotencyKey);
+        if (key != null && key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must not exceed " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
         User currentUser = authService.getCurrentUser();
+        String contentHash = PrescriptionContentHash.of(request, currentUser.getId());
+        lockContentUntilCompletion(contentHash);
+
+        if (key != null) {
+            Optional<IdempotencyRecord> previous =
+                    idempotencyRecordRepository.findByUsernameAndIdempotencyKey(currentUser.getUsername(), key);
+            if (previous.isPresent()) {
+                return replay(previous.get(), contentHash);
+            }
+        }
+        if (dedupEnabled) {
+            Optional<Prescription> duplicate = prescriptionRepository.findFirstByContentHashAndCreatedAtAfterOrderByIdDesc(
+                    contentHash, LocalDateTime.now().minusSeconds(dedupWindowSeconds));
+            if (duplicate.isPresent()) {
+                Prescription existing = duplicate.get();
+                if (dedupPolicy == DuplicatePolicy.REJECT) {
+                    throw new ConflictException("An identical prescription (id " + existing.getId()
+                            + ") was created at " + existing.getCreatedAt());
+                }
+                rememberIdempotencyKey(key, currentUser, contentHash, existing.getId());
+                auditService.record(AuditAction.VIEW, existing.getId(), "duplicate create");
+                return new PrescriptionCreateResult(withScreening(mapToResponse(existing)), false);
+            }
+        }
 
         Prescription prescription = Prescription.builder()
+                .patient(resolvePatient(request))
                 .prescriptionDate(request.getPrescriptionDate())
                 .patientName(request.getPatientName())
                 .patientAge(request.getPatientAge())
@@ -40,11 +217,18 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 .diagnosis(request.getDiagnosis())
                 .medicines(request.getMedicines())
                 .nextVisitDate(request.getNextVisitDate())
+                .contentHash(contentHash)
                 .createdBy(currentUser)
                 .build();
 
         Prescription savedPrescription = prescriptionRepository.save(prescription);
-        return mapToResponse(savedPrescription);
+        rememberIdempotencyKey(key, currentUser, contentHash, savedPrescription.getId());
+        outboxWriter.append(OutboxEventType.PRESCRIPTION_CHANGED, savedPrescription.getId());
+        invalidateDashboardAfterCommit();
+        columnStore.upsertAfterCommit(savedPrescription);
+        auditService.recordAfterCommit(AuditAction.CREATE, savedPrescription.getId(), null);
+        interactionScreeningService.requestScreening(savedPrescription.getId());
+        return new PrescriptionCreateResult(withScreening(mapToResponse(savedPrescription)), true);
     }
 
     @Override
@@ -52,7 +236,54 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     public PrescriptionResponse getPrescriptionById(Long id) {
         Prescription prescription = prescriptionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Prescription not found with id: " + id));
-        return mapToResponse(prescription);
+        auditService.record(AuditAction.VIEW, id, null);
+        return withScreening(mapToResponse(prescription));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PrescriptionBatchResponse getPrescriptionsByIds(List<Long> ids) {
+        List<Long> requested = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (requested.size() > batchMaxIds) {
+            throw new BusinessException("At most " + batchMaxIds + " prescription IDs can be requested at once");
+        }
+
+        // Chunked IN queries keep the statement and its plan cache entry bounded
+        Map<Long, Prescription> found = new HashMap<>(requested.size() * 2);
+        for (int from = 0; from < requested.size(); from += batchChunkSize) {
+            List<Long> chunk = requested.subList(from, Math.min(from + batchChunkSize, requested.size()));
+            for (Prescription prescription : prescriptionRepository.findAllWithCreatorByIdIn(chunk)) {
+                found.put(prescription.getId(), prescription);
+            }
+        }
+
+        Map<Long, InteractionScreeningResponse> screenings = new HashMap<>(found.size() * 2);
+        List<Long> foundIds = new ArrayList<>(found.keySet());
+        for (int from = 0; from < foundIds.size(); from += batchChunkSize) {
+            screenings.putAll(interactionScreeningService.getScreenings(
+                    foundIds.subList(from, Math.min(from + batchChunkSize, foundIds.size()))));
+        }
+
+        List<PrescriptionResponse> prescriptions = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            Prescription prescription = found.get(id);
+            if (prescription != null) {
+                auditService.record(AuditAction.VIEW, id, "batch");
+                PrescriptionResponse response = mapToResponse(prescription);
+                response.setInteractionScreening(screenings.get(id));
+                prescriptions.add(response);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return PrescriptionBatchResponse.builder()
+                .prescriptions(prescriptions)
+                .missingIds(missingIds)
+                .build();
     }
 
     @Override
@@ -65,10 +296,64 @@ public class PrescriptionServiceImpl implements PrescriptionService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<PrescriptionResponse> getPrescriptionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return prescriptionRepository.findByDateRange(startDate, endDate).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public List<PrescriptionResponse> searchPrescriptions(PrescriptionFilter filter) {
+        if (filter.getEndDate().isBefore(filter.getStartDate())) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        if (filter.getGender() != null && !VALID_GENDERS.contains(filter.getGender())) {
+            throw new BusinessException("Gender must be MALE, FEMALE, or OTHER");
+        }
+        if (filter.getMinAge() != null && filter.getMaxAge() != null && filter.getMinAge() > filter.getMaxAge()) {
+            throw new BusinessException("Minimum age must not exceed maximum age");
+        }
+
+        List<Specification<Prescription>> specs = new ArrayList<>();
+        specs.add(PrescriptionSpecifications.dateBetween(filter.getStartDate(), filter.getEndDate()));
+        specs.add(PrescriptionSpecifications.withCreator(blankToNull(filter.getDoctor())));
+        if (filter.getGender() != null) {
+            specs.add(PrescriptionSpecifications.genderIs(filter.getGender()));
+        }
+        if (filter.getMinAge() != null) {
+            specs.add(PrescriptionSpecifications.ageAtLeast(filter.getMinAge()));
+        }
+        if (filter.getMaxAge() != null) {
+            specs.add(PrescriptionSpecifications.ageAtMost(filter.getMaxAge()));
+        }
+        String namePrefix = PatientServiceImpl.normalizeName(filter.getNamePrefix());
+        if (!namePrefix.isEmpty()) {
+            specs.add(PrescriptionSpecifications.patientNameStartsWith(namePrefix));
+        }
+
+        PrescriptionSortKey sortKey = filter.getSort() == null ? PrescriptionSortKey.DATE : filter.getSort();
+        Sort.Direction direction = filter.getDirection() == null ? Sort.Direction.DESC : filter.getDirection();
+        // ID as tie-breaker keeps the order stable between identical requests
+        Sort sort = Sort.by(direction, sortKey.getProperty()).and(Sort.by(direction, "id"));
+        int limit = Math.max(1, Math.min(filter.getLimit() == null ? listDefaultLimit : filter.getLimit(), listMaxLimit));
+
+        String search = filter.getSearch() == null ? "" : filter.getSearch().trim().toLowerCase(Locale.ROOT);
+        List<PrescriptionResponse> prescriptions;
+        if (search.isEmpty()) {
+            prescriptions = prescriptionRepository
+                    .findBy(Specification.allOf(specs), query -> query.sortBy(sort).limit(limit).all()).stream()
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+        } else {
+            // Long diagnoses are stored compressed, so the text search runs here on the rows the other filters select
+            try (Stream<Prescription> candidates = prescriptionRepository
+                    .findBy(Specification.allOf(specs), query -> query.sortBy(sort).stream())) {
+                prescriptions = candidates
+                        .filter(prescription -> contains(prescription.getPatientName(), search)
+                                || contains(prescription.getDiagnosis(), search))
+                        .limit(limit)
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList());
+            }
+        }
+        String details = "search " + filter.getStartDate() + ".." + filter.getEndDate();
+        for (PrescriptionResponse prescription : prescriptions) {
+            auditService.record(AuditAction.VIEW, prescription.getId(), details);
+        }
+        return prescriptions;
     }
 
     @Override
@@ -77,16 +362,30 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         Prescription prescription = prescriptionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Prescription not found with id: " + id));
 
+        prescription.setPatient(resolvePatient(request));
         prescription.setPrescriptionDate(request.getPrescriptionDate());
         prescription.setPatientName(request.getPatientName());
         prescription.setPatientAge(request.getPatientAge());
         prescription.setPatientGender(request.getPatientGender());
         prescription.setDiagnosis(request.getDiagnosis());
+        prescription.setContentHash(PrescriptionContentHash.of(request, prescription.getCreatedBy().getId()));
+        boolean medicinesChanged = !Objects.equals(prescription.getMedicines(), request.getMedicines());
         prescription.setMedicines(request.getMedicines());
+        if (!Objects.equals(prescription.getNextVisitDate(), request.getNextVisitDate())) {
+            prescription.setReminderMarkedAt(null);
+        }
         prescription.setNextVisitDate(request.getNextVisitDate());
 
         Prescription updatedPrescription = prescriptionRepository.save(prescription);
-        return mapToResponse(updatedPrescription);
+        outboxWriter.append(OutboxEventType.PRESCRIPTION_CHANGED, updatedPrescription.getId());
+        invalidateDashboardAfterCommit();
+        columnStore.upsertAfterCommit(updatedPrescription);
+        auditService.recordAfterCommit(AuditAction.UPDATE, updatedPrescription.getId(),
+                medicinesChanged ? "medicines changed" : null);
+        if (medicinesChanged) {
+            interactionScreeningService.requestScreening(updatedPrescription.getId());
+        }
+        return withScreening(mapToResponse(updatedPrescription));
     }
 
     @Override
@@ -95,7 +394,13 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         if (!prescriptionRepository.existsById(id)) {
             throw new ResourceNotFoundException("Prescription not found with id: " + id);
         }
+        interactionScreeningService.deleteScreening(id);
         prescriptionRepository.deleteById(id);
+        tombstoneRepository.save(PrescriptionTombstone.builder().prescriptionId(id).build());
+        outboxWriter.append(OutboxEventType.PRESCRIPTION_CHANGED, id);
+        invalidateDashboardAfterCommit();
+        columnStore.removeAfterCommit(id);
+        auditService.recordAfterCommit(AuditAction.DELETE, id, null);
     }
 
     @Override
@@ -112,21 +417,304 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 .collect(Collectors.toList());
     }
 
-    private PrescriptionResponse mapToResponse(Prescription prescription) {
-        return PrescriptionResponse.builder()
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardSummaryResponse getDashboardSummary(int recentLimit, int followUpDays) {
+        int limit = Math.max(1, Math.min(recentLimit, dashboardMaxRecent));
+        int days = Math.max(0, followUpDays);
+        LocalDate today = LocalDate.now();
+
+        long generation = dashboardGeneration.get();
+        CachedDashboard cached = cachedDashboard;
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.matches(generation, today, limit, days) && now < cached.expiresAt()) {
+            return cached.summary();
+        }
+
+        YearMonth currentMonth = YearMonth.from(today);
+        LocalDate monthStart = currentMonth.atDay(1);
+        LocalDate monthEnd = currentMonth.atEndOfMonth();
+
+        List<PrescriptionSummaryResponse> recent = prescriptionRepository
+                .findRecentInRange(monthStart, monthEnd, PageRequest.of(0, limit)).stream()
+                .map(this::mapToSummary)
+                .collect(Collectors.toList());
+
+        DashboardSummaryResponse summary = DashboardSummaryResponse.builder()
+                .monthStart(monthStart)
+                .monthEnd(monthEnd)
+                .monthTotal(prescriptionRepository.countByPrescriptionDateBetween(monthStart, monthEnd))
+                .todayCount(prescriptionRepository.countByPrescriptionDate(today))
+                .upcomingFollowUps(prescriptionRepository.countByNextVisitDateBetween(today, today.plusDays(days)))
+                .followUpDays(days)
+                .recentPrescriptions(recent)
+                .build();
+
+        // Skipped when invalidated meanwhile: the counts may predate the change that invalidated them
+        if (dashboardCacheTtlMs > 0 && dashboardGeneration.get() == generation) {
+            cachedDashboard = new CachedDashboard(generation, today, limit, days, now + dashboardCacheTtlMs, summary);
+        }
+        return summary;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PrescriptionSummaryResponse> getFollowUpsDue(int days, int limit) {
+        LocalDate today = LocalDate.now();
+        int pageSize = Math.max(1, Math.min(limit, followUpMaxLimit));
+        return prescriptionRepository
+                .findByNextVisitDateBetweenOrderByNextVisitDateAscIdAsc(
+                        today, today.plusDays(Math.max(0, days)), PageRequest.of(0, pageSize)).stream()
+                .map(this::mapToSummary)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientTimelineResponse getPatientTimeline(Long patientId, LocalDate beforeDate, Long beforeId, int size) {
+        PatientResponse patient = patientService.getPatientById(patientId);
+        int pageSize = Math.max(1, Math.min(size, timelineMaxPageSize));
+        // Fetch one extra row to know whether an older page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Prescription> rows = beforeDate == null || beforeId == null
+                ? prescriptionRepository.findPatientTimeline(patientId, page)
+                : prescriptionRepository.findPatientTimelineBefore(patientId, beforeDate, beforeId, page);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Prescription> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        Prescription last = hasMore ? pageRows.get(pageRows.size() - 1) : null;
+        for (Prescription prescription : pageRows) {
+            auditService.record(AuditAction.VIEW, prescription.getId(), "patient " + patientId + " timeline");
+        }
+
+        return PatientTimelineResponse.builder()
+                .patient(patient)
+                .prescriptions(pageRows.stream().map(this::mapToSummary).collect(Collectors.toList()))
+                .nextBeforeDate(last == null ? null : last.getPrescriptionDate())
+                .nextBeforeId(last == null ? null : last.getId())
+                .build();
+    }
+
+    @Override
+    // On the primary: a replica lagging by more than the settle window would skip changes for good
+    @Transactional
+    public PrescriptionSyncResponse getChangesSince(LocalDateTime since, Long sinceId, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        // Caught-up watermarks carry ID 0 and the time they were issued; one older than the
+        // tombstone retention may have missed deletes. Watermarks in the middle of a pass carry
+        // a row's own time, which can be old without any delete being lost.
+        boolean caughtUp = sinceId == null || sinceId == 0;
+        if (since != null && caughtUp && since.isBefore(now.minusDays(tombstoneRetentionDays))) {
+            throw new ConflictException("Sync watermark is older than the retained delete history; sync again without a watermark");
+        }
+        int pageSize = Math.max(1, Math.min(size, syncMaxPageSize));
+        // A transaction still running may commit a change stamped before changes already visible;
+        // leaving the last few seconds to the next sync keeps it from landing behind the watermark
+        LocalDateTime horizon = now.minusNanos(syncSettleMs * 1_000_000);
+        LocalDateTime from = since == null ? SYNC_START : since;
+        long fromId = since == null || sinceId == null ? 0 : sinceId;
+
+        // One extra row per source tells whether more remain
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Prescription> changed = prescriptionRepository.findChangedAfter(from, fromId, horizon, page);
+        // A client syncing from scratch has nothing to delete
+        List<PrescriptionTombstone> deleted = since == null
+                ? List.of()
+                : tombstoneRepository.findDeletedAfter(from, fromId, horizon, page);
+
+        // Merge both streams in (time, id) order up to the page size
+        List<PrescriptionResponse> prescriptions = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        LocalDateTime lastAt = from;
+        long lastId = fromId;
+        int c = 0;
+        int d = 0;
+        while (c + d < pageSize && (c < changed.size() || d < deleted.size())) {
+            Prescription change = c < changed.size() ? changed.get(c) : null;
+            PrescriptionTombstone tombstone = d < deleted.size() ? deleted.get(d) : null;
+            if (tombstone == null || (change != null && isBefore(change.getUpdatedAt(), change.getId(),
+                    tombstone.getDeletedAt(), tombstone.getPrescriptionId()))) {
+                prescriptions.add(mapToResponse(change));
+                lastAt = change.getUpdatedAt();
+                lastId = change.getId();
+                c++;
+            } else {
+                deletedIds.add(tombstone.getPrescriptionId());
+                lastAt = tombstone.getDeletedAt();
+                lastId = tombstone.getPrescriptionId();
+                d++;
+            }
+        }
+        boolean hasMore = changed.size() + deleted.size() > pageSize;
+        if (!hasMore && from.isBefore(horizon)) {
+            // Everything before the horizon was read; moving the watermark there keeps it recent
+            // for clients with nothing to sync, so only clients that stop syncing outlive the tombstones
+            lastAt = horizon;
+            lastId = 0;
+        }
+        for (PrescriptionResponse prescription : prescriptions) {
+            auditService.record(AuditAction.VIEW, prescription.getId(), "sync");
+        }
+
+        return PrescriptionSyncResponse.builder()
+                .prescriptions(prescriptions)
+                .deletedIds(deletedIds)
+                .nextSince(lastAt)
+                .nextSinceId(lastId)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Drop tombstones past their retention; clients with older watermarks must sync from scratch
+     */
+    @Scheduled(fixedDelayString = "${prescription.sync.purge-interval-ms:3600000}",
+            initialDelayString = "${prescription.sync.purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        tombstoneRepository.deleteDeletedBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+    }
+
+    /**
+     * Prescriptions changed on another node; the cached dashboard may count them
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.type() == OutboxEventType.PRESCRIPTION_CHANGED) {
+            invalidateDashboard();
+        }
+    }
+
+    /**
+     * Drop idempotency keys past their retention; a retry that late creates a new prescription
+     */
+    @Scheduled(fixedDelayString = "${prescription.idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${prescription.idempotency.purge-interval-ms:3600000}")
+    public void purgeIdempotencyKeys() {
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(idempotencyRetentionHours));
+    }
+
+    private PrescriptionCreateResult replay(IdempotencyRecord previous, String contentHash) {
+        if (!previous.getRequestHash().equals(contentHash)) {
+            throw new BusinessException("Idempotency-Key was already used for a different prescription");
+        }
+        Prescription existing = prescriptionRepository.findById(previous.getPrescriptionId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Prescription created with this Idempotency-Key no longer exists: " + previous.getPrescriptionId()));
+        auditService.record(AuditAction.VIEW, existing.getId(), "idempotent replay");
+        return new PrescriptionCreateResult(withScreening(mapToResponse(existing)), false);
+    }
+
+    private void rememberIdempotencyKey(String key, User user, String contentHash, Long prescriptionId) {
+        if (key == null) {
+            return;
+        }
+        try {
+            idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .username(user.getUsername())
+                    .requestHash(contentHash)
+                    .prescriptionId(prescriptionId)
+                    .build());
+        } catch (DataIntegrityViolationException ex) {
+            // Another node is processing the same key; its transaction decides the outcome
+            throw new ConflictException("A request with this Idempotency-Key is already being processed");
+        }
+    }
+
+    private void invalidateDashboard() {
+        dashboardGeneration.incrementAndGet();
+        cachedDashboard = null;
+    }
+
+    /**
+     * Invalidate once the change is visible; invalidating before commit lets a concurrent
+     * read cache the pre-commit counts again
+     */
+    private void invalidateDashboardAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateDashboard();
+                }
+            });
+        } else {
+            invalidateDashboard();
+        }
+    }
+
+    private void lockContentUntilCompletion(String contentHash) {
+        ReentrantLock lock = contentLocks[Math.floorMod(contentHash.hashCode(), CONTENT_LOCK_STRIPES)];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private Patient resolvePatient(PrescriptionRequest request) {
+        if (request.getPatientId() != null) {
+            Patient patient = patientService.getPatientEntity(request.getPatientId());
+            if (!patient.getNormalizedName().equals(PatientServiceImpl.normalizeName(request.getPatientName()))) {
+                throw new BusinessException("Patient name does not match patient " + request.getPatientId());
+            }
+            return patient;
+        }
+        return patientService.resolvePatient(request.getPatientName(), request.getPatientAge(),
+                request.getPatientGender(), request.getPrescriptionDate());
+    }
+
+    private PrescriptionSummaryResponse mapToSummary(Prescription prescription) {
+        return PrescriptionSummaryResponse.builder()
                 .id(prescription.getId())
                 .prescriptionDate(prescription.getPrescriptionDate())
                 .patientName(prescription.getPatientName())
                 .patientAge(prescription.getPatientAge())
                 .patientGender(prescription.getPatientGender())
-                .diagnosis(prescription.getDiagnosis())
-                .medicines(prescription.getMedicines())
+                .diagnosis(abbreviate(prescription.getDiagnosis()))
                 .nextVisitDate(prescription.getNextVisitDate())
-                .createdByUsername(prescription.getCreatedBy().getUsername())
-                .createdByFullName(prescription.getCreatedBy().getFullName())
-                .createdAt(prescription.getCreatedAt())
-                .updatedAt(prescription.getUpdatedAt())
+                .reminderMarkedAt(prescription.getReminderMarkedAt())
                 .build();
     }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static boolean contains(String text, String lowerCaseTerm) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(lowerCaseTerm);
+    }
+
+    private static String abbreviate(String text) {
+        if (text == null || text.length() <= SUMMARY_TEXT_LENGTH) {
+            return text;
+        }
+        return text.substring(0, SUMMARY_TEXT_LENGTH) + "...";
+    }
+
+    private record CachedDashboard(long generation, LocalDate day, int recentLimit, int followUpDays, long expiresAt,
+                                   DashboardSummaryResponse summary) {
+
+        boolean matches(long generation, LocalDate day, int recentLimit, int followUpDays) {
+            return this.generation == generation && this.day.equals(day)
+                    && this.recentLimit == recentLimit && this.followUpDays == followUpDays;
+        }
+    }
+
+    private PrescriptionResponse withScreening(PrescriptionResponse response) {
+        response.setInteractionScreening(interactionScreeningService.getScreening(response.getId()));
+        return response;
+    }
+
+    private static boolean isBefore(LocalDateTime at, Long id, LocalDateTime otherAt, Long otherId) {
+        int byTime = at.compareTo(otherAt);
+        return byTime < 0 || (byTime == 0 && id <= otherId);
+    }
+
+    private PrescriptionResponse mapToResponse(Prescription prescription) {
+        return PrescriptionMapper.toResponse(prescription);
+    }
 }
 
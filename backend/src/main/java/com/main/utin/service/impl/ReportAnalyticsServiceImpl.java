@@ -0,0 +1,135 @@
+package com.main.utin.service.impl;
+
+import com.main.utin.analytics.Breakdown;
+import com.main.utin.analytics.Dimension;
+import com.main.utin.analytics.PrescriptionColumnStore;
+import com.main.utin.dto.AnalyticsStatsResponse;
+import com.main.utin.dto.BreakdownCell;
+import com.main.utin.dto.BreakdownResponse;
+import com.main.utin.entity.User;
+import com.main.utin.exception.BusinessException;
+import com.main.utin.repository.UserRepository;
+import com.main.utin.service.ReportAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-dimensional prescription counts answered from the in-memory column store
+ * instead of GROUP BY queries, so arbitrary range × dimension slices stay cheap.
+ */
+@Service
+public class ReportAnalyticsServiceImpl implements ReportAnalyticsService {
+
+    @Autowired
+    private PrescriptionColumnStore columnStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.analytics.max-range-days:7320}")
+    private int maxRangeDays;
+
+    @Override
+    public BreakdownResponse getBreakdown(LocalDate startDate, LocalDate endDate, Dimension by, Dimension thenBy) {
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new BusinessException("Date range must not exceed " + maxRangeDays + " days");
+        }
+        if (by == thenBy) {
+            throw new BusinessException("Breakdown dimensions must be different");
+        }
+        if (!columnStore.isLoaded()) {
+            throw new BusinessException("Analytics snapshot is still loading; retry shortly");
+        }
+
+        Breakdown breakdown = columnStore.aggregate(startDate, endDate, by, thenBy);
+        List<String> firstLabels = breakdown.firstLabels();
+        List<String> secondLabels = breakdown.secondLabels();
+        int stride = Math.max(1, secondLabels.size());
+        long[] counts = breakdown.counts();
+
+        // Empty cells are left out; the client fills gaps from the range if it needs them
+        List<BreakdownCell> cells = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            List<String> keys = new ArrayList<>(2);
+            keys.add(firstLabels.get(i / stride));
+            if (thenBy != null) {
+                keys.add(secondLabels.get(i % stride));
+            }
+            cells.add(BreakdownCell.builder().keys(keys).count(counts[i]).build());
+            total += counts[i];
+        }
+        if (by == Dimension.DOCTOR || thenBy == Dimension.DOCTOR) {
+            labelDoctors(cells, by == Dimension.DOCTOR ? 0 : 1);
+        }
+
+        List<Dimension> dimensions = new ArrayList<>(2);
+        dimensions.add(by);
+        if (thenBy != null) {
+            dimensions.add(thenBy);
+        }
+        return BreakdownResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .dimensions(dimensions)
+                .total(total)
+                .cells(cells)
+                .scannedRows(breakdown.scannedRows())
+                .elapsedMicros(TimeUnit.NANOSECONDS.toMicros(breakdown.elapsedNanos()))
+                .build();
+    }
+
+    @Override
+    public AnalyticsStatsResponse getStats() {
+        int rows = columnStore.getRowCount();
+        long bytes = columnStore.memoryBytes();
+        return AnalyticsStatsResponse.builder()
+                .loaded(columnStore.isLoaded())
+                .rows(rows)
+                .liveRows(columnStore.getLiveRowCount())
+                .capacity(columnStore.getCapacity())
+                .doctors(columnStore.getDoctorCount())
+                .memoryBytes(bytes)
+                .bytesPerRow(rows == 0 ? 0.0 : (double) bytes / rows)
+                .build();
+    }
+
+    /**
+     * Swap doctor user IDs for usernames in one lookup
+     */
+    private void labelDoctors(List<BreakdownCell> cells, int keyIndex) {
+        List<Long> doctorIds = new ArrayList<>();
+        for (BreakdownCell cell : cells) {
+            Long doctorId = Long.valueOf(cell.getKeys().get(keyIndex));
+            if (!doctorIds.contains(doctorId)) {
+                doctorIds.add(doctorId);
+            }
+        }
+        if (doctorIds.isEmpty()) {
+            return;
+        }
+        Map<String, String> usernames = new HashMap<>();
+        for (User user : userRepository.findAllById(doctorIds)) {
+            usernames.put(user.getId().toString(), user.getUsername());
+        }
+        for (BreakdownCell cell : cells) {
+            String id = cell.getKeys().get(keyIndex);
+            cell.getKeys().set(keyIndex, usernames.getOrDefault(id, id));
+        }
+    }
+}
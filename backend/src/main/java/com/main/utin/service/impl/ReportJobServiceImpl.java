@@ -0,0 +1,390 @@
+package com.main.utin.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.dto.DayWiseCountResponse;
+import com.main.utin.dto.ReportJobRequest;
+import com.main.utin.dto.ReportJobResponse;
+import com.main.utin.entity.ReportJob;
+import com.main.utin.entity.ReportJobStatus;
+import com.main.utin.exception.BusinessException;
+import com.main.utin.exception.ResourceNotFoundException;
+import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.repository.ReportJobRepository;
+import com.main.utin.service.ReportJobService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs day-wise reports off the request thread. A range is split into month
+ * partitions that are counted in parallel on a bounded fork-join pool, each in
+ * its own short read-only transaction, and merged in order. Completed results
+ * are stored on the job row and reused for identical ranges for a while. Jobs run
+ * in memory on the node that accepted them, so rows left pending or running by a
+ * restart are failed at startup.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobServiceImpl.class);
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.report-jobs.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.report-jobs.reuse-ttl-ms:600000}")
+    private long reuseTtlMs;
+
+    @Value("${app.report-jobs.max-months:240}")
+    private int maxMonths;
+
+    @Value("${app.report-jobs.stream-timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    private ForkJoinPool pool;
+    private TransactionTemplate readOnlyTransaction;
+    private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // Nothing is running yet, so these were interrupted by a restart or crash and will never finish
+        int orphaned = reportJobRepository.failAllWithStatusIn(
+                List.of(ReportJobStatus.PENDING, ReportJobStatus.RUNNING), "Interrupted by a restart", LocalDateTime.now());
+        if (orphaned > 0) {
+            log.warn("Failed {} report jobs left unfinished by the previous run", orphaned);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runningJobs.values().forEach(job -> job.cancelled = true);
+        pool.shutdownNow();
+    }
+
+    @Override
+    public ReportJobResponse submitJob(ReportJobRequest request) {
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        List<YearMonth> months = monthsBetween(startDate, endDate);
+        if (months.size() > maxMonths) {
+            throw new BusinessException("Report range must not exceed " + maxMonths + " months");
+        }
+
+        if (reuseTtlMs > 0) {
+            Optional<ReportJob> reusable = reportJobRepository.findFirstByStartDateAndEndDateAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+                    startDate, endDate, ReportJobStatus.COMPLETED, LocalDateTime.now().minus(reuseTtlMs, ChronoUnit.MILLIS));
+            if (reusable.isPresent()) {
+                return mapToResponse(reusable.get(), true);
+            }
+        }
+        for (RunningJob running : runningJobs.values()) {
+            if (running.startDate.equals(startDate) && running.endDate.equals(endDate) && !running.cancelled) {
+                return getJob(running.jobId);
+            }
+        }
+
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+                .id(UUID.randomUUID().toString())
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(ReportJobStatus.PENDING)
+                .partitionsTotal(months.size())
+                .createdBy(currentUsername())
+                .build());
+
+        RunningJob running = new RunningJob(job.getId(), startDate, endDate, months);
+        runningJobs.put(job.getId(), running);
+        running.future = pool.submit(() -> execute(running));
+        return mapToResponse(job, false);
+    }
+
+    @Override
+    public ReportJobResponse getJob(String jobId) {
+        return mapToResponse(findJob(jobId), true);
+    }
+
+    @Override
+    public ReportJobResponse cancelJob(String jobId) {
+        ReportJob job = findJob(jobId);
+        RunningJob running = runningJobs.get(jobId);
+        if (running == null) {
+            throw new BusinessException("Report job is not in progress: " + job.getStatus());
+        }
+        running.cancelled = true;
+        if (running.claimed.compareAndSet(false, true)) {
+            // Never started on the pool: finish it here; execute() will see the claim and return
+            if (running.future != null) {
+                running.future.cancel(false);
+            }
+            finish(running, ReportJobStatus.CANCELLED, null, null);
+        }
+        // Otherwise the running task stops at its next partition and finishes the job itself
+        return mapToResponse(findJob(jobId), false);
+    }
+
+    @Override
+    public SseEmitter streamJob(String jobId) {
+        ReportJob job = findJob(jobId);
+        SseEmitter emitter = createEmitter();
+        RunningJob running = runningJobs.get(jobId);
+        if (running != null) {
+            running.listeners.add(emitter);
+            emitter.onCompletion(() -> running.listeners.remove(emitter));
+            emitter.onTimeout(() -> running.listeners.remove(emitter));
+            running.sendProgress(emitter);
+            // The job may have finished between the lookup and the registration; finish() may
+            // still be about to send to this emitter too, and whichever side comes first delivers
+            if (!runningJobs.containsKey(jobId)) {
+                running.sendResultOnce(emitter, mapToResponse(findJob(jobId), true));
+            }
+        } else {
+            sendResult(emitter, mapToResponse(job, true));
+        }
+        return emitter;
+    }
+
+    private void execute(RunningJob running) {
+        if (!running.claimed.compareAndSet(false, true)) {
+            // Cancelled before it started; cancelJob already finished it
+            return;
+        }
+        try {
+            updateStatus(running.jobId, ReportJobStatus.RUNNING);
+            List<DayWiseCountResponse> result = new MonthPartitionTask(running, 0, running.months.size()).invoke();
+            finish(running, ReportJobStatus.COMPLETED, objectMapper.writeValueAsString(result), null);
+        } catch (CancellationException ex) {
+            finish(running, ReportJobStatus.CANCELLED, null, null);
+        } catch (Exception ex) {
+            log.warn("Report job {} failed", running.jobId, ex);
+            finish(running, ReportJobStatus.FAILED, null, truncate(ex.getMessage()));
+        }
+    }
+
+    private void updateStatus(String jobId, ReportJobStatus status) {
+        ReportJob job = findJob(jobId);
+        job.setStatus(status);
+        reportJobRepository.save(job);
+    }
+
+    private void finish(RunningJob running, ReportJobStatus status, String resultJson, String errorMessage) {
+        ReportJob job = findJob(running.jobId);
+        job.setStatus(status);
+        job.setResultJson(resultJson);
+        job.setErrorMessage(errorMessage);
+        job.setCompletedAt(LocalDateTime.now());
+        reportJobRepository.save(job);
+        runningJobs.remove(running.jobId);
+
+        ReportJobResponse response = mapToResponse(job, true);
+        for (SseEmitter emitter : running.listeners) {
+            running.sendResultOnce(emitter, response);
+        }
+    }
+
+    private List<DayWiseCountResponse> countMonth(RunningJob running, YearMonth month) {
+        LocalDate from = month.atDay(1).isBefore(running.startDate) ? running.startDate : month.atDay(1);
+        LocalDate to = month.atEndOfMonth().isAfter(running.endDate) ? running.endDate : month.atEndOfMonth();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        List<Object[]> rows = readOnlyTransaction.execute(status ->
+                prescriptionRepository.getDayWisePrescriptionCount(from, to));
+        return rows.stream()
+                .map(row -> DayWiseCountResponse.builder()
+                        .day(((LocalDate) row[0]).format(formatter))
+                        .prescriptionCount((Long) row[1])
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Splits the month list in halves until single months remain; months are
+     * disjoint and ordered, so merging is concatenation.
+     */
+    private class MonthPartitionTask extends RecursiveTask<List<DayWiseCountResponse>> {
+
+        private final RunningJob running;
+        private final int from;
+        private final int to;
+
+        MonthPartitionTask(RunningJob running, int from, int to) {
+            this.running = running;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<DayWiseCountResponse> compute() {
+            if (running.cancelled) {
+                throw new CancellationException();
+            }
+            if (to - from <= 1) {
+                List<DayWiseCountResponse> counts = countMonth(running, running.months.get(from));
+                running.partitionsDone.incrementAndGet();
+                running.listeners.forEach(running::sendProgress);
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            MonthPartitionTask left = new MonthPartitionTask(running, from, mid);
+            left.fork();
+            List<DayWiseCountResponse> right = new MonthPartitionTask(running, mid, to).compute();
+            List<DayWiseCountResponse> merged = new ArrayList<>(left.join());
+            merged.addAll(right);
+            return merged;
+        }
+    }
+
+    private static class RunningJob {
+        final String jobId;
+        final LocalDate startDate;
+        final LocalDate endDate;
+        final List<YearMonth> months;
+        final AtomicInteger partitionsDone = new AtomicInteger();
+        /** Set by whichever of execute() and cancelJob() gets the job first; only that side finishes it */
+        final AtomicBoolean claimed = new AtomicBoolean();
+        final List<SseEmitter> listeners = new CopyOnWriteArrayList<>();
+        /** Listeners that got the result; finish() and a late streamJob() may both try to send it */
+        final Set<SseEmitter> resultSent = ConcurrentHashMap.newKeySet();
+        volatile boolean cancelled;
+        volatile ForkJoinTask<?> future;
+
+        RunningJob(String jobId, LocalDate startDate, LocalDate endDate, List<YearMonth> months) {
+            this.jobId = jobId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.months = months;
+        }
+
+        void sendProgress(SseEmitter emitter) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("progress")
+                        .data(Map.of("partitionsDone", partitionsDone.get(), "partitionsTotal", months.size())));
+            } catch (IOException | IllegalStateException ex) {
+                listeners.remove(emitter);
+            }
+        }
+
+        void sendResultOnce(SseEmitter emitter, ReportJobResponse response) {
+            if (resultSent.add(emitter)) {
+                sendResult(emitter, response);
+            }
+        }
+    }
+
+    /**
+     * Separate so tests can observe what a stream receives
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(streamTimeoutMs);
+    }
+
+    private static void sendResult(SseEmitter emitter, ReportJobResponse response) {
+        try {
+            emitter.send(SseEmitter.event().name("result").data(response));
+            emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private ReportJob findJob(String jobId) {
+        return reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job not found with id: " + jobId));
+    }
+
+    private ReportJobResponse mapToResponse(ReportJob job, boolean includeResult) {
+        RunningJob running = runningJobs.get(job.getId());
+        int partitionsDone = running != null ? running.partitionsDone.get()
+                : job.getStatus() == ReportJobStatus.COMPLETED ? job.getPartitionsTotal() : 0;
+        return ReportJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .startDate(job.getStartDate())
+                .endDate(job.getEndDate())
+                .partitionsTotal(job.getPartitionsTotal())
+                .partitionsDone(partitionsDone)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .result(includeResult ? readResult(job.getResultJson()) : null)
+                .build();
+    }
+
+    private List<DayWiseCountResponse> readResult(String resultJson) {
+        if (resultJson == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(resultJson, new TypeReference<List<DayWiseCountResponse>>() { });
+        } catch (JsonProcessingException ex) {
+            throw new BusinessException("Stored report result is unreadable", ex);
+        }
+    }
+
+    private static List<YearMonth> monthsBetween(LocalDate startDate, LocalDate endDate) {
+        List<YearMonth> months = new ArrayList<>();
+        YearMonth last = YearMonth.from(endDate);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,13 @@
+package com.main.utin.slowquery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Snapshot of one statement and caller pair in the {@link SlowQueryLog}, with the
+ * details of its worst execution
+ */
+public record SlowQuery(String sql, String caller, List<String> parameters, long rows, long worstNanos,
+                        LocalDateTime worstAt, long occurrences, long totalNanos, LocalDateTime lastSeenAt,
+                        String plan) {
+}
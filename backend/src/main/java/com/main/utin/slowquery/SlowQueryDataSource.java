@@ -0,0 +1,265 @@
+package com.main.utin.slowquery;
+
+import com.main.utin.tracing.SpanKind;
+import com.main.utin.tracing.Tracing;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource wrapper that times every statement handed out through its connections
+ * and reports those at or over the threshold to the {@link SlowQueryLog}.
+ * <p>
+ * A query is timed from execution until its result set is closed, so the time the
+ * caller spends fetching rows counts too, and rows are counted as they are read. Bound
+ * parameters are remembered per statement; nothing else is done for statements under
+ * the threshold, so the cost on the fast path is the proxy dispatch and a copy of the
+ * bound parameters per execution. Executions on a request being traced are also added
+ * to its trace as SQL spans.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final SlowQueryLog slowQueryLog;
+    private final long thresholdNanos;
+
+    public SlowQueryDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog, long thresholdMs) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+        this.thresholdNanos = thresholdMs * 1_000_000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Close the wrapped pool on shutdown, as the container would have done for the unwrapped bean
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Proxies compare by identity; delegating equals would compare the target with the proxy
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? (Object) (proxy == args[0]) : System.identityHashCode(proxy);
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class
+                && (method.getName().equals("equals") || method.getName().equals("hashCode"));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrapStatement(result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement(result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> wrapStatement(result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Object statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler((Statement) statement, sql));
+        }
+    }
+
+    /**
+     * Tracks one statement: its bound parameters and the execution currently in flight
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private static final Object[] NO_PARAMETERS = new Object[0];
+
+        private final Statement target;
+        private final String preparedSql;
+        private Object self;
+        private Object[] parameters = NO_PARAMETERS;
+        private int parameterCount;
+        private int batchSize;
+
+        /** Execution whose result set is still open; finished on result set or statement close */
+        private String openSql;
+        private Object[] openParameters;
+        private long openStartedAt;
+        private long openRows;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            self = proxy;
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return SlowQueryDataSource.invoke(target, method, args);
+            }
+            if (name.startsWith("execute")) {
+                return execute(method, args, name);
+            }
+            switch (name) {
+                case "clearParameters" -> parameterCount = 0;
+                case "addBatch" -> batchSize++;
+                case "clearBatch" -> batchSize = 0;
+                case "getResultSet" -> {
+                    Object resultSet = SlowQueryDataSource.invoke(target, method, args);
+                    return resultSet == null || openSql == null ? resultSet : wrapResultSet((ResultSet) resultSet);
+                }
+                case "close" -> finishOpen();
+                default -> {
+                }
+            }
+            return SlowQueryDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args, String name) throws Throwable {
+            finishOpen();
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            Object[] boundParameters = Arrays.copyOf(parameters, parameterCount);
+            long startedAt = System.nanoTime();
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            switch (name) {
+                case "executeQuery" -> {
+                    open(sql, boundParameters, startedAt);
+                    return wrapResultSet((ResultSet) result);
+                }
+                case "execute" -> {
+                    if ((Boolean) result) {
+                        open(sql, boundParameters, startedAt);
+                    } else {
+                        finish(sql, boundParameters, startedAt, target.getUpdateCount());
+                    }
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    long rows = 0;
+                    if (result instanceof int[] counts) {
+                        rows = Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+                    } else if (result instanceof long[] counts) {
+                        rows = Arrays.stream(counts).filter(count -> count > 0).sum();
+                    }
+                    String batchSql = batchSize > 1 ? sql + " /* batch of " + batchSize + " */" : sql;
+                    batchSize = 0;
+                    finish(batchSql, boundParameters, startedAt, rows);
+                }
+                default -> finish(sql, boundParameters, startedAt, ((Number) result).longValue());
+            }
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            } else if (parameters == NO_PARAMETERS) {
+                parameters = new Object[Math.max(index, 4)];
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private void open(String sql, Object[] boundParameters, long startedAt) {
+            openSql = sql;
+            openParameters = boundParameters;
+            openStartedAt = startedAt;
+            openRows = 0;
+        }
+
+        private void finishOpen() {
+            if (openSql != null) {
+                String sql = openSql;
+                openSql = null;
+                finish(sql, openParameters, openStartedAt, openRows);
+            }
+        }
+
+        private void finish(String sql, Object[] boundParameters, long startedAt, long rows) {
+            long elapsed = System.nanoTime() - startedAt;
+            if (sql == null) {
+                return;
+            }
+            if (elapsed >= thresholdNanos) {
+                slowQueryLog.record(sql, Arrays.asList(boundParameters), rows, elapsed);
+            }
+            if (Tracing.isActive()) {
+                Tracing.record(SpanKind.SQL, sql + " [" + rows + " rows]", startedAt, elapsed);
+            }
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        if (isIdentityMethod(method)) {
+                            return identity(proxy, method, args);
+                        }
+                        Object result = SlowQueryDataSource.invoke(resultSet, method, args);
+                        switch (method.getName()) {
+                            case "next" -> {
+                                if ((Boolean) result) {
+                                    openRows++;
+                                }
+                            }
+                            case "close" -> finishOpen();
+                            case "getStatement" -> {
+                                return result == target ? self : result;
+                            }
+                            default -> {
+                            }
+                        }
+                        return result;
+                    });
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.main.utin.slowquery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's primary DataSource bean ("dataSource") in a
+ * {@link SlowQueryDataSource}. With read/write splitting this is the routing proxy, so
+ * statements on both the primary and the replica are timed.
+ */
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final ObjectProvider<SlowQueryProperties> properties;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog,
+                                            ObjectProvider<SlowQueryProperties> properties) {
+        this.slowQueryLog = slowQueryLog;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)
+                || bean instanceof SlowQueryDataSource) {
+            return bean;
+        }
+        SlowQueryProperties settings = properties.getObject();
+        if (!settings.isEnabled()) {
+            return bean;
+        }
+        SlowQueryLog log = slowQueryLog.getObject();
+        log.setPlanDataSource(dataSource);
+        return new SlowQueryDataSource(dataSource, log, settings.getThresholdMs());
+    }
+}
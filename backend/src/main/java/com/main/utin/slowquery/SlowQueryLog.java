@@ -0,0 +1,239 @@
+package com.main.utin.slowquery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded store of the slowest statements seen since startup. Executions are grouped by
+ * SQL text and calling application method; each group keeps its worst execution (bound
+ * parameters, row count) and the execution plan captured for it. When the store is full
+ * the group with the fastest worst execution is evicted.
+ * <p>
+ * Plans come from running EXPLAIN with the same parameters on a separate connection of
+ * the unwrapped DataSource, on a single background thread with a short queue, so the
+ * slow request is not delayed further and a burst of slow statements cannot pile up work.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final String APPLICATION_PACKAGE = "com.main.utin.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final SlowQueryProperties properties;
+    private final Counter slowCounter;
+    private final ThreadPoolExecutor explainExecutor;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private volatile DataSource planDataSource;
+    private volatile Boolean planSupported;
+
+    public SlowQueryLog(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.slowCounter = Counter.builder("db.queries.slow")
+                .description("Statements at or over the slow-query threshold")
+                .register(meterRegistry);
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * DataSource used for EXPLAIN; must not be the timed wrapper
+     */
+    void setPlanDataSource(DataSource planDataSource) {
+        this.planDataSource = planDataSource;
+    }
+
+    /**
+     * Record an execution that took at least the threshold
+     */
+    public void record(String sql, List<Object> parameters, long rows, long elapsedNanos) {
+        slowCounter.increment();
+        String caller = findCaller();
+        String key = caller + '\n' + sql;
+        Entry entry;
+        long planVersion;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                if (entries.size() >= properties.getMaxEntries() && !evictFasterThan(elapsedNanos)) {
+                    return;
+                }
+                entry = new Entry(sql, caller);
+                entries.put(key, entry);
+            }
+            entry.occurrences++;
+            entry.totalNanos += elapsedNanos;
+            entry.lastSeenAt = LocalDateTime.now();
+            if (elapsedNanos <= entry.worstNanos) {
+                return;
+            }
+            entry.worstNanos = elapsedNanos;
+            entry.worstAt = entry.lastSeenAt;
+            entry.rows = rows;
+            entry.parameters = parameters.stream().map(this::display).toList();
+            entry.plan = null;
+            planVersion = ++entry.planVersion;
+        }
+        log.warn("Slow query ({} ms, {} rows) from {}: {}", elapsedNanos / 1_000_000, rows, caller, sql);
+        if (properties.isExplain() && planDataSource != null && isExplainable(sql)) {
+            Entry target = entry;
+            explainExecutor.execute(() -> capturePlan(target, planVersion, sql, parameters));
+        }
+    }
+
+    /**
+     * Recorded statements, slowest first
+     */
+    public List<SlowQuery> getEntries() {
+        List<SlowQuery> snapshot = new ArrayList<>();
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                snapshot.add(new SlowQuery(entry.sql, entry.caller, entry.parameters, entry.rows, entry.worstNanos,
+                        entry.worstAt, entry.occurrences, entry.totalNanos, entry.lastSeenAt, entry.plan));
+            }
+        }
+        snapshot.sort(Comparator.comparingLong(SlowQuery::worstNanos).reversed());
+        return snapshot;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private boolean evictFasterThan(long elapsedNanos) {
+        Map.Entry<String, Entry> fastest = null;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            if (fastest == null || candidate.getValue().worstNanos < fastest.getValue().worstNanos) {
+                fastest = candidate;
+            }
+        }
+        if (fastest == null || fastest.getValue().worstNanos >= elapsedNanos) {
+            return false;
+        }
+        entries.remove(fastest.getKey());
+        return true;
+    }
+
+    private void capturePlan(Entry entry, long planVersion, String sql, List<Object> parameters) {
+        String plan;
+        try (Connection connection = planDataSource.getConnection()) {
+            if (planSupported == null) {
+                planSupported = "H2".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            }
+            if (!planSupported) {
+                return;
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                StringBuilder text = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        text.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                plan = text.toString().trim();
+            }
+        } catch (SQLException ex) {
+            plan = "EXPLAIN failed: " + ex.getMessage();
+        }
+        synchronized (entries) {
+            if (entry.planVersion == planVersion) {
+                entry.plan = plan;
+            }
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return verb.startsWith("select") || verb.startsWith("with") || verb.startsWith("insert")
+                || verb.startsWith("update") || verb.startsWith("delete") || verb.startsWith("merge");
+    }
+
+    /**
+     * Innermost application frame below the JDBC wrapper, typically the service method
+     */
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !isOwnClass(frame.getClassName(), SlowQueryDataSource.class)
+                        && !isOwnClass(frame.getClassName(), SlowQueryLog.class)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    /** The class itself or one nested in it, but not another class sharing the name as a prefix */
+    private static boolean isOwnClass(String className, Class<?> type) {
+        return className.equals(type.getName()) || className.startsWith(type.getName() + "$");
+    }
+
+    private String display(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value instanceof CharSequence ? "'" + value + "'" : String.valueOf(value);
+        int max = properties.getMaxParameterLength();
+        return text.length() <= max ? text : text.substring(0, max) + "...";
+    }
+
+    /** Mutable group state; guarded by the entries map */
+    private static final class Entry {
+
+        private final String sql;
+        private final String caller;
+        private List<String> parameters = List.of();
+        private long rows;
+        private long worstNanos = -1;
+        private LocalDateTime worstAt;
+        private long occurrences;
+        private long totalNanos;
+        private LocalDateTime lastSeenAt;
+        private String plan;
+        private long planVersion;
+
+        private Entry(String sql, String caller) {
+            this.sql = sql;
+            this.caller = caller;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.main.utin.slowquery;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Slow-query detector settings (app.slow-query.*)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.slow-query")
+public class SlowQueryProperties {
+
+    private boolean enabled = true;
+
+    /** Statements taking at least this long, including reading their rows, are recorded */
+    private long thresholdMs = 200;
+
+    /** Distinct statement and caller pairs kept; the fastest is evicted first */
+    private int maxEntries = 50;
+
+    /** Capture the execution plan of recorded statements (H2 only) */
+    private boolean explain = true;
+
+    /** Bound parameter values longer than this are truncated in the report */
+    private int maxParameterLength = 100;
+}
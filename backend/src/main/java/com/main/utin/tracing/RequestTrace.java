@@ -0,0 +1,167 @@
+package com.main.utin.tracing;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Spans recorded for one sampled request. Written only by the request thread while the
+ * request runs; handed to the {@link TraceStore} once finished and not modified after.
+ * Spans are kept in start order with their nesting depth, so a span's children are the
+ * spans that follow it one level deeper.
+ */
+public final class RequestTrace {
+
+    private final String id;
+    private final String method;
+    private final String path;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+    private final int maxDetailLength;
+
+    /** Slots are reserved when a span opens, so nested spans keep their start order */
+    private final List<Span> spans = new ArrayList<>();
+    private int depth;
+    private int droppedSpans;
+    private String username;
+    private int status;
+    private long durationNanos;
+
+    public RequestTrace(String id, String method, String path, int maxSpans, int maxDetailLength) {
+        this.id = id;
+        this.method = method;
+        this.path = path;
+        this.maxSpans = maxSpans;
+        this.maxDetailLength = maxDetailLength;
+    }
+
+    /** One timed step; offsets are from the start of the request */
+    public record Span(SpanKind kind, String detail, long startOffsetNanos, long durationNanos, int depth) {
+    }
+
+    TraceSpan open(SpanKind kind, Object detail) {
+        if (spans.size() >= maxSpans) {
+            droppedSpans++;
+            return Tracing.NOOP;
+        }
+        int index = spans.size();
+        int spanDepth = depth++;
+        String text = describe(detail);
+        long openedAt = System.nanoTime();
+        spans.add(null);
+        return () -> {
+            depth = spanDepth;
+            spans.set(index, new Span(kind, text, openedAt - startNanos, System.nanoTime() - openedAt, spanDepth));
+        };
+    }
+
+    /**
+     * Add a span that was timed elsewhere, such as a statement whose result set was just closed
+     */
+    void record(SpanKind kind, Object detail, long startedAtNanos, long elapsedNanos) {
+        if (spans.size() >= maxSpans) {
+            droppedSpans++;
+            return;
+        }
+        spans.add(new Span(kind, describe(detail), startedAtNanos - startNanos, elapsedNanos, depth));
+    }
+
+    void setUsername(String username) {
+        this.username = username;
+    }
+
+    void finish(int status) {
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Time spent in each kind of span excluding time in its child spans; together with
+     * {@link #untracedNanos()} the values add up to the request duration
+     */
+    public Map<SpanKind, Long> selfNanosByKind() {
+        Map<SpanKind, Long> totals = new EnumMap<>(SpanKind.class);
+        List<Span> closed = getSpans();
+        for (int i = 0; i < closed.size(); i++) {
+            Span span = closed.get(i);
+            long children = 0;
+            for (int j = i + 1; j < closed.size() && closed.get(j).depth() > span.depth(); j++) {
+                if (closed.get(j).depth() == span.depth() + 1) {
+                    children += closed.get(j).durationNanos();
+                }
+            }
+            totals.merge(span.kind(), Math.max(0, span.durationNanos() - children), Long::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * Request time outside any top-level span: other filters, MVC dispatch, controller code
+     */
+    public long untracedNanos() {
+        long traced = 0;
+        for (Span span : getSpans()) {
+            if (span.depth() == 0) {
+                traced += span.durationNanos();
+            }
+        }
+        return Math.max(0, durationNanos - traced);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    /** Closed spans in start order; a span left open by an exception path is omitted */
+    public List<Span> getSpans() {
+        List<Span> closed = new ArrayList<>(spans.size());
+        spans.stream().filter(Objects::nonNull).forEach(closed::add);
+        return Collections.unmodifiableList(closed);
+    }
+
+    private String describe(Object detail) {
+        if (detail == null) {
+            return null;
+        }
+        String text = switch (detail) {
+            case Method target -> target.getDeclaringClass().getSimpleName() + "." + target.getName();
+            case Class<?> type -> type.getSimpleName();
+            default -> detail.toString();
+        };
+        return text.length() <= maxDetailLength ? text : text.substring(0, maxDetailLength) + "...";
+    }
+}
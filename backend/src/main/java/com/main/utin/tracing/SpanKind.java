@@ -0,0 +1,10 @@
+package com.main.utin.tracing;
+
+public enum SpanKind {
+    JWT,
+    USER_LOOKUP,
+    SERVICE,
+    SQL,
+    RXNAV,
+    SERIALIZATION
+}
@@ -0,0 +1,11 @@
+package com.main.utin.tracing;
+
+/**
+ * Open span; closing it records its duration. Meant for try-with-resources.
+ */
+@FunctionalInterface
+public interface TraceSpan extends AutoCloseable {
+
+    @Override
+    void close();
+}
@@ -0,0 +1,75 @@
+package com.main.utin.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Finished traces: a ring of the most recent ones and, separately, the slowest seen since
+ * startup or the last clear, so a slow outlier stays available after it leaves the ring.
+ * Only sampled requests get here, so a plain lock is cheap enough.
+ */
+@Component
+public class TraceStore {
+
+    private static final Comparator<RequestTrace> BY_DURATION = Comparator.comparingLong(RequestTrace::getDurationNanos);
+
+    private final TracingProperties properties;
+    private final Counter sampledCounter;
+
+    private final ArrayDeque<RequestTrace> recent = new ArrayDeque<>();
+    /** Min-heap on duration, so the fastest of the slow traces is the one replaced */
+    private final PriorityQueue<RequestTrace> slowest = new PriorityQueue<>(BY_DURATION);
+
+    public TraceStore(TracingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.sampledCounter = Counter.builder("tracing.requests.sampled")
+                .description("Requests traced and added to the trace store")
+                .register(meterRegistry);
+    }
+
+    public void add(RequestTrace trace) {
+        sampledCounter.increment();
+        synchronized (this) {
+            recent.addFirst(trace);
+            while (recent.size() > properties.getRecentCapacity()) {
+                recent.removeLast();
+            }
+            slowest.add(trace);
+            while (slowest.size() > properties.getSlowestCapacity()) {
+                slowest.poll();
+            }
+        }
+    }
+
+    /** Newest first */
+    public synchronized List<RequestTrace> getRecent() {
+        return new ArrayList<>(recent);
+    }
+
+    /** Slowest first */
+    public synchronized List<RequestTrace> getSlowest() {
+        List<RequestTrace> traces = new ArrayList<>(slowest);
+        traces.sort(BY_DURATION.reversed());
+        return traces;
+    }
+
+    public synchronized Optional<RequestTrace> find(String id) {
+        return Stream.concat(recent.stream(), slowest.stream())
+                .filter(trace -> trace.getId().equals(id))
+                .findFirst();
+    }
+
+    public synchronized void clear() {
+        recent.clear();
+        slowest.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.main.utin.tracing;
+
+/**
+ * Entry point for instrumented code. The trace of the current request is bound to the
+ * request thread; when the request is not sampled every call is a thread-local read
+ * and a null check, and {@link #span} returns a shared no-op span without allocating.
+ */
+public final class Tracing {
+
+    static final TraceSpan NOOP = () -> {
+    };
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    static void begin(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Open a span; the detail (a string, a {@link java.lang.reflect.Method} or a class)
+     * is only turned into text when the request is sampled
+     */
+    public static TraceSpan span(SpanKind kind, Object detail) {
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? NOOP : trace.open(kind, detail);
+    }
+
+    /**
+     * Record a span timed by the caller, from a System.nanoTime() start
+     */
+    public static void record(SpanKind kind, Object detail, long startedAtNanos, long elapsedNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.record(kind, detail, startedAtNanos, elapsedNanos);
+        }
+    }
+
+    public static void setUsername(String username) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.setUsername(username);
+        }
+    }
+}
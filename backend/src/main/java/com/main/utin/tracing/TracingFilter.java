@@ -0,0 +1,77 @@
+package com.main.utin.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides per API request whether to trace it and, if so, binds a {@link RequestTrace}
+ * to the request thread for the whole filter chain, security included, and hands it to
+ * the {@link TraceStore} afterwards. Sampled responses carry the trace ID in X-Trace-Id.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+    private static final String TRACES_PATH = "/api/v1/admin/traces";
+
+    @Autowired
+    private TracingProperties properties;
+
+    @Autowired
+    private TraceStore traceStore;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathOf(request);
+        return !properties.isEnabled() || !path.startsWith("/api/") || path.startsWith(TRACES_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!isSampled(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestTrace trace = new RequestTrace(UUID.randomUUID().toString(), request.getMethod(), pathOf(request),
+                properties.getMaxSpansPerTrace(), properties.getMaxDetailLength());
+        response.setHeader(TRACE_ID_HEADER, trace.getId());
+        Tracing.begin(trace);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Tracing.end();
+            trace.finish(response.getStatus());
+            traceStore.add(trace);
+        }
+    }
+
+    private boolean isSampled(HttpServletRequest request) {
+        String forceHeader = properties.getForceHeader();
+        if (StringUtils.hasText(forceHeader)) {
+            String value = request.getHeader(forceHeader);
+            if ("true".equalsIgnoreCase(value) || "1".equals(value)) {
+                return true;
+            }
+        }
+        return ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+
+    private String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,36 @@
+package com.main.utin.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-request tracing settings (app.tracing.*)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    /** Fraction of API requests traced, 0 to 1 */
+    private double sampleRate = 0.01;
+
+    /** Requests carrying this header with value true or 1 are always traced; empty to disable */
+    private String forceHeader = "X-Trace";
+
+    /** Most recent traces kept */
+    private int recentCapacity = 100;
+
+    /** Slowest traces kept, independently of the recent ones */
+    private int slowestCapacity = 20;
+
+    /** Spans past this many are counted but not kept, so a runaway loop cannot grow a trace unbounded */
+    private int maxSpansPerTrace = 500;
+
+    /** Span details (SQL text, URLs) longer than this are truncated */
+    private int maxDetailLength = 300;
+}
@@ -0,0 +1,34 @@
+package com.main.utin.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the node out of service while the startup warm-up runs, with its outcome after
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    public WarmupHealthIndicator(WarmupRunner warmupRunner) {
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public Health health() {
+        WarmupResult result = warmupRunner.getResult();
+        if (result == null) {
+            return Health.outOfService().withDetail("warmup", "running").build();
+        }
+        Health.Builder builder = Health.up()
+                .withDetail("completed", result.completed())
+                .withDetail("rounds", result.rounds())
+                .withDetail("durationMs", result.durationMs());
+        if (result.error() != null) {
+            builder.withDetail("error", result.error());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.main.utin.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup warm-up settings (app.warmup.*)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    /** Longest the node stays out of rotation for warm-up; it reports ready when this runs out */
+    private long budgetMs = 30_000;
+
+    /** Rounds of synthetic calls through the hot paths; a few hundred get them past the first JIT tier */
+    private int rounds = 300;
+
+    /** BCrypt hashes computed; the first one pays for the SecureRandom seed */
+    private int passwordHashes = 2;
+
+    /** Also wait for the analytics column store to finish its initial load, within the same budget */
+    private boolean awaitColumnStore = true;
+}
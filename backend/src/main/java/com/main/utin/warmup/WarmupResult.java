@@ -0,0 +1,12 @@
+package com.main.utin.warmup;
+
+/**
+ * Outcome of the startup warm-up
+ *
+ * @param completed   all rounds ran (and the column store loaded, if awaited) within the budget
+ * @param rounds      rounds that ran to the end
+ * @param durationMs  time from start until the node was let into rotation
+ * @param error       first failure that stopped warm-up early, if any
+ */
+public record WarmupResult(boolean completed, int rounds, long durationMs, String error) {
+}
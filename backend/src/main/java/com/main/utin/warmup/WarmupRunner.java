@@ -0,0 +1,266 @@
+package com.main.utin.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.analytics.PrescriptionColumnStore;
+import com.main.utin.dto.DashboardSummaryResponse;
+import com.main.utin.dto.DayWiseCountResponse;
+import com.main.utin.dto.InteractionScreeningResponse;
+import com.main.utin.dto.PrescriptionRequest;
+import com.main.utin.dto.PrescriptionResponse;
+import com.main.utin.dto.PrescriptionSummaryResponse;
+import com.main.utin.entity.ScreeningStatus;
+import com.main.utin.entity.User;
+import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.repository.UserRepository;
+import com.main.utin.security.JwtTokenProvider;
+import com.main.utin.security.TokenRevocationList;
+import com.main.utin.service.PrescriptionService;
+import com.main.utin.service.impl.PrescriptionMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs synthetic internal traffic through the hot paths before the node takes requests:
+ * JWT signing and parsing, the user lookup behind the JWT filter, BCrypt, the read queries
+ * behind the dashboard, follow-up and report endpoints, prescription fetches and Jackson
+ * (de)serialization of the prescription DTOs. That gets the code past the interpreter,
+ * Hibernate's query plans compiled, Jackson's serializers built and the dashboard cache
+ * and analytics column store filled.
+ * <p>
+ * Spring Boot keeps the readiness state at REFUSING_TRAFFIC until every runner has
+ * returned, so this runner holds the node out of rotation until warm-up finishes or the
+ * budget runs out, whichever comes first. Only reads that write no audit entries are
+ * used, so the audit log does not fill with synthetic views.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String WARMUP_PASSWORD = "warm-up-only-password";
+
+    private final WarmupProperties properties;
+    private final PrescriptionService prescriptionService;
+    private final PrescriptionRepository prescriptionRepository;
+    private final UserRepository userRepository;
+    private final UserDetailsService userDetailsService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList revocationList;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final PrescriptionColumnStore columnStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer durationTimer;
+
+    private volatile WarmupResult result;
+
+    public WarmupRunner(WarmupProperties properties, PrescriptionService prescriptionService,
+                        PrescriptionRepository prescriptionRepository, UserRepository userRepository,
+                        UserDetailsService userDetailsService, JwtTokenProvider jwtTokenProvider,
+                        TokenRevocationList revocationList, PasswordEncoder passwordEncoder,
+                        ObjectMapper objectMapper, PrescriptionColumnStore columnStore,
+                        ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.prescriptionService = prescriptionService;
+        this.prescriptionRepository = prescriptionRepository;
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.revocationList = revocationList;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.columnStore = columnStore;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.durationTimer = Timer.builder("warmup.duration")
+                .description("Time from the start of warm-up until the node reported ready")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            result = new WarmupResult(false, 0, 0, "disabled");
+            return;
+        }
+        // Already the state until runners complete; published so the intent does not depend on it
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(properties.getBudgetMs());
+        Progress progress = new Progress();
+        CompletableFuture<Void> work = CompletableFuture.runAsync(() -> warmUp(deadline, progress), runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            thread.start();
+        });
+        String error = null;
+        boolean completed = false;
+        try {
+            work.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            completed = progress.rounds == properties.getRounds() && progress.columnStoreLoaded;
+        } catch (TimeoutException ex) {
+            // The worker checks the deadline between steps and stops on its own
+            error = "budget of " + properties.getBudgetMs() + " ms exhausted";
+        } catch (ExecutionException ex) {
+            error = String.valueOf(ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            error = "interrupted";
+        }
+
+        long elapsed = System.nanoTime() - started;
+        durationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        result = new WarmupResult(completed, progress.rounds, TimeUnit.NANOSECONDS.toMillis(elapsed), error);
+        if (completed) {
+            log.info("Warm-up finished {} rounds in {} ms", progress.rounds, result.durationMs());
+        } else {
+            log.warn("Warm-up stopped after {} of {} rounds in {} ms: {}", progress.rounds, properties.getRounds(),
+                    result.durationMs(), error == null ? "column store not loaded" : error);
+        }
+    }
+
+    /**
+     * Outcome of the warm-up; null while it is running
+     */
+    public WarmupResult getResult() {
+        return result;
+    }
+
+    private void warmUp(long deadline, Progress progress) {
+        if (properties.isAwaitColumnStore()) {
+            // Normally started once the application is ready; starting it now overlaps the load with the rest
+            columnStore.startLoading();
+        }
+        for (int i = 0; i < properties.getPasswordHashes() && System.nanoTime() < deadline; i++) {
+            passwordEncoder.matches(WARMUP_PASSWORD, passwordEncoder.encode(WARMUP_PASSWORD));
+        }
+        String username = userRepository.findAll(PageRequest.of(0, 1)).stream()
+                .map(User::getUsername)
+                .findFirst()
+                .orElse(null);
+        while (progress.rounds < properties.getRounds() && System.nanoTime() < deadline) {
+            round(progress.rounds, username);
+            progress.rounds++;
+        }
+        progress.columnStoreLoaded = !properties.isAwaitColumnStore() || awaitColumnStore(deadline);
+    }
+
+    private void round(int round, String username) {
+        String token = jwtTokenProvider.generateTokenFromUsername(username == null ? "warmup" : username);
+        if (jwtTokenProvider.validateToken(token)) {
+            revocationList.isRevoked(jwtTokenProvider.parseClaims(token));
+        }
+        if (username != null) {
+            userDetailsService.loadUserByUsername(username);
+        }
+
+        LocalDate today = LocalDate.now();
+        DashboardSummaryResponse dashboard = prescriptionService.getDashboardSummary(5, 7);
+        List<PrescriptionSummaryResponse> followUps = prescriptionService.getFollowUpsDue(7, 100);
+        List<DayWiseCountResponse> dayWise = prescriptionService.getDayWisePrescriptionCount(today.minusDays(30), today);
+
+        List<Long> ids = dashboard.getRecentPrescriptions().stream().map(PrescriptionSummaryResponse::getId).toList();
+        List<PrescriptionResponse> prescriptions = ids.isEmpty() ? List.of(sampleResponse(round)) : loadResponses(ids);
+        // With a screening, so every serializer the single-prescription endpoint needs gets built
+        prescriptions.forEach(prescription -> prescription.setInteractionScreening(sampleScreening()));
+        try {
+            objectMapper.writeValueAsBytes(dashboard);
+            objectMapper.writeValueAsBytes(followUps);
+            objectMapper.writeValueAsBytes(dayWise);
+            objectMapper.writeValueAsBytes(prescriptions);
+            objectMapper.readValue(objectMapper.writeValueAsBytes(sampleRequest(today)), PrescriptionRequest.class);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Serialization warm-up failed", ex);
+        }
+    }
+
+    /**
+     * Straight from the repository through the service's mapping, so no audit entries are written
+     */
+    private List<PrescriptionResponse> loadResponses(List<Long> ids) {
+        return readOnlyTransaction.execute(status -> prescriptionRepository.findAllWithCreatorByIdIn(ids).stream()
+                .map(PrescriptionMapper::toResponse)
+                .toList());
+    }
+
+    private boolean awaitColumnStore(long deadline) {
+        try {
+            return columnStore.awaitLoaded(Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static PrescriptionResponse sampleResponse(int round) {
+        return PrescriptionResponse.builder()
+                .id((long) round)
+                .prescriptionDate(LocalDate.now())
+                .patientName("Warm-up")
+                .patientAge(40)
+                .patientGender("OTHER")
+                .diagnosis("Warm-up")
+                .medicines("Warm-up")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static InteractionScreeningResponse sampleScreening() {
+        return InteractionScreeningResponse.builder()
+                .status(ScreeningStatus.COMPLETED)
+                .drugs(List.of("paracetamol"))
+                .findings(List.of())
+                .attempts(1)
+                .requestedAt(LocalDateTime.now())
+                .screenedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static PrescriptionRequest sampleRequest(LocalDate today) {
+        return PrescriptionRequest.builder()
+                .prescriptionDate(today)
+                .patientName("Warm-up")
+                .patientAge(40)
+                .patientGender("OTHER")
+                .diagnosis("Warm-up")
+                .medicines("Warm-up")
+                .build();
+    }
+
+    /** Written by the warm-up thread, read by the runner once it returns or times out */
+    private static final class Progress {
+
+        private volatile int rounds;
+        private volatile boolean columnStoreLoaded;
+    }
+}
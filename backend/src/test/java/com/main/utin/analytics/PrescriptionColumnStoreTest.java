@@ -0,0 +1,177 @@
+package com.main.utin.analytics;
+
+import com.main.utin.entity.Prescription;
+import com.main.utin.entity.User;
+import com.main.utin.repository.PrescriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrescriptionColumnStoreTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionColumnStoreTest.class);
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void countsByMonthAndGender() throws Exception {
+        PrescriptionColumnStore store = loadedStore();
+        store.upsertAfterCommit(prescription(1L, JAN_1, 30, "MALE", 7L));
+        store.upsertAfterCommit(prescription(2L, JAN_1.plusDays(10), 40, "FEMALE", 7L));
+        store.upsertAfterCommit(prescription(3L, JAN_1.plusDays(40), 70, "FEMALE", 8L));
+        store.upsertAfterCommit(prescription(4L, JAN_1.minusDays(1), 20, "MALE", 8L));
+
+        Breakdown breakdown = store.aggregate(JAN_1, LocalDate.of(2024, 2, 29), Dimension.MONTH, Dimension.GENDER);
+
+        assertEquals(List.of("2024-01", "2024-02"), breakdown.firstLabels());
+        assertEquals(PrescriptionColumnStore.GENDER_LABELS, breakdown.secondLabels());
+        assertArrayEquals(new long[]{1, 1, 0, 0, 0, 1, 0, 0}, breakdown.counts());
+    }
+
+    @Test
+    void appliesUpdatesDeletesAndOutOfOrderInserts() throws Exception {
+        PrescriptionColumnStore store = loadedStore();
+        store.upsertAfterCommit(prescription(1L, JAN_1, 10, "MALE", 7L));
+        store.upsertAfterCommit(prescription(3L, JAN_1, 50, "MALE", 7L));
+        store.upsertAfterCommit(prescription(2L, JAN_1, 80, "OTHER", 9L));
+        store.upsertAfterCommit(prescription(1L, JAN_1, 20, "FEMALE", 7L));
+        store.removeAfterCommit(3L);
+
+        Breakdown byAge = store.aggregate(JAN_1, JAN_1, Dimension.AGE_BAND, null);
+        assertArrayEquals(new long[]{0, 1, 0, 0, 0, 1}, byAge.counts());
+
+        Breakdown byDoctor = store.aggregate(JAN_1, JAN_1, Dimension.DOCTOR, null);
+        assertEquals(List.of("7", "9"), byDoctor.firstLabels());
+        assertArrayEquals(new long[]{1, 1}, byDoctor.counts());
+        assertEquals(3, store.getRowCount());
+        assertEquals(2, store.getLiveRowCount());
+    }
+
+    @Test
+    void weeksStartOnMonday() throws Exception {
+        PrescriptionColumnStore store = loadedStore();
+        // 2024-01-07 is a Sunday, 2024-01-08 a Monday
+        store.upsertAfterCommit(prescription(1L, LocalDate.of(2024, 1, 7), 30, "MALE", 7L));
+        store.upsertAfterCommit(prescription(2L, LocalDate.of(2024, 1, 8), 30, "MALE", 7L));
+
+        Breakdown breakdown = store.aggregate(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 10), Dimension.WEEK, null);
+
+        assertEquals(List.of("2024-01-01", "2024-01-08"), breakdown.firstLabels());
+        assertArrayEquals(new long[]{1, 1}, breakdown.counts());
+    }
+
+    /**
+     * Loads a synthetic table through the paged loader and runs range × dimension scans over it
+     */
+    @Test
+    void scansMillionsOfRowsWithinTheMemoryBound() throws Exception {
+        int rows = 2_000_000;
+        PrescriptionColumnStore store = syntheticStore(rows);
+
+        LocalDate from = JAN_1.minusYears(5);
+        long total = 0;
+        for (Dimension second : new Dimension[]{Dimension.GENDER, Dimension.AGE_BAND}) {
+            Breakdown breakdown = store.aggregate(from, JAN_1, Dimension.MONTH, second);
+            total = Arrays.stream(breakdown.counts()).sum();
+        }
+
+        assertTrue(total > 0 && total < rows);
+        // Five primitive columns at 18 bytes per row, plus the 1/8 headroom kept after loading
+        assertTrue(store.memoryBytes() <= 21L * rows + 65_536);
+    }
+
+    /**
+     * Scan times against the sub-10 ms target at full size; they depend on the machine and its
+     * cores, so they are reported, not asserted. Run with -Dbenchmark=true, and
+     * -Danalytics.benchmark.rows=N for a table size other than 10 million.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkScansAtFullSize() throws Exception {
+        int rows = Integer.getInteger("analytics.benchmark.rows", 10_000_000);
+        PrescriptionColumnStore store = syntheticStore(rows);
+
+        LocalDate from = JAN_1.minusYears(5);
+        long total = 0;
+        long[] nanos = new long[30];
+        for (int i = 0; i < nanos.length; i++) {
+            Dimension second = i % 2 == 0 ? Dimension.GENDER : Dimension.AGE_BAND;
+            Breakdown breakdown = store.aggregate(from, JAN_1, Dimension.MONTH, second);
+            nanos[i] = breakdown.elapsedNanos();
+            total = Arrays.stream(breakdown.counts()).sum();
+        }
+        Arrays.sort(nanos);
+        log.info("Column store scan of {} rows ({} in range) on {} cores: median {} ms, p90 {} ms, footprint {} bytes ({} bytes/row)",
+                rows, total, Runtime.getRuntime().availableProcessors(),
+                String.format("%.2f", nanos[nanos.length / 2] / 1e6), String.format("%.2f", nanos[nanos.length * 9 / 10] / 1e6),
+                store.memoryBytes(), String.format("%.1f", (double) store.memoryBytes() / rows));
+    }
+
+    /**
+     * A store loaded with {@code rows} random prescriptions over the ten years before 2024
+     */
+    private static PrescriptionColumnStore syntheticStore(int rows) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] genders = {"MALE", "FEMALE", "OTHER"};
+        PrescriptionRepository repository = mock(PrescriptionRepository.class);
+        when(repository.findAnalyticsRowsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int pageSize = invocation.getArgument(1, Pageable.class).getPageSize();
+            List<Object[]> page = new ArrayList<>(pageSize);
+            for (long id = afterId + 1; id <= Math.min(rows, afterId + pageSize); id++) {
+                page.add(new Object[]{id, JAN_1.minusDays(random.nextInt(3650)), random.nextInt(95),
+                        genders[random.nextInt(3)], 1L + random.nextInt(200)});
+            }
+            return page;
+        });
+        PrescriptionColumnStore store = newStore(repository);
+        store.startLoading();
+        assertTrue(store.awaitLoaded(120_000));
+        assertEquals(rows, store.getRowCount());
+        return store;
+    }
+
+    private static PrescriptionColumnStore loadedStore() throws Exception {
+        PrescriptionRepository repository = mock(PrescriptionRepository.class);
+        when(repository.findAnalyticsRowsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        PrescriptionColumnStore store = newStore(repository);
+        store.startLoading();
+        assertTrue(store.awaitLoaded(10_000));
+        return store;
+    }
+
+    private static PrescriptionColumnStore newStore(PrescriptionRepository repository) {
+        PrescriptionColumnStore store = new PrescriptionColumnStore(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "loadPageSize", 10_000);
+        ReflectionTestUtils.setField(store, "minRowsPerSegment", 262_144);
+        return store;
+    }
+
+    private static Prescription prescription(Long id, LocalDate date, int age, String gender, Long doctorId) {
+        return Prescription.builder()
+                .id(id)
+                .prescriptionDate(date)
+                .patientAge(age)
+                .patientGender(gender)
+                .createdBy(User.builder().id(doctorId).build())
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.main.utin.compression;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextCompressionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TextCompressionTest.class);
+
+    private static final String[] PHRASES = {
+            "Patient presents with fever for three days, dry cough and body ache. ",
+            "No history of travel. Chest clear on auscultation, throat congested. ",
+            "Tab Paracetamol 500mg 1-1-1 after food for 5 days. ",
+            "Tab Cetirizine 10mg 0-0-1 for 5 days. ",
+            "Advised plenty of oral fluids, rest, and review if fever persists beyond 3 days. ",
+            "BP 138/88 mmHg, pulse 84/min regular, SpO2 98% on room air. ",
+            "Known case of type 2 diabetes mellitus on Tab Metformin 500mg 1-0-1. ",
+            "Syrup Ambroxol 5ml three times daily for 5 days. "
+    };
+
+    @Test
+    void roundTripsLongText() {
+        String text = clinicalText(new Random(1), 800);
+        String stored = TextCompression.encode(text);
+
+        assertEquals(TextCompression.MARKER, stored.charAt(0));
+        assertTrue(stored.length() < text.length() * 0.7, stored.length() + " of " + text.length());
+        assertEquals(text, TextCompression.decode(stored));
+        assertTrue(TextCompression.isCurrent(stored));
+    }
+
+    @Test
+    void leavesShortAndIncompressibleTextAsIs() {
+        assertEquals("Viral fever", TextCompression.encode("Viral fever"));
+        StringBuilder noise = new StringBuilder();
+        Random random = new Random(2);
+        for (int i = 0; i < 400; i++) {
+            noise.append((char) ('!' + random.nextInt(90)));
+        }
+        assertEquals(noise.toString(), TextCompression.encode(noise.toString()));
+        assertNull(TextCompression.encode(null));
+        assertNull(TextCompression.decode(null));
+    }
+
+    @Test
+    void readsLegacyValuesAndEscapesTheMarker() {
+        String legacy = clinicalText(new Random(3), 600);
+        assertEquals(legacy, TextCompression.decode(legacy));
+        assertTrue(!TextCompression.isCurrent(legacy));
+
+        String startsWithMarker = TextCompression.MARKER + "D not compressed";
+        String stored = TextCompression.encode(startsWithMarker);
+        assertEquals(startsWithMarker, TextCompression.decode(stored));
+        assertThrows(IllegalStateException.class, () -> TextCompression.decode(TextCompression.MARKER + "Zxyz"));
+    }
+
+    @Test
+    void handlesNonAsciiText() {
+        String text = "Rx: Paracetamol 500 मिलीग्राम दिन में तीन बार, भोजन के बाद। ".repeat(10);
+        assertEquals(text, TextCompression.decode(TextCompression.encode(text)));
+    }
+
+    /**
+     * Stored size of the same notes kept plain and compressed, and a range scan over both
+     * that decodes back to the same text
+     */
+    @Test
+    void compressedColumnsAreSmallerAndScanToTheSameText() {
+        JdbcTemplate jdbc = notesTables();
+
+        long plainBytes = storedBytes(jdbc, "notes_plain");
+        long compressedBytes = storedBytes(jdbc, "notes_compressed");
+        assertTrue(compressedBytes < plainBytes * 0.7, compressedBytes + " of " + plainBytes);
+        assertEquals(scan(jdbc, "notes_plain"), scan(jdbc, "notes_compressed"));
+    }
+
+    /**
+     * Table size and range-scan time, including decoding, before and after compression.
+     * Timings depend on the machine, so this only reports them; run with -Dbenchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTableSizeAndRangeScan() {
+        JdbcTemplate jdbc = notesTables();
+        long plainNanos = Long.MAX_VALUE;
+        long compressedNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            long started = System.nanoTime();
+            scan(jdbc, "notes_plain");
+            plainNanos = Math.min(plainNanos, System.nanoTime() - started);
+            started = System.nanoTime();
+            scan(jdbc, "notes_compressed");
+            compressedNanos = Math.min(compressedNanos, System.nanoTime() - started);
+        }
+        long plainBytes = storedBytes(jdbc, "notes_plain");
+        long compressedBytes = storedBytes(jdbc, "notes_compressed");
+        log.info("Notes table: plain {} bytes, range scan {} ms; compressed {} bytes ({}%), range scan {} ms",
+                plainBytes, String.format("%.2f", plainNanos / 1e6), compressedBytes,
+                Math.round(100.0 * compressedBytes / plainBytes), String.format("%.2f", compressedNanos / 1e6));
+    }
+
+    /**
+     * The same 5,000 generated notes in a plain and a compressed table
+     */
+    private static JdbcTemplate notesTables() {
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:text-compression-test;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(h2);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS notes_plain (id BIGINT PRIMARY KEY, body TEXT)");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS notes_compressed (id BIGINT PRIMARY KEY, body TEXT)");
+        jdbc.execute("TRUNCATE TABLE notes_plain");
+        jdbc.execute("TRUNCATE TABLE notes_compressed");
+
+        Random random = new Random(4);
+        List<Object[]> plain = new ArrayList<>();
+        List<Object[]> compressed = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            String body = clinicalText(random, 300 + random.nextInt(1500));
+            plain.add(new Object[]{id, body});
+            compressed.add(new Object[]{id, TextCompression.encode(body)});
+        }
+        jdbc.batchUpdate("INSERT INTO notes_plain (id, body) VALUES (?, ?)", plain);
+        jdbc.batchUpdate("INSERT INTO notes_compressed (id, body) VALUES (?, ?)", compressed);
+        return jdbc;
+    }
+
+    private static long storedBytes(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT SUM(OCTET_LENGTH(body)) FROM " + table, Long.class);
+    }
+
+    /**
+     * Characters read by a range scan that decodes every row
+     */
+    private static long scan(JdbcTemplate jdbc, String table) {
+        long[] characters = new long[1];
+        jdbc.query("SELECT body FROM " + table + " WHERE id BETWEEN ? AND ?",
+                rs -> {
+                    characters[0] += TextCompression.decode(rs.getString(1)).length();
+                }, 1_000L, 4_000L);
+        assertTrue(characters[0] > 0);
+        return characters[0];
+    }
+
+    private static String clinicalText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 100);
+        while (text.length() < length) {
+            text.append(PHRASES[random.nextInt(PHRASES.length)]);
+        }
+        return text.toString();
+    }
+}
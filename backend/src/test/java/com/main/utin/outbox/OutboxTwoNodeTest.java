@@ -0,0 +1,171 @@
+package com.main.utin.outbox;
+
+import com.main.utin.UtinApplication;
+import com.main.utin.analytics.Dimension;
+import com.main.utin.analytics.PrescriptionColumnStore;
+import com.main.utin.dto.PrescriptionRequest;
+import com.main.utin.security.JwtTokenProvider;
+import com.main.utin.security.TokenRevocationList;
+import com.main.utin.service.AuthService;
+import com.main.utin.service.PrescriptionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application instances on one file-based H2 database, standing in for two nodes
+ * behind the load balancer. Writes go through node A; node B must see them through the
+ * outbox. Node B's own fallbacks (column store catch-up, revocation sync) are set to run
+ * only once an hour, so anything B picks up within the test came through the outbox.
+ */
+class OutboxTwoNodeTest {
+
+    private static final LocalDate DAY = LocalDate.of(2001, 2, 3);
+    private static final long TIMEOUT_MS = 10_000;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        String url = "jdbc:h2:file:./target/outbox-test/" + UUID.randomUUID();
+        // Sequential start, so only the first node seeds the users
+        nodeA = start(url, "a");
+        nodeB = start(url, "b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("doctor", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void prescriptionChangesReachTheOtherNodesColumnStore() throws Exception {
+        PrescriptionColumnStore storeB = nodeB.getBean(PrescriptionColumnStore.class);
+        assertTrue(storeB.awaitLoaded(TIMEOUT_MS));
+        PrescriptionService serviceA = nodeA.getBean(PrescriptionService.class);
+
+        Long id = serviceA.createPrescription(request(30), null).getPrescription().getId();
+        // Age bands: 0-17, 18-29, 30-44, 45-59, 60-74, 75+
+        awaitAgeBands(storeB, new long[]{0, 0, 1, 0, 0, 0});
+
+        serviceA.updatePrescription(id, request(80));
+        awaitAgeBands(storeB, new long[]{0, 0, 0, 0, 0, 1});
+
+        serviceA.deletePrescription(id);
+        awaitAgeBands(storeB, new long[]{0, 0, 0, 0, 0, 0});
+    }
+
+    @Test
+    void logoutOnOneNodeRevokesTheTokenOnTheOther() {
+        String token = nodeA.getBean(JwtTokenProvider.class).generateTokenFromUsername("doctor");
+        JwtTokenProvider providerB = nodeB.getBean(JwtTokenProvider.class);
+        TokenRevocationList revocationB = nodeB.getBean(TokenRevocationList.class);
+        assertFalse(revocationB.isRevoked(providerB.parseClaims(token)));
+
+        nodeA.getBean(AuthService.class).logout(token);
+
+        await(() -> revocationB.isRevoked(providerB.parseClaims(token)), "the token to be revoked on node B");
+    }
+
+    @Test
+    void nodesSkipTheirOwnNotices() {
+        OutboxPoller pollerA = nodeA.getBean(OutboxPoller.class);
+        assertNotEquals(nodeA.getBean(OutboxWriter.class).getNodeId(), nodeB.getBean(OutboxWriter.class).getNodeId());
+        long before = pollerA.getLastSeenId();
+
+        PrescriptionRequest request = request(50);
+        // Another day, so the column store test's counts are not affected
+        request.setPrescriptionDate(DAY.minusDays(1));
+        nodeA.getBean(PrescriptionService.class).createPrescription(request, null);
+
+        await(() -> pollerA.getLastSeenId() > before, "node A to read its own notice");
+        // Only node A writes in these tests, so everything node A read was its own
+        assertEquals(0.0, nodeA.getBean(MeterRegistry.class).get("outbox.events.received").counter().count());
+    }
+
+    private static void awaitAgeBands(PrescriptionColumnStore store, long[] expected) {
+        await(() -> Arrays.equals(expected, store.aggregate(DAY, DAY, Dimension.AGE_BAND, null).counts()),
+                "age bands on node B");
+        assertArrayEquals(expected, store.aggregate(DAY, DAY, Dimension.AGE_BAND, null).counts());
+    }
+
+    private static void await(BooleanSupplier condition, String description) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Timed out waiting for " + description);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    private static PrescriptionRequest request(int age) {
+        return PrescriptionRequest.builder()
+                .prescriptionDate(DAY)
+                .patientName("Outbox Patient " + UUID.randomUUID())
+                .patientAge(age)
+                .patientGender("FEMALE")
+                .diagnosis("Seasonal flu")
+                .medicines("Paracetamol 500mg")
+                .build();
+    }
+
+    private static ConfigurableApplicationContext start(String url, String node) {
+        return new SpringApplicationBuilder(UtinApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--jwt.secret=b3V0Ym94LXR3by1ub2RlLXRlc3Qtc2lnbmluZy1rZXktMDEyMzQ1Njc4OQ==",
+                "--jwt.expiration=3600000",
+                "--app.rxnav.offline=true",
+                "--app.rxnav.snapshot-path=target/outbox-test/rxnav-snapshots-" + node + ".log",
+                "--app.admission.enabled=false",
+                "--followup.reminder.enabled=false",
+                "--app.outbox.poll-interval-ms=100",
+                "--app.analytics.catch-up-interval-ms=3600000",
+                "--app.security.revocation.sync-interval-ms=3600000");
+    }
+}
@@ -0,0 +1,201 @@
+package com.main.utin.rxnav;
+
+import com.main.utin.config.RestTemplateConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the client against a local stub that answers, fails or stalls.
+ */
+class RxNavClientTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch slowRequestArrived = new CountDownLatch(1);
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> respond(exchange, 200, "{\"ok\":true}"));
+        server.createContext("/fail", exchange -> respond(exchange, 500, "{}"));
+        server.createContext("/throttled", exchange -> respond(exchange, 429, "{}"));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "{}"));
+        server.createContext("/slow", exchange -> {
+            slowRequestArrived.countDown();
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void readTimeoutBoundsAStalledResponse() {
+        RxNavHttpProperties properties = properties();
+        properties.setReadTimeoutMs(200);
+        RxNavClient client = client(properties);
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> client.get(baseUrl + "/slow"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 1_500, "call should give up at the read timeout, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void failuresOpenTheBreakerAndHalfOpenTrialsCloseIt() throws InterruptedException {
+        RxNavHttpProperties properties = properties();
+        properties.setMinimumCalls(3);
+        properties.setWindowSize(5);
+        properties.setOpenDurationMs(300);
+        properties.setHalfOpenCalls(2);
+        RxNavClient client = client(properties);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RestClientException.class, () -> client.get(baseUrl + "/fail"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        int hitsWhenOpened = hits.get();
+        long start = System.nanoTime();
+        assertThrows(RxNavUnavailableException.class, () -> client.get(baseUrl + "/ok"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50, "open breaker should fail fast");
+        assertEquals(hitsWhenOpened, hits.get(), "open breaker must not reach the server");
+
+        Thread.sleep(350);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.getCircuitState());
+        client.get(baseUrl + "/ok");
+        client.get(baseUrl + "/ok");
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void failedHalfOpenTrialReopensTheBreaker() throws InterruptedException {
+        RxNavHttpProperties properties = properties();
+        properties.setMinimumCalls(2);
+        properties.setOpenDurationMs(200);
+        RxNavClient client = client(properties);
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RestClientException.class, () -> client.get(baseUrl + "/fail"));
+        }
+        Thread.sleep(250);
+        assertThrows(RestClientException.class, () -> client.get(baseUrl + "/fail"));
+
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+    }
+
+    @Test
+    void throttlingOpensTheBreakerButOtherClientErrorsDoNot() {
+        RxNavHttpProperties properties = properties();
+        properties.setMinimumCalls(3);
+        RxNavClient client = client(properties);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpClientErrorException.NotFound.class, () -> client.get(baseUrl + "/missing"));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpClientErrorException.TooManyRequests.class, () -> client.get(baseUrl + "/throttled"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+    }
+
+    @Test
+    void halfOpenTrialThatNeverReachesRxNavReturnsItsPermit() throws InterruptedException {
+        RxNavHttpProperties properties = properties();
+        properties.setMinimumCalls(2);
+        properties.setOpenDurationMs(200);
+        properties.setHalfOpenCalls(1);
+        RxNavClient client = client(properties);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RestClientException.class, () -> client.get(baseUrl + "/fail"));
+        }
+        Thread.sleep(250);
+
+        assertThrows(IllegalArgumentException.class, () -> client.get("http://[not-a-host"));
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.getCircuitState());
+        client.get(baseUrl + "/ok");
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void fullBulkheadRejectsInsteadOfQueueing() throws Exception {
+        RxNavHttpProperties properties = properties();
+        properties.setMaxConcurrentCalls(1);
+        properties.setBulkheadWaitMs(50);
+        properties.setReadTimeoutMs(3_000);
+        RxNavClient client = client(properties);
+
+        Thread slowCall = new Thread(() -> {
+            try {
+                client.get(baseUrl + "/slow");
+            } catch (RuntimeException ignored) {
+                // only used to occupy the single slot
+            }
+        });
+        slowCall.start();
+        assertTrue(slowRequestArrived.await(2, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertThrows(RxNavUnavailableException.class, () -> client.get(baseUrl + "/ok"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500, "rejection should take about the bulkhead wait");
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        slowCall.join();
+    }
+
+    private RxNavHttpProperties properties() {
+        RxNavHttpProperties properties = new RxNavHttpProperties();
+        properties.setConnectTimeoutMs(500);
+        properties.setReadTimeoutMs(1_000);
+        return properties;
+    }
+
+    private RxNavClient client(RxNavHttpProperties properties) {
+        RestTemplate restTemplate = new RestTemplate(RestTemplateConfig.pooledRequestFactory(properties));
+        return new RxNavClient(restTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        hits.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
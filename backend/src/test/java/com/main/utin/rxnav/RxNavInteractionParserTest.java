@@ -0,0 +1,143 @@
+package com.main.utin.rxnav;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.dto.DrugInteractionPair;
+import com.main.utin.dto.DrugInteractionResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RxNavInteractionParserTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RxNavInteractionParserTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RxNavInteractionParser parser = new RxNavInteractionParser(objectMapper);
+
+    @Test
+    void readsOnlyTheFieldsTheUiNeeds() throws Exception {
+        String json = """
+                {"nlmDisclaimer":"...","userInput":{"sources":[""],"rxcui":"341248"},
+                 "interactionTypeGroup":[{"sourceDisclaimer":"DrugBank is intended for educational use",
+                   "sourceName":"DrugBank",
+                   "interactionType":[{"minConceptItem":{"rxcui":"341248","name":"ezetimibe 10 MG","tty":"SCD"},
+                     "interactionPair":[{
+                       "interactionConcept":[
+                         {"minConceptItem":{"rxcui":"341248","name":"ezetimibe 10 MG","tty":"SCD"},
+                          "sourceConceptItem":{"id":"DB00973","name":"Ezetimibe","url":"http://www.drugbank.ca/drugs/DB00973#interactions"}},
+                         {"sourceConceptItem":{"id":"DB00091","name":"Cyclosporine","url":"http://www.drugbank.ca/drugs/DB00091#interactions"}}],
+                       "severity":"N/A",
+                       "description":"Ezetimibe may increase the serum concentration of Cyclosporine."}],
+                     "comment":"Drug1 (rxcui = 341248) is resolved to ezetimibe"}]}]}
+                """;
+
+        DrugInteractionResponse response = parser.parse("341248", json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(1, response.getGroups().size());
+        assertEquals("DrugBank", response.getGroups().get(0).getSourceName());
+        DrugInteractionPair pair = response.getGroups().get(0).getPairs().get(0);
+        assertEquals(List.of("ezetimibe 10 MG", "Cyclosporine"), pair.getDrugs());
+        assertEquals("341248", pair.getRxcuis().get(0));
+        assertEquals("N/A", pair.getSeverity());
+        assertEquals("Drug1 (rxcui = 341248) is resolved to ezetimibe", pair.getComment());
+    }
+
+    @Test
+    void emptyResponseHasNoGroups() throws Exception {
+        String json = "{\"nlmDisclaimer\":\"...\",\"userInput\":{\"rxcui\":\"1\"}}";
+
+        DrugInteractionResponse response = parser.parse("1", json.getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(response.getGroups().isEmpty());
+    }
+
+    /**
+     * Compares the old Object passthrough (full tree of maps and lists) with the
+     * streaming parse on a payload with thousands of pairs. Only allocation is
+     * asserted since timings vary between machines.
+     */
+    @Test
+    void streamingParseAllocatesLessThanTreeParseOnLargePayloads() throws Exception {
+        ParseCost cost = measure(largePayload(5_000), 20, 10);
+
+        assertTrue(cost.streamBytes() < cost.treeBytes(), "streaming parse should allocate less than the tree parse");
+    }
+
+    /**
+     * Allocation and latency of both parses per call; run with -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkAllocationAndLatency() throws Exception {
+        byte[] body = largePayload(5_000);
+        ParseCost cost = measure(body, 200, 50);
+        log.info("RxNav parse of {} KB: tree {} KB / {} ms, streaming {} KB / {} ms per call",
+                body.length / 1024, cost.treeBytes() / 1024, String.format("%.2f", cost.treeNanos() / 1e6),
+                cost.streamBytes() / 1024, String.format("%.2f", cost.streamNanos() / 1e6));
+    }
+
+    private record ParseCost(long treeBytes, long treeNanos, long streamBytes, long streamNanos) {
+    }
+
+    /**
+     * Per-call allocation on this thread and mean latency of each parse, after warm-up calls
+     */
+    private ParseCost measure(byte[] body, int warmups, int rounds) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < warmups; i++) {
+            objectMapper.readValue(body, Object.class);
+            parser.parse("341248", body);
+        }
+
+        long allocBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            objectMapper.readValue(body, Object.class);
+        }
+        long treeNanos = (System.nanoTime() - start) / rounds;
+        long treeBytes = (threads.getThreadAllocatedBytes(threadId) - allocBefore) / rounds;
+
+        allocBefore = threads.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            parser.parse("341248", body);
+        }
+        long streamNanos = (System.nanoTime() - start) / rounds;
+        long streamBytes = (threads.getThreadAllocatedBytes(threadId) - allocBefore) / rounds;
+        return new ParseCost(treeBytes, treeNanos, streamBytes, streamNanos);
+    }
+
+    private static byte[] largePayload(int pairs) {
+        StringBuilder json = new StringBuilder(pairs * 600);
+        json.append("{\"nlmDisclaimer\":\"It is not the intention of NLM to provide specific medical advice.\",")
+                .append("\"userInput\":{\"sources\":[\"\"],\"rxcui\":\"341248\"},")
+                .append("\"interactionTypeGroup\":[{\"sourceDisclaimer\":\"DrugBank is intended for educational and scientific research purposes only.\",")
+                .append("\"sourceName\":\"DrugBank\",\"interactionType\":[{")
+                .append("\"minConceptItem\":{\"rxcui\":\"341248\",\"name\":\"ezetimibe 10 MG Oral Tablet\",\"tty\":\"SCD\"},")
+                .append("\"interactionPair\":[");
+        for (int i = 0; i < pairs; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"interactionConcept\":[")
+                    .append("{\"minConceptItem\":{\"rxcui\":\"341248\",\"name\":\"ezetimibe 10 MG Oral Tablet\",\"tty\":\"SCD\"},")
+                    .append("\"sourceConceptItem\":{\"id\":\"DB00973\",\"name\":\"Ezetimibe\",\"url\":\"http://www.drugbank.ca/drugs/DB00973#interactions\"}},")
+                    .append("{\"minConceptItem\":{\"rxcui\":\"").append(100000 + i).append("\",\"name\":\"drug ").append(i).append("\",\"tty\":\"IN\"},")
+                    .append("\"sourceConceptItem\":{\"id\":\"DB").append(10000 + i).append("\",\"name\":\"Drug ").append(i)
+                    .append("\",\"url\":\"http://www.drugbank.ca/drugs/DB").append(10000 + i).append("#interactions\"}}],")
+                    .append("\"severity\":\"N/A\",\"description\":\"Ezetimibe may increase the serum concentration of drug ").append(i).append(".\"}");
+        }
+        json.append("],\"comment\":\"Drug1 (rxcui = 341248) is resolved to ezetimibe 10 MG Oral Tablet\"}]}]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package com.main.utin.rxnav;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RxNavSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private RxNavSnapshotStore store;
+
+    @AfterEach
+    void closeStore() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void servesTheLatestRecordPerKeyAfterReopening() throws IOException {
+        store = open();
+        store.put("1", bytes("first"), 1_000);
+        store.put("2", bytes("other"), 2_000);
+        store.put("1", bytes("second"), 3_000);
+
+        store = reopen();
+
+        assertEquals(2, store.keys().size());
+        RxNavSnapshot snapshot = store.get("1").orElseThrow();
+        assertArrayEquals(bytes("second"), snapshot.body());
+        assertEquals(3_000, snapshot.fetchedAtMillis());
+        assertEquals(2_000L, store.fetchedAt("2").orElseThrow());
+    }
+
+    @Test
+    void cutsOffATornTailOnOpen() throws IOException {
+        store = open();
+        store.put("1", bytes("kept"), 1_000);
+        long intact = Files.size(file());
+        store.close();
+        // A crash in the middle of the next record's header
+        Files.write(file(), new byte[]{0x52, 0x58, 0x4e, 0x56, 0, 0}, StandardOpenOption.APPEND);
+
+        store = open();
+
+        assertEquals(intact, Files.size(file()));
+        assertArrayEquals(bytes("kept"), store.get("1").orElseThrow().body());
+    }
+
+    @Test
+    void dropsRecordsFromTheFirstCrcMismatchOn() throws IOException {
+        store = open();
+        store.put("1", bytes("kept"), 1_000);
+        long firstRecordEnd = Files.size(file());
+        store.put("2", bytes("corrupted"), 2_000);
+        store.close();
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), Files.size(file()) - 1);
+        }
+
+        store = open();
+
+        assertTrue(store.get("1").isPresent());
+        assertFalse(store.get("2").isPresent());
+        assertEquals(firstRecordEnd, Files.size(file()));
+    }
+
+    @Test
+    void compactionKeepsOnlyTheLatestRecordPerKey() throws IOException {
+        store = open();
+        store.put("small", bytes("unchanged"), 1);
+        byte[] body = new byte[100 * 1024];
+        for (int i = 0; i < 30; i++) {
+            Arrays.fill(body, (byte) i);
+            store.put("large", body, i);
+        }
+
+        // Thirty 100 KB records would be 3 MB; compaction runs once the file passes 1 MB
+        assertTrue(Files.size(file()) < 1024 * 1024 + 2 * body.length, "file is " + Files.size(file()) + " bytes");
+        assertArrayEquals(body, store.get("large").orElseThrow().body());
+        store = reopen();
+        assertArrayEquals(body, store.get("large").orElseThrow().body());
+        assertArrayEquals(bytes("unchanged"), store.get("small").orElseThrow().body());
+    }
+
+    @Test
+    void readersNeverMissAKeyWhileCompactionRebuildsTheIndex() throws Exception {
+        store = open();
+        int keys = 2_000;
+        for (int i = 0; i < keys; i++) {
+            store.put("small-" + i, bytes("unchanged"), i);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; writing.get(); i = (i + 1) % keys) {
+                if (store.fetchedAt("small-" + i).isEmpty() || store.keys().size() < keys) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        byte[] body = new byte[100 * 1024];
+        for (int i = 0; i < 100; i++) {
+            store.put("large", body, i);
+        }
+        writing.set(false);
+        reader.join();
+
+        assertEquals(0, misses.get());
+    }
+
+    private RxNavSnapshotStore open() throws IOException {
+        RxNavSnapshotStore opened = new RxNavSnapshotStore();
+        ReflectionTestUtils.setField(opened, "snapshotPath", file().toString());
+        opened.open();
+        return opened;
+    }
+
+    private RxNavSnapshotStore reopen() throws IOException {
+        store.close();
+        return open();
+    }
+
+    private Path file() {
+        return dir.resolve("snapshots.log");
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
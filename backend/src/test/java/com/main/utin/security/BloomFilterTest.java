@@ -0,0 +1,74 @@
+package com.main.utin.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKeyAndStaysNearTheTargetRate() {
+        int keys = 100_000;
+        BloomFilter filter = BloomFilter.create(keys, 0.001);
+        List<String> added = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            String jti = UUID.randomUUID().toString();
+            filter.put(jti);
+            added.add(jti);
+        }
+        for (String jti : added) {
+            assertTrue(filter.mightContain(jti), jti);
+        }
+
+        int probes = 1_000_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.002, "false positive rate " + rate);
+    }
+
+    /**
+     * Lookup cost of the not-revoked case. The bound is loose since timings depend on the machine;
+     * it only catches a lookup that stops being a handful of bit probes.
+     */
+    @Test
+    void lookupOfAnAbsentKeyTakesNanoseconds() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.001);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        String[] probes = new String[10_000];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = UUID.randomUUID().toString();
+        }
+        int hits = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 50; round++) {
+            long start = System.nanoTime();
+            for (String probe : probes) {
+                if (filter.mightContain(probe)) {
+                    hits++;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long perLookup = best / probes.length;
+        assertTrue(perLookup < 5_000, "absent-key lookup took " + perLookup + " ns");
+        assertTrue(hits < probes.length);
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(1000, 1.0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.main.utin.security;
+
+import com.main.utin.entity.RevokedToken;
+import com.main.utin.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private RevokedTokenRepository repository;
+    private List<RevokedToken> table;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        table = new ArrayList<>();
+        when(repository.findByExpiresAtAfter(any())).thenAnswer(invocation -> new ArrayList<>(table));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            table.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.existsByJti(anyString())).thenAnswer(invocation ->
+                table.stream().anyMatch(row -> invocation.getArgument(0).equals(row.getJti())));
+        JwtTokenProvider tokenProvider = mock(JwtTokenProvider.class);
+        when(tokenProvider.getExpirationMs()).thenReturn(3_600_000L);
+
+        revocationList = new TokenRevocationList(repository, tokenProvider, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.001);
+        revocationList.rebuild();
+    }
+
+    @Test
+    void tokensNeverRevokedDoNotTouchTheTable() {
+        for (int i = 0; i < 100; i++) {
+            assertFalse(revocationList.isRevoked(claims("jti-" + i, "doctor", new Date())));
+        }
+        verify(repository, never()).existsByJti(anyString());
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndSurvivesRebuild() {
+        revocationList.revokeToken("leaked", "doctor", LocalDateTime.now().plusHours(1), "admin");
+        assertTrue(revocationList.isRevoked(claims("leaked", "doctor", new Date())));
+        assertFalse(revocationList.isRevoked(claims("other", "doctor", new Date())));
+
+        revocationList.rebuild();
+        assertTrue(revocationList.isRevoked(claims("leaked", "doctor", new Date())));
+    }
+
+    @Test
+    void killSwitchRevokesEarlierTokensOnly() {
+        Date issuedBefore = new Date(System.currentTimeMillis() - 60_000);
+        revocationList.revokeAllTokens("doctor", "admin");
+
+        assertTrue(revocationList.isRevoked(claims("a", "doctor", issuedBefore)));
+        assertTrue(revocationList.isRevoked(claims(null, "doctor", issuedBefore)));
+        assertFalse(revocationList.isRevoked(claims("b", "doctor", new Date(System.currentTimeMillis() + 2_000))));
+        assertFalse(revocationList.isRevoked(claims("c", "nurse", issuedBefore)));
+    }
+
+    private static Claims claims(String jti, String username, Date issuedAt) {
+        return Jwts.claims().id(jti).subject(username).issuedAt(issuedAt).build();
+    }
+}
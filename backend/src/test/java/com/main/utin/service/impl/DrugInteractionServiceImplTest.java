@@ -0,0 +1,99 @@
+package com.main.utin.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.rxnav.CircuitBreaker;
+import com.main.utin.rxnav.RxNavClient;
+import com.main.utin.rxnav.RxNavInteractionParser;
+import com.main.utin.rxnav.RxNavSnapshotStore;
+import com.main.utin.rxnav.RxNavUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DrugInteractionServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RxNavSnapshotStore store;
+
+    @AfterEach
+    void closeStore() {
+        if (store != null) {
+            ReflectionTestUtils.invokeMethod(store, "close");
+        }
+    }
+
+    @Test
+    void namesResolvedOnlineStillResolveOfflineAfterARestart() {
+        RxNavClient online = mock(RxNavClient.class);
+        when(online.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+        when(online.get(anyString(), eq("warfarin"))).thenReturn("{\"idGroup\":{\"rxnormId\":[\"11289\"]}}");
+        when(online.get(anyString(), eq("madeupol"))).thenReturn("{\"idGroup\":{}}");
+        DrugInteractionServiceImpl service = service(online, false);
+
+        assertEquals(Optional.of("11289"), service.resolveRxcui("Warfarin "));
+        assertEquals(Optional.empty(), service.resolveRxcui("madeupol"));
+        assertEquals(Optional.of("11289"), service.resolveRxcui("warfarin"));
+        verify(online, times(1)).get(anyString(), eq("warfarin"));
+
+        reopenStore();
+        RxNavClient offlineClient = mock(RxNavClient.class);
+        DrugInteractionServiceImpl offline = service(offlineClient, true);
+
+        assertEquals(Optional.of("11289"), offline.resolveRxcui("warfarin"));
+        assertEquals(Optional.empty(), offline.resolveRxcui("madeupol"));
+        assertThrows(RxNavUnavailableException.class, () -> offline.resolveRxcui("aspirin"));
+        verifyNoInteractions(offlineClient);
+    }
+
+    @Test
+    void storedNameLookupsAreNotTreatedAsInteractionSnapshots() {
+        RxNavClient online = mock(RxNavClient.class);
+        when(online.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+        when(online.get(anyString(), eq("warfarin"))).thenReturn("{\"idGroup\":{\"rxnormId\":[\"11289\"]}}");
+        service(online, false).resolveRxcui("warfarin");
+
+        DrugInteractionServiceImpl restarted = service(online, false);
+        ReflectionTestUtils.setField(restarted, "maxAgeMs", -1L);
+        restarted.refreshStaleSnapshots();
+
+        // Refreshes run on a background thread; give a wrongly queued one time to show up
+        verify(online, after(300).times(1)).get(anyString(), anyString());
+    }
+
+    private DrugInteractionServiceImpl service(RxNavClient client, boolean offline) {
+        if (store == null) {
+            reopenStore();
+        }
+        DrugInteractionServiceImpl service = new DrugInteractionServiceImpl(client, store,
+                new RxNavInteractionParser(objectMapper), objectMapper);
+        ReflectionTestUtils.setField(service, "offline", offline);
+        ReflectionTestUtils.setField(service, "maxAgeMs", 21_600_000L);
+        ReflectionTestUtils.invokeMethod(service, "warmUp");
+        return service;
+    }
+
+    private void reopenStore() {
+        closeStore();
+        store = new RxNavSnapshotStore();
+        ReflectionTestUtils.setField(store, "snapshotPath", dir.resolve("snapshots.log").toString());
+        ReflectionTestUtils.invokeMethod(store, "open");
+    }
+}
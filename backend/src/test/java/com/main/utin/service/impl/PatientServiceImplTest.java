@@ -0,0 +1,98 @@
+package com.main.utin.service.impl;
+
+import com.main.utin.entity.Patient;
+import com.main.utin.repository.PatientRepository;
+import com.main.utin.security.JwtTokenProvider;
+import com.main.utin.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "jwt.secret=cGF0aWVudC1zZXJ2aWNlLXRlc3Qtc2lnbmluZy1rZXktMDEyMzQ1Njc4OWFi",
+        "jwt.expiration=3600000",
+        "app.rxnav.offline=true",
+        "app.rxnav.snapshot-path=target/patient-service/rxnav-snapshots.log",
+        "app.admission.enabled=false",
+        "followup.reminder.enabled=false"
+})
+class PatientServiceImplTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void concurrentResolvesOfANewPatientCreateOneRow() throws Exception {
+        String name = "Race Patient " + UUID.randomUUID();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> ids = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                ids.add(executor.submit(() -> {
+                    start.await();
+                    return patientService.resolvePatient(name, 40, "FEMALE", LocalDate.now()).getId();
+                }));
+            }
+            start.countDown();
+
+            List<Long> resolved = new ArrayList<>();
+            for (Future<Long> id : ids) {
+                resolved.add(id.get());
+            }
+            assertEquals(1, resolved.stream().distinct().count());
+        } finally {
+            executor.shutdownNow();
+        }
+        String normalized = PatientServiceImpl.normalizeName(name);
+        List<Patient> rows = patientRepository.findAll().stream()
+                .filter(patient -> patient.getNormalizedName().equals(normalized))
+                .collect(Collectors.toList());
+        assertEquals(1, rows.size());
+    }
+
+    @Test
+    void prescriptionForAnotherPatientsIdIsRejected() throws Exception {
+        Patient patient = patientService.resolvePatient("Id Owner " + UUID.randomUUID(), 30, "MALE", LocalDate.now());
+        String body = "{\"patientId\":" + patient.getId() + ",\"prescriptionDate\":\"" + LocalDate.now() + "\","
+                + "\"patientName\":\"Someone Else\",\"patientAge\":30,\"patientGender\":\"MALE\","
+                + "\"diagnosis\":\"Seasonal flu\",\"medicines\":\"Paracetamol 500mg\"}";
+
+        mockMvc.perform(post("/api/v1/prescription")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenProvider.generateTokenFromUsername("doctor"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+}
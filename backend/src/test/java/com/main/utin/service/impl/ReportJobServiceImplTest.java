@@ -0,0 +1,223 @@
+package com.main.utin.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.main.utin.dto.DayWiseCountResponse;
+import com.main.utin.dto.ReportJobRequest;
+import com.main.utin.dto.ReportJobResponse;
+import com.main.utin.entity.ReportJob;
+import com.main.utin.entity.ReportJobStatus;
+import com.main.utin.exception.BusinessException;
+import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.repository.ReportJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Submit, cancel and stream lifecycle of report jobs on a single-worker pool. Job rows
+ * live in a map behind a mocked repository; each month's count blocks until released,
+ * so a test can hold a job in a known state.
+ */
+class ReportJobServiceImplTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final Map<String, ReportJob> rows = new ConcurrentHashMap<>();
+    private final ReportJobRepository reportJobRepository = mock(ReportJobRepository.class);
+    private final PrescriptionRepository prescriptionRepository = mock(PrescriptionRepository.class);
+    private final CountDownLatch counting = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private ReportJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(reportJobRepository.save(any(ReportJob.class))).thenAnswer(invocation -> {
+            ReportJob job = invocation.getArgument(0);
+            rows.put(job.getId(), job);
+            return job;
+        });
+        when(reportJobRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+        when(prescriptionRepository.getDayWisePrescriptionCount(any(), any())).thenAnswer(invocation -> {
+            counting.countDown();
+            assertTrue(release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            return List.<Object[]>of(new Object[]{invocation.<LocalDate>getArgument(0), 2L});
+        });
+
+        service = new ReportJobServiceImpl() {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "reportJobRepository", reportJobRepository);
+        ReflectionTestUtils.setField(service, "prescriptionRepository", prescriptionRepository);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "parallelism", 1);
+        ReflectionTestUtils.setField(service, "maxMonths", 240);
+        ReflectionTestUtils.setField(service, "streamTimeoutMs", TIMEOUT_MS);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void startupFailsJobsLeftUnfinishedByThePreviousRun() {
+        verify(reportJobRepository).failAllWithStatusIn(
+                eq(List.of(ReportJobStatus.PENDING, ReportJobStatus.RUNNING)), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void completedJobHoldsOneRowPerMonthInOrder() {
+        release.countDown();
+        ReportJobResponse submitted = service.submitJob(range("2024-01-15", "2024-03-10"));
+
+        ReportJobResponse done = awaitStatus(submitted.getJobId(), ReportJobStatus.COMPLETED);
+
+        assertEquals(3, done.getPartitionsDone());
+        assertEquals(List.of("2024-01-15", "2024-02-01", "2024-03-01"),
+                done.getResult().stream().map(DayWiseCountResponse::getDay).collect(Collectors.toList()));
+    }
+
+    @Test
+    void cancellingARunningJobStopsItAtTheNextPartition() throws Exception {
+        ReportJobResponse submitted = service.submitJob(range("2024-01-01", "2024-03-31"));
+        assertTrue(counting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        service.cancelJob(submitted.getJobId());
+        release.countDown();
+
+        awaitStatus(submitted.getJobId(), ReportJobStatus.CANCELLED);
+        assertThrows(BusinessException.class, () -> service.cancelJob(submitted.getJobId()));
+    }
+
+    @Test
+    void cancellingAQueuedJobFinishesItOnce() throws Exception {
+        ReportJobResponse blocker = service.submitJob(range("2024-01-01", "2024-01-31"));
+        assertTrue(counting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        ReportJobResponse queued = service.submitJob(range("2024-02-01", "2024-02-29"));
+        service.streamJob(queued.getJobId());
+
+        service.cancelJob(queued.getJobId());
+        release.countDown();
+
+        awaitStatus(blocker.getJobId(), ReportJobStatus.COMPLETED);
+        awaitStatus(queued.getJobId(), ReportJobStatus.CANCELLED);
+        RecordingEmitter stream = emitters.get(0);
+        await(() -> stream.completed, "the cancelled job's stream to complete");
+        assertEquals(1, stream.results());
+    }
+
+    @Test
+    void streamOpenedWhileRunningGetsProgressThenOneResult() throws Exception {
+        ReportJobResponse submitted = service.submitJob(range("2024-01-01", "2024-02-29"));
+        assertTrue(counting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        service.streamJob(submitted.getJobId());
+        RecordingEmitter stream = emitters.get(0);
+
+        release.countDown();
+
+        await(() -> stream.completed, "the stream to complete");
+        assertTrue(stream.events.get(0).startsWith("event:progress"), stream.events.get(0));
+        assertEquals(1, stream.results());
+        assertTrue(stream.events.get(stream.events.size() - 1).startsWith("event:result"));
+    }
+
+    @Test
+    void streamOpenedAfterCompletionGetsOnlyTheResult() {
+        release.countDown();
+        ReportJobResponse submitted = service.submitJob(range("2024-01-01", "2024-01-31"));
+        awaitStatus(submitted.getJobId(), ReportJobStatus.COMPLETED);
+
+        service.streamJob(submitted.getJobId());
+
+        RecordingEmitter stream = emitters.get(0);
+        assertTrue(stream.completed);
+        assertEquals(1, stream.events.size());
+        assertEquals(1, stream.results());
+    }
+
+    private ReportJobResponse awaitStatus(String jobId, ReportJobStatus status) {
+        await(() -> status.name().equals(service.getJob(jobId).getStatus()), "job " + jobId + " to be " + status);
+        return service.getJob(jobId);
+    }
+
+    private static ReportJobRequest range(String startDate, String endDate) {
+        return ReportJobRequest.builder()
+                .startDate(LocalDate.parse(startDate))
+                .endDate(LocalDate.parse(endDate))
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition, String description) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Timed out waiting for " + description);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    /** Keeps the events instead of writing them to a response */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        long results() {
+            return events.stream().filter(event -> event.startsWith("event:result")).count();
+        }
+    }
+}
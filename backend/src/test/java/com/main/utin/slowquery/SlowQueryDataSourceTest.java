@@ -0,0 +1,75 @@
+package com.main.utin.slowquery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryDataSourceTest {
+
+    private DriverManagerDataSource h2;
+    private SlowQueryProperties properties;
+    private SlowQueryLog slowQueryLog;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        h2 = new DriverManagerDataSource("jdbc:h2:mem:slow-query-test;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(h2).execute("CREATE TABLE IF NOT EXISTS slow_test (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+        new JdbcTemplate(h2).execute("MERGE INTO slow_test KEY (id) VALUES (1, 'alpha'), (2, 'beta'), (3, 'gamma')");
+
+        properties = new SlowQueryProperties();
+        // Every statement counts as slow
+        properties.setThresholdMs(0);
+        properties.setMaxEntries(2);
+        slowQueryLog = new SlowQueryLog(properties, new SimpleMeterRegistry());
+        slowQueryLog.setPlanDataSource(h2);
+        jdbcTemplate = new JdbcTemplate(new SlowQueryDataSource(h2, slowQueryLog, properties.getThresholdMs()));
+    }
+
+    @Test
+    void recordsParametersRowsCallerAndPlan() throws Exception {
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM slow_test WHERE id >= ? AND name <> ?",
+                String.class, 2L, "none");
+        assertEquals(2, names.size());
+
+        SlowQuery query = awaitPlan();
+        assertEquals("SELECT name FROM slow_test WHERE id >= ? AND name <> ?", query.sql());
+        assertEquals(List.of("2", "'none'"), query.parameters());
+        assertEquals(2, query.rows());
+        assertTrue(query.caller().startsWith("SlowQueryDataSourceTest.recordsParametersRowsCallerAndPlan:"), query.caller());
+        // H2 quotes identifiers in plans: "PUBLIC"."SLOW_TEST"
+        assertTrue(query.plan().contains("SLOW_TEST"), query.plan());
+    }
+
+    @Test
+    void countsUpdatedRowsAndKeepsOnlyTheSlowestEntries() {
+        assertEquals(3, jdbcTemplate.update("UPDATE slow_test SET name = name WHERE id > ?", 0L));
+        jdbcTemplate.queryForList("SELECT id FROM slow_test", Long.class);
+        jdbcTemplate.queryForList("SELECT name FROM slow_test", String.class);
+
+        List<SlowQuery> entries = slowQueryLog.getEntries();
+        assertTrue(entries.size() <= properties.getMaxEntries());
+        assertTrue(entries.get(0).worstNanos() >= entries.get(entries.size() - 1).worstNanos());
+    }
+
+    private SlowQuery awaitPlan() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            SlowQuery query = slowQueryLog.getEntries().get(0);
+            if (query.plan() != null) {
+                return query;
+            }
+            Thread.sleep(50);
+        }
+        SlowQuery query = slowQueryLog.getEntries().get(0);
+        assertNotNull(query.plan(), "no plan captured");
+        return query;
+    }
+}
@@ -0,0 +1,319 @@
+package com.main.utin.sql;
+
+import com.main.utin.analytics.PrescriptionColumnStore;
+import com.main.utin.entity.Patient;
+import com.main.utin.entity.Prescription;
+import com.main.utin.entity.User;
+import com.main.utin.repository.PrescriptionRepository;
+import com.main.utin.repository.UserRepository;
+import com.main.utin.rxnav.RxNavSnapshotStore;
+import com.main.utin.security.JwtTokenProvider;
+import com.main.utin.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per endpoint. Each test performs one request and fails
+ * when it issues more statements than budgeted or repeats a SELECT (N+1).
+ * Authenticated requests include the user lookup done by the JWT filter; its token
+ * revocation check answers from memory for tokens that were never revoked. Mutations
+ * include one outbox insert each, which other nodes use to invalidate their caches; a delete
+ * also leaves a tombstone for sync clients.
+ * When a change legitimately needs more queries, raise the budget in the same change.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.main.utin.sql.SqlStatementRecorder",
+        "jwt.secret=c3FsLWJ1ZGdldC10ZXN0LXNpZ25pbmcta2V5LTAxMjM0NTY3ODlhYmNkZWY=",
+        "jwt.expiration=3600000",
+        "app.rxnav.offline=true",
+        "app.rxnav.snapshot-path=target/sql-budget/rxnav-snapshots.log",
+        "app.admission.enabled=false",
+        "followup.reminder.enabled=false"
+})
+class EndpointSqlBudgetTest {
+
+    private static final String PATIENT_NAME = "Budget Patient";
+    private static final int PATIENT_AGE = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private RxNavSnapshotStore snapshotStore;
+
+    @Autowired
+    private PrescriptionColumnStore columnStore;
+
+    private String token;
+    private Prescription prescription;
+    private List<Long> seededIds;
+    private Patient patient;
+
+    @BeforeEach
+    void seed() throws Exception {
+        token = jwtTokenProvider.generateTokenFromUsername("doctor");
+        User doctor = userRepository.findByUsername("doctor").orElseThrow();
+        User other = userRepository.findByUsername("budget-other").orElseGet(() -> userRepository.save(User.builder()
+                .username("budget-other")
+                .password("unused")
+                .fullName("Other Doctor")
+                .email("budget-other@example.com")
+                .role("ROLE_USER")
+                .active(true)
+                .build()));
+
+        LocalDate today = LocalDate.now();
+        patient = patientService.resolvePatient(PATIENT_NAME, PATIENT_AGE, "MALE", today);
+        prescription = prescriptionRepository.save(prescription(doctor, today));
+        // A second creator, so a lazy createdBy load per row would show up as a repeated SELECT
+        seededIds = List.of(prescription.getId(),
+                prescriptionRepository.save(prescription(other, today)).getId(),
+                prescriptionRepository.save(prescription(other, today)).getId());
+
+        snapshotStore.put("341248", "{\"interactionTypeGroup\":[]}".getBytes(StandardCharsets.UTF_8),
+                System.currentTimeMillis());
+        columnStore.awaitLoaded(10_000);
+    }
+
+    @Test
+    void register() throws Exception {
+        String username = "budget-" + UUID.randomUUID().toString().substring(0, 8);
+        assertBudget(SqlBudget.of("POST /api/v1/auth/register", 4), post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"secret123\","
+                        + "\"fullName\":\"Budget User\",\"email\":\"" + username + "@example.com\"}"), false);
+    }
+
+    @Test
+    void login() throws Exception {
+        // The authentication provider and the response both look the user up
+        assertBudget(SqlBudget.of("POST /api/v1/auth/login", 2).withMaxRepeats(2), post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"doctor\",\"password\":\"password123\"}"), false);
+    }
+
+    @Test
+    void logout() throws Exception {
+        assertBudget(SqlBudget.of("POST /api/v1/auth/logout", 3), post("/api/v1/auth/logout"));
+    }
+
+    @Test
+    void createPrescription() throws Exception {
+        // JWT filter and getCurrentUser both load the user; one indexed duplicate lookup by content hash;
+        // patient, screening and outbox rows are written
+        assertBudget(SqlBudget.of("POST /api/v1/prescription", 9).withMaxRepeats(2), post("/api/v1/prescription")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(prescriptionJson("Budget Create " + UUID.randomUUID(), "Paracetamol 500mg")));
+    }
+
+    @Test
+    void replayPrescriptionCreate() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = prescriptionJson("Budget Replay " + key, "Paracetamol 500mg");
+        mockMvc.perform(post("/api/v1/prescription")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+        // A retry is a key lookup plus the same reads as GET /{id}
+        assertBudget(SqlBudget.of("POST /api/v1/prescription (replay)", 6).withMaxRepeats(2), post("/api/v1/prescription")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    @Test
+    void getPrescription() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/prescription/{id}", 4),
+                get("/api/v1/prescription/" + prescription.getId()));
+    }
+
+    @Test
+    void listPrescriptions() throws Exception {
+        LocalDate today = LocalDate.now();
+        assertBudget(SqlBudget.of("GET /api/v1/prescription", 2), get("/api/v1/prescription")
+                .param("startDate", today.toString())
+                .param("endDate", today.toString()));
+    }
+
+    @Test
+    void listPrescriptionsFiltered() throws Exception {
+        // Every filter and the sort go into the one list query, creator fetched in the same join
+        LocalDate today = LocalDate.now();
+        assertBudget(SqlBudget.of("GET /api/v1/prescription?filters", 2), get("/api/v1/prescription")
+                .param("startDate", today.minusDays(30).toString())
+                .param("endDate", today.toString())
+                .param("gender", "MALE")
+                .param("minAge", "18")
+                .param("maxAge", "65")
+                .param("name", "budget")
+                .param("doctor", "budget-other")
+                .param("sort", "PATIENT_NAME")
+                .param("direction", "ASC")
+                .param("limit", "20"));
+    }
+
+    @Test
+    void listPrescriptionsSearched() throws Exception {
+        // The diagnosis text search filters the streamed rows; it must not load anything per row
+        LocalDate today = LocalDate.now();
+        assertBudget(SqlBudget.of("GET /api/v1/prescription?search", 2), get("/api/v1/prescription")
+                .param("startDate", today.toString())
+                .param("endDate", today.toString())
+                .param("search", "FLU")
+                .param("limit", "2"));
+    }
+
+    @Test
+    void updatePrescription() throws Exception {
+        assertBudget(SqlBudget.of("PUT /api/v1/prescription/{id}", 8), put("/api/v1/prescription/" + prescription.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(prescriptionJson(PATIENT_NAME, "Omeprazole 20mg")));
+    }
+
+    @Test
+    void deletePrescription() throws Exception {
+        assertBudget(SqlBudget.of("DELETE /api/v1/prescription/{id}", 7),
+                delete("/api/v1/prescription/" + prescription.getId()));
+    }
+
+    @Test
+    void syncUpToDate() throws Exception {
+        // A client with nothing new costs the user lookup plus one probe each for changes and deletes
+        assertBudget(SqlBudget.of("GET /api/v1/prescription/sync", 3), get("/api/v1/prescription/sync")
+                .param("since", LocalDateTime.now().minusSeconds(1).toString())
+                .param("sinceId", "0"));
+    }
+
+    @Test
+    void dayWiseReport() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/prescription/report/day-wise-count", 2),
+                get("/api/v1/prescription/report/day-wise-count"));
+    }
+
+    @Test
+    void breakdownReport() throws Exception {
+        // Served from the column store; only doctor labels touch the database
+        LocalDate today = LocalDate.now();
+        assertBudget(SqlBudget.of("GET /api/v1/prescription/report/breakdown", 2), get("/api/v1/prescription/report/breakdown")
+                .param("startDate", today.minusDays(30).toString())
+                .param("endDate", today.toString())
+                .param("by", "DOCTOR")
+                .param("thenBy", "GENDER"));
+    }
+
+    @Test
+    void dashboard() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/prescription/dashboard", 5),
+                get("/api/v1/prescription/dashboard"));
+    }
+
+    @Test
+    void followUps() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/prescription/follow-ups", 2),
+                get("/api/v1/prescription/follow-ups"));
+    }
+
+    @Test
+    void batchGet() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/prescription/batch", 3), get("/api/v1/prescription/batch")
+                .param("ids", seededIds.stream().map(String::valueOf).collect(Collectors.joining(","))));
+    }
+
+    @Test
+    void patientSearch() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/patients", 2), get("/api/v1/patients").param("name", "budget"));
+    }
+
+    @Test
+    void patientTimeline() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/patients/{id}/prescriptions", 3),
+                get("/api/v1/patients/" + patient.getId() + "/prescriptions"));
+    }
+
+    @Test
+    void auditLog() throws Exception {
+        token = jwtTokenProvider.generateTokenFromUsername("admin");
+        assertBudget(SqlBudget.of("GET /api/v1/admin/audit", 2), get("/api/v1/admin/audit")
+                .param("prescriptionId", String.valueOf(prescription.getId())));
+    }
+
+    @Test
+    void drugInteraction() throws Exception {
+        assertBudget(SqlBudget.of("GET /api/v1/drug-interaction", 1), get("/api/v1/drug-interaction"));
+    }
+
+    private void assertBudget(SqlBudget budget, MockHttpServletRequestBuilder request) throws Exception {
+        assertBudget(budget, request, true);
+    }
+
+    private void assertBudget(SqlBudget budget, MockHttpServletRequestBuilder request, boolean authenticated) throws Exception {
+        if (authenticated) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        List<String> statements;
+        SqlStatementRecorder.start();
+        try {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        } finally {
+            statements = SqlStatementRecorder.stop();
+        }
+        budget.assertWithin(statements);
+    }
+
+    private Prescription prescription(User createdBy, LocalDate date) {
+        return Prescription.builder()
+                .patient(patient)
+                .prescriptionDate(date)
+                .patientName(PATIENT_NAME)
+                .patientAge(PATIENT_AGE)
+                .patientGender("MALE")
+                .diagnosis("Seasonal flu")
+                .medicines("Paracetamol 500mg")
+                .nextVisitDate(date.plusDays(3))
+                .createdBy(createdBy)
+                .build();
+    }
+
+    private static String prescriptionJson(String patientName, String medicines) {
+        return "{\"prescriptionDate\":\"" + LocalDate.now() + "\",\"patientName\":\"" + patientName + "\","
+                + "\"patientAge\":" + PATIENT_AGE + ",\"patientGender\":\"MALE\",\"diagnosis\":\"Seasonal flu\","
+                + "\"medicines\":\"" + medicines + "\",\"nextVisitDate\":\"" + LocalDate.now().plusDays(3) + "\"}";
+    }
+}
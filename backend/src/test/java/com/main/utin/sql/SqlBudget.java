@@ -0,0 +1,64 @@
+package com.main.utin.sql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Statement budget for one endpoint: the total number of statements a request
+ * may issue, and how often the same SELECT may repeat. A SELECT repeated more
+ * often than allowed is the N+1 signature (one lazy load per row) even when the
+ * total is still small.
+ */
+public record SqlBudget(String endpoint, int maxStatements, int maxRepeats) {
+
+    private static final Pattern IN_LIST = Pattern.compile("in\\s*\\((\\s*\\?\\s*,)*\\s*\\?\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static SqlBudget of(String endpoint, int maxStatements) {
+        return new SqlBudget(endpoint, maxStatements, 1);
+    }
+
+    public SqlBudget withMaxRepeats(int maxRepeats) {
+        return new SqlBudget(endpoint, maxStatements, maxRepeats);
+    }
+
+    public void assertWithin(List<String> statements) {
+        Map<String, Integer> selects = new LinkedHashMap<>();
+        for (String sql : statements) {
+            String normalized = normalize(sql);
+            if (normalized.startsWith("select") || normalized.startsWith("with")) {
+                selects.merge(normalized, 1, Integer::sum);
+            }
+        }
+
+        StringBuilder problems = new StringBuilder();
+        if (statements.size() > maxStatements) {
+            problems.append(String.format("%d statements, budget is %d%n", statements.size(), maxStatements));
+        }
+        selects.forEach((sql, count) -> {
+            if (count > maxRepeats) {
+                problems.append(String.format("possible N+1: executed %d times (max %d): %s%n", count, maxRepeats, sql));
+            }
+        });
+        if (problems.length() > 0) {
+            StringBuilder message = new StringBuilder(endpoint).append(" exceeded its SQL budget:\n").append(problems);
+            for (int i = 0; i < statements.size(); i++) {
+                message.append(String.format("  %2d. %s%n", i + 1, statements.get(i)));
+            }
+            fail(message.toString());
+        }
+    }
+
+    /**
+     * Lower-cases, collapses whitespace and folds IN lists of any length to one placeholder.
+     */
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return IN_LIST.matcher(normalized).replaceAll("in (?)");
+    }
+}
@@ -0,0 +1,39 @@
+package com.main.utin.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate statement inspector that records every SQL statement prepared on
+ * the current thread between {@link #start()} and {@link #stop()}. MockMvc runs
+ * the whole filter chain and controller on the test thread, so one capture
+ * covers exactly one request. Work on other threads (async screening, schedulers)
+ * is not counted.
+ *
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    public static void start() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        List<String> captured = CAPTURED.get();
+        CAPTURED.remove();
+        return captured == null ? List.of() : captured;
+    }
+}
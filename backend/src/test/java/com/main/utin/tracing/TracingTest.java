@@ -0,0 +1,127 @@
+package com.main.utin.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracingTest {
+
+    @AfterEach
+    void unbind() {
+        Tracing.end();
+    }
+
+    @Test
+    void recordsNestedSpansInStartOrderWithSelfTimes() throws Exception {
+        RequestTrace trace = new RequestTrace("t1", "GET", "/api/v1/prescription/1", 100, 20);
+        Tracing.begin(trace);
+        try (TraceSpan jwt = Tracing.span(SpanKind.JWT, null)) {
+            try (TraceSpan lookup = Tracing.span(SpanKind.USER_LOOKUP, "doctor")) {
+                Thread.sleep(5);
+            }
+        }
+        try (TraceSpan service = Tracing.span(SpanKind.SERVICE, String.class.getMethod("trim"))) {
+            long started = System.nanoTime();
+            Thread.sleep(5);
+            Tracing.record(SpanKind.SQL, "select * from prescriptions where id = ?", started, System.nanoTime() - started);
+        }
+        Tracing.end();
+        trace.finish(200);
+
+        List<RequestTrace.Span> spans = trace.getSpans();
+        assertEquals(List.of(SpanKind.JWT, SpanKind.USER_LOOKUP, SpanKind.SERVICE, SpanKind.SQL),
+                spans.stream().map(RequestTrace.Span::kind).toList());
+        assertEquals(List.of(0, 1, 0, 1), spans.stream().map(RequestTrace.Span::depth).toList());
+        assertEquals("String.trim", spans.get(2).detail());
+        assertEquals("select * from prescr...", spans.get(3).detail());
+
+        Map<SpanKind, Long> self = trace.selfNanosByKind();
+        long total = self.values().stream().mapToLong(Long::longValue).sum() + trace.untracedNanos();
+        assertEquals(trace.getDurationNanos(), total);
+        assertTrue(self.get(SpanKind.USER_LOOKUP) >= 5_000_000);
+        assertEquals(spans.get(2).durationNanos() - spans.get(3).durationNanos(), (long) self.get(SpanKind.SERVICE));
+    }
+
+    @Test
+    void capsSpansPerTrace() {
+        RequestTrace trace = new RequestTrace("t1", "GET", "/api/v1/prescription", 3, 100);
+        Tracing.begin(trace);
+        for (int i = 0; i < 5; i++) {
+            Tracing.span(SpanKind.SERVICE, "call " + i).close();
+        }
+        Tracing.end();
+
+        assertEquals(3, trace.getSpans().size());
+        assertEquals(2, trace.getDroppedSpans());
+    }
+
+    @Test
+    void keepsRecentAndSlowestSeparately() {
+        TracingProperties properties = new TracingProperties();
+        properties.setRecentCapacity(3);
+        properties.setSlowestCapacity(2);
+        TraceStore store = new TraceStore(properties, new SimpleMeterRegistry());
+        long[] durations = {50, 900, 10, 700, 20, 30};
+        for (int i = 0; i < durations.length; i++) {
+            store.add(finished("t" + i, durations[i]));
+        }
+
+        assertEquals(List.of("t5", "t4", "t3"), store.getRecent().stream().map(RequestTrace::getId).toList());
+        assertEquals(List.of("t1", "t3"), store.getSlowest().stream().map(RequestTrace::getId).toList());
+        assertTrue(store.find("t1").isPresent());
+        assertFalse(store.find("t0").isPresent());
+    }
+
+    /**
+     * Cost of instrumentation on a request that is not sampled: one service span, five SQL
+     * records and a serialization span, the typical shape of a read request. The bound is
+     * loose since timings depend on the machine.
+     */
+    @Test
+    void unsampledOverheadIsNegligible() {
+        int iterations = 2_000_000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += simulatedRequest(i);
+            }
+            long perRequest = (System.nanoTime() - started) / iterations;
+            if (round == 2) {
+                // The sink in the message keeps the simulated requests from being optimized away
+                assertTrue(perRequest < 1_000, "unsampled overhead " + perRequest + " ns (sink " + sink + ")");
+            }
+        }
+        assertSame(Tracing.NOOP, Tracing.span(SpanKind.SERVICE, "unsampled"));
+    }
+
+    private static long simulatedRequest(int i) {
+        try (TraceSpan service = Tracing.span(SpanKind.SERVICE, "PrescriptionServiceImpl.getPrescriptionById")) {
+            for (int statement = 0; statement < 5; statement++) {
+                if (Tracing.isActive()) {
+                    Tracing.record(SpanKind.SQL, "select " + statement, i, 1);
+                }
+            }
+            try (TraceSpan serialization = Tracing.span(SpanKind.SERIALIZATION, String.class)) {
+                return i & 1;
+            }
+        }
+    }
+
+    private static RequestTrace finished(String id, long durationMs) {
+        RequestTrace trace = new RequestTrace(id, "GET", "/api/v1/prescription", 10, 100);
+        trace.finish(200);
+        // Stand in for a request that took durationMs without sleeping for it
+        ReflectionTestUtils.setField(trace, "durationNanos", durationMs * 1_000_000);
+        return trace;
+    }
+}
@@ -2,7 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import Layout from '../components/Layout';
 import { prescriptionService } from '../services/prescriptionService';
-import { getFirstDayOfMonth, getLastDayOfMonth, formatDisplayDate } from '../utils/validation';
+import { formatDisplayDate } from '../utils/validation';
 
 const Dashboard = () => {
   const navigate = useNavigate();
@@ -10,6 +10,7 @@ const Dashboard = () => {
     totalPrescriptions: 0,
     thisMonth: 0,
     today: 0,
+    upcomingFollowUps: 0,
   });
   const [recentPrescriptions, setRecentPrescriptions] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -21,21 +22,16 @@ const Dashboard = () => {
   const fetchDashboardData = async () => {
     try {
       setLoading(true);
-      const startDate = getFirstDayOfMonth();
-      const endDate = getLastDayOfMonth();
-      const prescriptions = await prescriptionService.getAll(startDate, endDate);
-
-      const today = new Date().toISOString().split('T')[0];
-      const todayCount = prescriptions.filter(p => p.prescriptionDate === today).length;
+      const summary = await prescriptionService.getDashboard(5, 7);
 
       setStats({
-        totalPrescriptions: prescriptions.length,
-        thisMonth: prescriptions.length,
-        today: todayCount,
+        totalPrescriptions: summary.monthTotal,
+        thisMonth: summary.monthTotal,
+        today: summary.todayCount,
+        upcomingFollowUps: summary.upcomingFollowUps,
       });
 
-      // Get 5 most recent prescriptions
-      setRecentPrescriptions(prescriptions.slice(0, 5));
+      setRecentPrescriptions(summary.recentPrescriptions);
     } catch (error) {
       console.error('Error fetching dashboard data:', error);
     } finally {
@@ -96,8 +92,8 @@ const Dashboard = () => {
             color="bg-gradient-to-br from-green-50 to-green-100"
           />
           <StatCard
-            title="Total Prescriptions"
-            value={stats.totalPrescriptions}
+            title="Follow-ups (7 days)"
+            value={stats.upcomingFollowUps}
             icon="📋"
             color="bg-gradient-to-br from-purple-50 to-purple-100"
           />
@@ -4,6 +4,7 @@ import { drugInteractionService } from '../services/drugInteractionService';
 
 const DrugInteraction = () => {
   const [data, setData] = useState(null);
+  const [meta, setMeta] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
 
@@ -16,7 +17,8 @@ const DrugInteraction = () => {
       setLoading(true);
       setError(null);
       const response = await drugInteractionService.getDrugInteraction();
-      setData(response);
+      setData(response.data);
+      setMeta({ source: response.source, stale: response.stale, fetchedAt: response.fetchedAt });
     } catch (err) {
       console.error('Error fetching drug interaction:', err);
       setError('Failed to fetch drug interaction data. Please try again later.');
@@ -25,8 +27,17 @@ const DrugInteraction = () => {
     }
   };
 
+  const unavailable = meta?.source === 'fallback';
+
   const renderInteractionGroups = () => {
-    if (!data || !data.interactionTypeGroup) {
+    if (unavailable) {
+      return (
+        <div className="text-center py-8 text-gray-500">
+          <p>Interaction data could not be loaded</p>
+        </div>
+      );
+    }
+    if (!data || !data.groups || data.groups.length === 0) {
       return (
         <div className="text-center py-8 text-gray-500">
           <p>No interaction data available</p>
@@ -34,49 +45,47 @@ const DrugInteraction = () => {
       );
     }
 
-    return data.interactionTypeGroup.map((group, groupIndex) => (
+    return data.groups.map((group, groupIndex) => (
       <div key={groupIndex} className="mb-6">
         <h3 className="text-lg font-semibold text-gray-900 mb-3">
           {group.sourceDisclaimer || 'Drug Interactions'}
         </h3>
-        {group.interactionType && group.interactionType.map((type, typeIndex) => (
-          <div key={typeIndex} className="mb-4">
-            {type.comment && (
-              <p className="text-sm text-gray-600 mb-2 italic">{type.comment}</p>
-            )}
-            {type.interactionPair && type.interactionPair.map((pair, pairIndex) => (
-              <div key={pairIndex} className="bg-yellow-50 border-l-4 border-yellow-400 p-4 mb-3">
-                <div className="flex">
-                  <div className="flex-shrink-0">
-                    <svg className="h-5 w-5 text-yellow-400" xmlns="http://www.w3.org/2000/svg" viewBox="0 0 20 20" fill="currentColor">
-                      <path fillRule="evenodd" d="M8.257 3.099c.765-1.36 2.722-1.36 3.486 0l5.58 9.92c.75 1.334-.213 2.98-1.742 2.98H4.42c-1.53 0-2.493-1.646-1.743-2.98l5.58-9.92zM11 13a1 1 0 11-2 0 1 1 0 012 0zm-1-8a1 1 0 00-1 1v3a1 1 0 002 0V6a1 1 0 00-1-1z" clipRule="evenodd" />
-                    </svg>
-                  </div>
-                  <div className="ml-3">
-                    <p className="text-sm font-medium text-yellow-800">
-                      <strong>Severity:</strong> {pair.severity || 'N/A'}
-                    </p>
-
-
-                    {pair.description && (
-                      <p className="text-sm text-yellow-700 mt-2">{pair.description}</p>
-                    )}
-                    {pair.interactionConcept && (
-                      <div className="mt-2">
-                        <p className="text-xs font-semibold text-yellow-900">Involved Drugs:</p>
-                        {pair.interactionConcept.map((concept, conceptIndex) => (
-                          <span key={conceptIndex} className="inline-block bg-yellow-200 text-yellow-800 text-xs px-2 py-1 rounded mr-2 mt-1">
-                            {concept.minConceptItem?.name || concept.sourceConceptItem?.name || 'Unknown'}
-                          </span>
-                        ))}
-                      </div>
-                    )}
-                  </div>
+        <div className="mb-4">
+          {group.pairs && group.pairs.map((pair, pairIndex) => (
+            <div key={pairIndex} className="bg-yellow-50 border-l-4 border-yellow-400 p-4 mb-3">
+              <div className="flex">
+                <div className="flex-shrink-0">
+                  <svg className="h-5 w-5 text-yellow-400" xmlns="http://www.w3.org/2000/svg" viewBox="0 0 20 20" fill="currentColor">
+                    <path fillRule="evenodd" d="M8.257 3.099c.765-1.36 2.722-1.36 3.486 0l5.58 9.92c.75 1.334-.213 2.98-1.742 2.98H4.42c-1.53 0-2.493-1.646-1.743-2.98l5.58-9.92zM11 13a1 1 0 11-2 0 1 1 0 012 0zm-1-8a1 1 0 00-1 1v3a1 1 0 002 0V6a1 1 0 00-1-1z" clipRule="evenodd" />
+                  </svg>
+                </div>
+                <div className="ml-3">
+                  <p className="text-sm font-medium text-yellow-800">
+                    <strong>Severity:</strong> {pair.severity || 'N/A'}
+                  </p>
+
+
+                  {pair.description && (
+                    <p className="text-sm text-yellow-700 mt-2">{pair.description}</p>
+                  )}
+                  {pair.comment && (
+                    <p className="text-sm text-gray-600 mt-2 italic">{pair.comment}</p>
+                  )}
+                  {pair.drugs && (
+                    <div className="mt-2">
+                      <p className="text-xs font-semibold text-yellow-900">Involved Drugs:</p>
+                      {pair.drugs.map((drug, drugIndex) => (
+                        <span key={drugIndex} className="inline-block bg-yellow-200 text-yellow-800 text-xs px-2 py-1 rounded mr-2 mt-1">
+                          {drug || 'Unknown'}
+                        </span>
+                      ))}
+                    </div>
+                  )}
                 </div>
               </div>
-            ))}
-          </div>
-        ))}
+            </div>
+          ))}
+        </div>
       </div>
     ));
   };
@@ -139,6 +148,26 @@ const DrugInteraction = () => {
           </div>
         )}
 
+        {/* Availability Notice */}
+        {unavailable && (
+          <div className="card bg-red-50 border-l-4 border-red-500">
+            <p className="text-sm font-medium text-red-800">Drug interaction data is currently unavailable</p>
+            <p className="text-sm text-red-700 mt-1">
+              The RxNav service could not be reached and no earlier copy is stored. An empty list here does not
+              mean there are no interactions; refresh later before relying on it.
+            </p>
+          </div>
+        )}
+        {!unavailable && meta?.stale && (
+          <div className="card bg-yellow-50 border-l-4 border-yellow-400">
+            <p className="text-sm font-medium text-yellow-800">Showing stored data that may be out of date</p>
+            <p className="text-sm text-yellow-700 mt-1">
+              Last fetched from RxNav {meta.fetchedAt ? new Date(meta.fetchedAt).toLocaleString() : 'at an unknown time'}.
+              A refresh has been requested in the background.
+            </p>
+          </div>
+        )}
+
         {/* Drug Interaction Data */}
         <div className="card">
           <h2 className="text-xl font-bold text-gray-900 mb-4">Interaction Details</h2>
@@ -169,7 +198,7 @@ const DrugInteraction = () => {
               </div>
 
               {/* Display in Table Format */}
-              {data && data.interactionTypeGroup && data.interactionTypeGroup.length > 0 && (
+              {data && data.groups && data.groups.length > 0 && (
                 <div className="mt-8">
                   <h3 className="text-lg font-semibold text-gray-900 mb-4">Summary Table</h3>
                   <div className="overflow-x-auto">
@@ -191,35 +220,29 @@ const DrugInteraction = () => {
                         </tr>
                       </thead>
                       <tbody className="bg-white divide-y divide-gray-200">
-                        {data.interactionTypeGroup.flatMap((group) =>
-                          group.interactionType?.flatMap((type) =>
-                            type.interactionPair?.map((pair, index) => (
-                              <tr key={index} className="hover:bg-gray-50">
-                                <td className="px-6 py-4 whitespace-nowrap text-sm font-medium text-gray-900">
-                                  {pair.interactionConcept?.[0]?.minConceptItem?.name ||
-                                   pair.interactionConcept?.[0]?.sourceConceptItem?.name ||
-                                   'N/A'}
-                                </td>
-                                <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
-                                  {pair.interactionConcept?.[1]?.minConceptItem?.name ||
-                                   pair.interactionConcept?.[1]?.sourceConceptItem?.name ||
-                                   'N/A'}
-                                </td>
-                                <td className="px-6 py-4 whitespace-nowrap text-sm">
-                                  <span className={`px-2 inline-flex text-xs leading-5 font-semibold rounded-full ${
-                                    pair.severity === 'high' ? 'bg-red-100 text-red-800' :
-                                    pair.severity === 'moderate' ? 'bg-yellow-100 text-yellow-800' :
-                                    'bg-green-100 text-green-800'
-                                  }`}>
-                                    {pair.severity || 'N/A'}
-                                  </span>
-                                </td>
-                                <td className="px-6 py-4 text-sm text-gray-500 max-w-md truncate">
-                                  {pair.description || 'No description available'}
-                                </td>
-                              </tr>
-                            )) || []
-                          ) || []
+                        {data.groups.flatMap((group, groupIndex) =>
+                          group.pairs?.map((pair, index) => (
+                            <tr key={`${groupIndex}-${index}`} className="hover:bg-gray-50">
+                              <td className="px-6 py-4 whitespace-nowrap text-sm font-medium text-gray-900">
+                                {pair.drugs?.[0] || 'N/A'}
+                              </td>
+                              <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
+                                {pair.drugs?.[1] || 'N/A'}
+                              </td>
+                              <td className="px-6 py-4 whitespace-nowrap text-sm">
+                                <span className={`px-2 inline-flex text-xs leading-5 font-semibold rounded-full ${
+                                  pair.severity === 'high' ? 'bg-red-100 text-red-800' :
+                                  pair.severity === 'moderate' ? 'bg-yellow-100 text-yellow-800' :
+                                  'bg-green-100 text-green-800'
+                                }`}>
+                                  {pair.severity || 'N/A'}
+                                </span>
+                              </td>
+                              <td className="px-6 py-4 text-sm text-gray-500 max-w-md truncate">
+                                {pair.description || 'No description available'}
+                              </td>
+                            </tr>
+                          )) || []
                         )}
                       </tbody>
                     </table>
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate, useParams } from 'react-router-dom';
 import Layout from '../components/Layout';
 import { prescriptionService } from '../services/prescriptionService';
@@ -25,8 +25,11 @@ const PrescriptionForm = () => {
   });
 
   const [errors, setErrors] = useState({});
+  const [screening, setScreening] = useState(null);
   const [loading, setLoading] = useState(false);
   const [fetchLoading, setFetchLoading] = useState(false);
+  // Reused when the same form content is resubmitted, so retries cannot create duplicates
+  const idempotencyKey = useRef(null);
 
   useEffect(() => {
     if (isEditMode) {
@@ -47,6 +50,7 @@ const PrescriptionForm = () => {
         medicines: data.medicines || '',
         nextVisitDate: data.nextVisitDate || '',
       });
+      setScreening(data.interactionScreening || null);
     } catch (error) {
       console.error('Error fetching prescription:', error);
       alert('Failed to fetch prescription details');
@@ -112,6 +116,7 @@ const PrescriptionForm = () => {
 
   const handleChange = (e) => {
     const { name, value } = e.target;
+    idempotencyKey.current = null;
     setFormData((prev) => ({
       ...prev,
       [name]: value,
@@ -149,7 +154,10 @@ const PrescriptionForm = () => {
         await prescriptionService.update(id, submitData);
         alert('Prescription updated successfully!');
       } else {
-        await prescriptionService.create(submitData);
+        if (!idempotencyKey.current) {
+          idempotencyKey.current = crypto.randomUUID();
+        }
+        await prescriptionService.create(submitData, idempotencyKey.current);
         alert('Prescription created successfully!');
       }
       navigate('/prescriptions');
@@ -335,6 +343,28 @@ const PrescriptionForm = () => {
                   )}
                   <p className="text-xs text-gray-500">{formData.medicines.length}/2000</p>
                 </div>
+                {screening && (
+                  <div className="mt-2 text-sm">
+                    {screening.status === 'PENDING' && (
+                      <p className="text-gray-500">Interaction screening in progress...</p>
+                    )}
+                    {screening.status === 'FAILED' && (
+                      <p className="text-gray-500">Interaction screening could not be completed</p>
+                    )}
+                    {screening.status === 'COMPLETED' && (!screening.findings || screening.findings.length === 0) && (
+                      <p className="text-green-700">No known interactions between the prescribed medicines</p>
+                    )}
+                    {screening.status === 'COMPLETED' && screening.findings && screening.findings.map((finding, index) => (
+                      <div key={index} className="bg-yellow-50 border-l-4 border-yellow-400 p-2 mt-1">
+                        <p className="font-medium text-yellow-800">
+                          {finding.drug} + {finding.interactsWith}
+                          {finding.severity && finding.severity !== 'N/A' ? ` (${finding.severity})` : ''}
+                        </p>
+                        {finding.description && <p className="text-yellow-700">{finding.description}</p>}
+                      </div>
+                    ))}
+                  </div>
+                )}
               </div>
             </div>
 
@@ -1,35 +1,57 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import Layout from '../components/Layout';
 import Modal from '../components/Modal';
 import { prescriptionService } from '../services/prescriptionService';
+import { authService } from '../services/authService';
 import { getFirstDayOfMonth, getLastDayOfMonth, formatDate, formatDisplayDate } from '../utils/validation';
 
+const PAGE_SIZE = 50;
+
 const PrescriptionList = () => {
   const navigate = useNavigate();
   const [prescriptions, setPrescriptions] = useState([]);
-  const [filteredPrescriptions, setFilteredPrescriptions] = useState([]);
   const [loading, setLoading] = useState(true);
+  const hasLoaded = useRef(false);
   const [dateRange, setDateRange] = useState({
     startDate: getFirstDayOfMonth(),
     endDate: getLastDayOfMonth(),
   });
-  const [searchTerm, setSearchTerm] = useState('');
+  const [filters, setFilters] = useState({
+    name: '',
+    search: '',
+    gender: '',
+    minAge: '',
+    maxAge: '',
+    mineOnly: false,
+    sort: 'DATE',
+    direction: 'DESC',
+  });
+  const [limit, setLimit] = useState(PAGE_SIZE);
   const [deleteModal, setDeleteModal] = useState({ isOpen: false, prescriptionId: null });
 
   useEffect(() => {
-    fetchPrescriptions();
-  }, [dateRange]);
-
-  useEffect(() => {
-    filterPrescriptions();
-  }, [prescriptions, searchTerm]);
+    // Debounce so typing a name or search term does not send a request per keystroke
+    const timer = setTimeout(fetchPrescriptions, 300);
+    return () => clearTimeout(timer);
+  }, [dateRange, filters, limit]);
 
   const fetchPrescriptions = async () => {
     try {
       setLoading(true);
-      const data = await prescriptionService.getAll(dateRange.startDate, dateRange.endDate);
+      const data = await prescriptionService.getAll(dateRange.startDate, dateRange.endDate, {
+        name: filters.name.trim(),
+        search: filters.search.trim(),
+        gender: filters.gender,
+        minAge: filters.minAge,
+        maxAge: filters.maxAge,
+        doctor: filters.mineOnly ? authService.getCurrentUser()?.username : '',
+        sort: filters.sort,
+        direction: filters.direction,
+        limit,
+      });
       setPrescriptions(data);
+      hasLoaded.current = true;
     } catch (error) {
       console.error('Error fetching prescriptions:', error);
       alert('Failed to fetch prescriptions');
@@ -38,17 +60,13 @@ const PrescriptionList = () => {
     }
   };
 
-  const filterPrescriptions = () => {
-    if (!searchTerm.trim()) {
-      setFilteredPrescriptions(prescriptions);
-      return;
-    }
-
-    const filtered = prescriptions.filter((prescription) =>
-      prescription.patientName.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      prescription.diagnosis?.toLowerCase().includes(searchTerm.toLowerCase())
-    );
-    setFilteredPrescriptions(filtered);
+  const handleFilterChange = (e) => {
+    const { name, value, type, checked } = e.target;
+    setFilters((prev) => ({
+      ...prev,
+      [name]: type === 'checkbox' ? checked : value,
+    }));
+    setLimit(PAGE_SIZE);
   };
 
   const handleDateRangeChange = (e) => {
@@ -57,6 +75,7 @@ const PrescriptionList = () => {
       ...prev,
       [name]: value,
     }));
+    setLimit(PAGE_SIZE);
   };
 
   const handleDelete = async () => {
@@ -80,7 +99,8 @@ const PrescriptionList = () => {
     setDeleteModal({ isOpen: false, prescriptionId: null });
   };
 
-  if (loading) {
+  // Only the first load replaces the page; later loads keep the filter inputs mounted
+  if (loading && !hasLoaded.current) {
     return (
       <Layout>
         <div className="flex justify-center items-center h-64">
@@ -131,38 +151,117 @@ const PrescriptionList = () => {
                 className="input-field"
               />
             </div>
+            <div className="md:col-span-2">
+              <label className="block text-sm font-medium text-gray-700 mb-1">
+                Patient Name
+              </label>
+              <input
+                type="text"
+                name="name"
+                placeholder="Starts with..."
+                value={filters.name}
+                onChange={handleFilterChange}
+                className="input-field"
+              />
+            </div>
             <div className="md:col-span-2">
               <label className="block text-sm font-medium text-gray-700 mb-1">
                 Search
               </label>
               <input
                 type="text"
+                name="search"
                 placeholder="Search by patient name or diagnosis..."
-                value={searchTerm}
-                onChange={(e) => setSearchTerm(e.target.value)}
+                value={filters.search}
+                onChange={handleFilterChange}
                 className="input-field"
               />
             </div>
+            <div>
+              <label className="block text-sm font-medium text-gray-700 mb-1">
+                Gender
+              </label>
+              <select name="gender" value={filters.gender} onChange={handleFilterChange} className="input-field">
+                <option value="">All</option>
+                <option value="MALE">Male</option>
+                <option value="FEMALE">Female</option>
+                <option value="OTHER">Other</option>
+              </select>
+            </div>
+            <div>
+              <label className="block text-sm font-medium text-gray-700 mb-1">
+                Age Range
+              </label>
+              <div className="flex gap-2">
+                <input
+                  type="number"
+                  name="minAge"
+                  min="0"
+                  placeholder="Min"
+                  value={filters.minAge}
+                  onChange={handleFilterChange}
+                  className="input-field"
+                />
+                <input
+                  type="number"
+                  name="maxAge"
+                  min="0"
+                  placeholder="Max"
+                  value={filters.maxAge}
+                  onChange={handleFilterChange}
+                  className="input-field"
+                />
+              </div>
+            </div>
+            <div>
+              <label className="block text-sm font-medium text-gray-700 mb-1">
+                Sort By
+              </label>
+              <div className="flex gap-2">
+                <select name="sort" value={filters.sort} onChange={handleFilterChange} className="input-field">
+                  <option value="DATE">Date</option>
+                  <option value="PATIENT_NAME">Patient Name</option>
+                  <option value="AGE">Age</option>
+                  <option value="NEXT_VISIT">Next Visit</option>
+                </select>
+                <select name="direction" value={filters.direction} onChange={handleFilterChange} className="input-field">
+                  <option value="DESC">Desc</option>
+                  <option value="ASC">Asc</option>
+                </select>
+              </div>
+            </div>
+            <div className="flex items-end">
+              <label className="inline-flex items-center text-sm text-gray-700">
+                <input
+                  type="checkbox"
+                  name="mineOnly"
+                  checked={filters.mineOnly}
+                  onChange={handleFilterChange}
+                  className="mr-2"
+                />
+                My prescriptions only
+              </label>
+            </div>
           </div>
-
-
         </div>
 
         {/* Prescriptions Table */}
         <div className="card">
           <div className="mb-4 flex justify-between items-center">
             <h2 className="text-lg font-semibold text-gray-900">
-              {filteredPrescriptions.length} Prescription(s) Found
+              {prescriptions.length === limit
+                ? `Showing first ${prescriptions.length} prescriptions`
+                : `${prescriptions.length} Prescription(s) Found`}
             </h2>
           </div>
 
-          {filteredPrescriptions.length === 0 ? (
+          {prescriptions.length === 0 ? (
             <div className="text-center py-12 text-gray-500">
               <div className="text-6xl mb-4">📋</div>
               <p className="text-lg font-medium">No prescriptions found</p>
               <p className="text-sm mt-2">
-                {searchTerm
-                  ? 'Try adjusting your search or date range'
+                {filters.name || filters.search || filters.gender || filters.minAge || filters.maxAge || filters.mineOnly
+                  ? 'Try adjusting your filters or date range'
                   : 'Create your first prescription to get started'}
               </p>
             </div>
@@ -195,7 +294,7 @@ const PrescriptionList = () => {
                   </tr>
                 </thead>
                 <tbody className="bg-white divide-y divide-gray-200">
-                  {filteredPrescriptions.map((prescription) => (
+                  {prescriptions.map((prescription) => (
                     <tr
                       key={prescription.id}
                       className="hover:bg-gray-50 cursor-pointer"
@@ -242,6 +341,13 @@ const PrescriptionList = () => {
                   ))}
                 </tbody>
               </table>
+              {prescriptions.length === limit && (
+                <div className="mt-4 text-center">
+                  <button onClick={() => setLimit((prev) => prev + PAGE_SIZE)} className="btn-secondary">
+                    Show more
+                  </button>
+                </div>
+              )}
             </div>
           )}
         </div>
@@ -20,6 +20,11 @@ export const authService = {
   },
 
   logout: () => {
+    const token = localStorage.getItem('token');
+    if (token) {
+      // Revoke the token server-side; local sign-out does not wait for it
+      api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }).catch(() => {});
+    }
     localStorage.removeItem('token');
     localStorage.removeItem('user');
   },
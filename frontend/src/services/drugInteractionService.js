@@ -3,6 +3,12 @@ import api from './api';
 export const drugInteractionService = {
   getDrugInteraction: async () => {
     const response = await api.get('/drug-interaction');
-    return response.data;
+    return {
+      data: response.data,
+      // "network", "snapshot" or "fallback" (RxNav unreachable and nothing stored)
+      source: response.headers['x-data-source'],
+      stale: response.headers['x-data-stale'] === 'true',
+      fetchedAt: response.headers['x-data-fetched-at'],
+    };
   },
-};
\ No newline at end of file
+};
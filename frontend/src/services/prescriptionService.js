@@ -1,21 +1,35 @@
 import api from './api';
 
 export const prescriptionService = {
-  getAll: async (startDate, endDate) => {
+  getAll: async (startDate, endDate, filters = {}) => {
     const params = {};
     if (startDate) params.startDate = startDate;
     if (endDate) params.endDate = endDate;
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') params[key] = value;
+    });
     const response = await api.get('/prescription', { params });
     return response.data;
   },
 
+  getDashboard: async (recent = 5, followUpDays = 7) => {
+    const response = await api.get('/prescription/dashboard', { params: { recent, followUpDays } });
+    return response.data;
+  },
+
   getById: async (id) => {
     const response = await api.get(`/prescription/${id}`);
     return response.data;
   },
 
-  create: async (data) => {
-    const response = await api.post('/prescription', data);
+  getByIds: async (ids) => {
+    const response = await api.post('/prescription/batch', { ids });
+    return response.data;
+  },
+
+  create: async (data, idempotencyKey) => {
+    const config = idempotencyKey ? { headers: { 'Idempotency-Key': idempotencyKey } } : undefined;
+    const response = await api.post('/prescription', data, config);
     return response.data;
   },
 